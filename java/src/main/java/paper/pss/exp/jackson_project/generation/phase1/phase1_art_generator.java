@@ -3,12 +3,17 @@ package paper.pss.exp.jackson_project.generation.phase1;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 import paper.pss.exp.jackson_project.model.TestCase;
+import paper.pss.exp.utils.ArtIndex_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 public class phase1_art_generator {
 
-    private static final Random random = new Random(System.currentTimeMillis());
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     private static final int MAX_RANGE = 999_999_999;
+    // 一维特征 [整数值] 在绝对距离中的下界权重，用于最近邻索引剪枝
+    private static final double[] FEATURE_WEIGHTS = { 1.0 };
     private final int candidateNum;
 
     public phase1_art_generator() {
@@ -16,36 +21,42 @@ public class phase1_art_generator {
     }
 
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
+        // 已选测试用例的整数值索引，用最近邻查询代替逐一解析并比较所有已有用例
+        ArtIndex_utils index = new ArtIndex_utils(FEATURE_WEIGHTS, (a, b) -> distance((int) a[0], (int) b[0]));
 
         // Step 1: generate the first random test case
-        int firstValue = generateRandomInt();
+        int firstValue = generateRandomInt(random);
         testCases.add(new TestCase(Integer.toString(firstValue), null));
+        index.add(new double[] { firstValue });
 
         // Step 2: generate remaining test cases using ART strategy
         while (testCases.size() < count) {
             String bestCandidate = null;
-            int bestMinDist = -1;
+            int bestValue = 0;
+            double bestMinDist = -1;
 
             for (int i = 0; i < candidateNum; i++) {
-                int candidateValue = generateRandomInt();
-
-                int minDist = Integer.MAX_VALUE;
-                for (TestCase existing : testCases) {
-                    int existingValue = Integer.parseInt(existing.getInput());
-                    int dist = distance(candidateValue, existingValue);
-                    if (dist < minDist) {
-                        minDist = dist;
-                    }
-                }
+                int candidateValue = generateRandomInt(random);
+
+                double minDist = index.nearestDistance(new double[] { candidateValue });
 
                 if (minDist > bestMinDist) {
                     bestMinDist = minDist;
                     bestCandidate = Integer.toString(candidateValue);
+                    bestValue = candidateValue;
                 }
             }
 
             testCases.add(new TestCase(bestCandidate, null));
+            index.add(new double[] { bestValue });
         }
 
         return testCases;
@@ -57,7 +68,7 @@ public class phase1_art_generator {
     }
 
     /** 生成随机整数，允许为负值 */
-    private int generateRandomInt() {
+    private int generateRandomInt(RandomGenerator random) {
         boolean isNegative = random.nextBoolean();
         int value = random.nextInt(MAX_RANGE + 1);
         return isNegative ? -value : value;
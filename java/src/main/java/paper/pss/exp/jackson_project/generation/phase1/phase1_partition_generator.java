@@ -3,9 +3,12 @@ package paper.pss.exp.jackson_project.generation.phase1;
 import paper.pss.exp.jackson_project.model.TestCase;
 import paper.pss.exp.jackson_project.utils.JacksonConfigExtractor_utils;
 import paper.pss.exp.jackson_project.utils.JacksonConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -17,26 +20,30 @@ public class phase1_partition_generator {
     private final JacksonConfigExtractor_utils configExtractor;
     private final List<Partition> partitions;
     private final List<Integer> partitionWeights;
-    private final Map<Integer, Integer> selectedCounts;
-    private final Random random;
+    private final PsalmAllocator_utils allocator; // 各分区的分配状态，单元编号为分区在配置中的下标
+    private final RandomGenerator random;
 
     public phase1_partition_generator() throws IOException {
         this("src/main/java/paper/pss/exp/jackson_project/jackson_config.json");
     }
 
     public phase1_partition_generator(String configPath) throws IOException {
+        this(configPath, new Random(ExperimentSeed_utils.DEFAULT_SEED));
+    }
+
+    /**
+     * 使用指定的随机数生成器创建生成器，分片并行构建MG域时每个分片使用各自独立的随机数流
+     */
+    public phase1_partition_generator(String configPath, RandomGenerator random) throws IOException {
         this.configExtractor = new JacksonConfigExtractor_utils(configPath);
         this.partitions = configExtractor.getPartitions();
         this.partitionWeights = partitions.stream()
                 .map(Partition::getWeight)
                 .collect(Collectors.toList());
-        this.selectedCounts = new HashMap<>();
-        this.random = new Random();
-        
-        // 初始化选择计数
-        for (Partition partition : partitions) {
-            selectedCounts.put(partition.getId(), 0);
-        }
+        this.allocator = new PsalmAllocator_utils(partitions.stream()
+                .mapToDouble(partition -> partition.getWeight())
+                .toArray());
+        this.random = random;
         
         validateConfig();
     }
@@ -64,80 +71,63 @@ public class phase1_partition_generator {
      * 使用最大最小算法生成指定数量的测试用例
      */
     public List<TestCase> generate(int count) {
-        return allocateTestCases(count);
+        return generate(count, random);
     }
 
     /**
-     * 使用最大最小算法分配测试用例到各分区
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
      */
-    private List<TestCase> allocateTestCases(int count) {
-        // 重置选择计数
-        for (Integer partitionId : selectedCounts.keySet()) {
-            selectedCounts.put(partitionId, 0);
-        }
+    public List<TestCase> generate(int count, RandomGenerator random) {
+        return allocateTestCases(count, random);
+    }
 
-        Map<Integer, Double> samplingRates = new HashMap<>();
-        for (Partition partition : partitions) {
-            samplingRates.put(partition.getId(), 0.0);
-        }
+    /**
+     * 使用最大最小算法分配测试用例到各分区
+     */
+    private List<TestCase> allocateTestCases(int count, RandomGenerator random) {
+        int[] partitionOrder = allocatePartitions(count);
 
-        List<TestCase> testCases = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            int selectedPartition = findLowestSamplingRatePartition(samplingRates);
-            TestCase testCase = generateTestCaseInPartition(selectedPartition);
-            testCases.add(testCase);
-            
-            selectedCounts.put(selectedPartition, selectedCounts.get(selectedPartition) + 1);
-            
-            // 更新采样率
-            int partitionWeight = partitionWeights.get(selectedPartition - 1);
-            samplingRates.put(selectedPartition, 
-                (double) selectedCounts.get(selectedPartition) / partitionWeight);
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int partitionId : partitionOrder) {
+            testCases.add(generateTestCaseInPartition(partitionId, random));
         }
         return testCases;
     }
 
     /**
-     * 找到采样率最低的分区
+     * 按最大最小算法依次确定 count 个测试用例所属的分区
+     *
+     * @param count 测试用例数量
+     * @return 第 i 个元素为第 i 个测试用例的分区ID
      */
-    private int findLowestSamplingRatePartition(Map<Integer, Double> samplingRates) {
-        int selectedPartition = 1;
-        double lowestRate = Double.POSITIVE_INFINITY;
-        
-        for (Map.Entry<Integer, Double> entry : samplingRates.entrySet()) {
-            int partitionId = entry.getKey();
-            double rate = entry.getValue();
-            
-            if (rate < lowestRate) {
-                lowestRate = rate;
-                selectedPartition = partitionId;
-            } else if (rate == lowestRate && partitionId <= partitionWeights.size()) {
-                int currentWeight = partitionWeights.get(partitionId - 1);
-                int selectedWeight = partitionWeights.get(selectedPartition - 1);
-                if (currentWeight > selectedWeight) {
-                    selectedPartition = partitionId;
-                }
-            }
+    public int[] allocatePartitions(int count) {
+        // 重置选择计数
+        allocator.reset();
+
+        int[] partitionOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            // 选择采样率最低的分区，并更新其计数和采样率
+            partitionOrder[i] = partitions.get(allocator.next()).getId();
         }
-        return selectedPartition;
+        return partitionOrder;
     }
 
     /**
      * 在指定分区中生成测试用例
      */
-    private TestCase generateTestCaseInPartition(int partitionId) {
+    private TestCase generateTestCaseInPartition(int partitionId, RandomGenerator random) {
         if (partitionId < 1 || partitionId > partitions.size()) {
             throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
         
-        String inputString = generateInputStringForPartition(partitionId);
+        String inputString = generateInputStringForPartition(partitionId, random);
         return new TestCase(inputString, partitionId);
     }
 
     /**
      * 为指定分区生成输入字符串
      */
-    private String generateInputStringForPartition(int partitionId) {
+    private String generateInputStringForPartition(int partitionId, RandomGenerator random) {
         switch (partitionId) {
             case 1: // Positive, 1–2 digits
                 return String.valueOf(random.nextInt(99) + 1);
@@ -164,7 +154,14 @@ public class phase1_partition_generator {
      * 生成指定分区的测试用例
      */
     public TestCase generateTestCase(int partitionId) {
-        return generateTestCaseInPartition(partitionId);
+        return generateTestCase(partitionId, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器在指定分区中生成测试用例
+     */
+    public TestCase generateTestCase(int partitionId, RandomGenerator random) {
+        return generateTestCaseInPartition(partitionId, random);
     }
 
     /**
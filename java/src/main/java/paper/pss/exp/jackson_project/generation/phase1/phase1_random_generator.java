@@ -3,8 +3,10 @@ package paper.pss.exp.jackson_project.generation.phase1;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.jackson_project.model.TestCase;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 /**
  * random_generator.java
@@ -15,7 +17,7 @@ import paper.pss.exp.jackson_project.model.TestCase;
  */
 public class phase1_random_generator {
 
-    private static final Random random = new Random(System.currentTimeMillis());
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
 
     /**
      * Generates the specified number of random test cases.
@@ -24,10 +26,17 @@ public class phase1_random_generator {
      * @return A list of randomly generated test cases
      */
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
 
         for (int i = 0; i < count; i++) {
-            String input = generateRandomIntString();
+            String input = generateRandomIntString(random);
             testCases.add(new TestCase(input, null)); // No partition assigned
         }
 
@@ -39,7 +48,7 @@ public class phase1_random_generator {
      *
      * @return A string like "-42", "123456789", "0"
      */
-    private String generateRandomIntString() {
+    private String generateRandomIntString(RandomGenerator random) {
         int maxRange = 999_999_999;
         int randomValue;
 
@@ -3,9 +3,12 @@ package paper.pss.exp.jackson_project.generation.phase2;
 import paper.pss.exp.jackson_project.model.MetamorphicGroup;
 import paper.pss.exp.jackson_project.utils.JacksonConfigExtractor_utils;
 import paper.pss.exp.jackson_project.utils.MGDomainGenerator;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * 随机均匀抽取MetamorphicGroup（MG）的生成器
@@ -34,7 +37,7 @@ public class phase2_random_generator {
      */
     public phase2_random_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new JacksonConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
     }
 
@@ -46,10 +49,15 @@ public class phase2_random_generator {
      * @throws IllegalArgumentException 当样本数量大于MG域总量时抛出异常
      */
     public List<MetamorphicGroup> generate(int numSamples) {
-        List<MetamorphicGroup> shuffled = new ArrayList<>(mgDomain);
-        Collections.shuffle(shuffled, random);
+        return generate(numSamples, random);
+    }
 
-        return shuffled.subList(0, numSamples);
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int numSamples, RandomGenerator random) {
+        // 只对被抽中的位置做洗牌，不复制整个MG域
+        return ColumnarMGDomain_utils.sampleWithoutReplacement(mgDomain, numSamples, random);
     }
 
     /**
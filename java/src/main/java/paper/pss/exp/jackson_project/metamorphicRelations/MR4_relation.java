@@ -2,7 +2,8 @@ package paper.pss.exp.jackson_project.metamorphicRelations;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.jackson_project.model.MetamorphicRelation;
 import paper.pss.exp.jackson_project.model.MetamorphicGroup;
@@ -13,7 +14,6 @@ import paper.pss.exp.jackson_project.model.TestCase;
  * Tests whether adding leading zeros to a number doesn't change its parsed value
  */
 public class MR4_relation implements MetamorphicRelation {
-    private static final Random random = new Random();
 
     @Override
     public String getId() {
@@ -27,6 +27,11 @@ public class MR4_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
         String inputString = sourceTest.getInput();
 
@@ -109,8 +114,13 @@ public class MR4_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         for (TestCase followupTest : followupTests) {
             groups.add(new MetamorphicGroup(
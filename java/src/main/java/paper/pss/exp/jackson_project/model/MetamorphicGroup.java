@@ -18,6 +18,8 @@ public class MetamorphicGroup {
     private final String description; // Brief description of the relation
     private final TestCase sourceTest; // Original test case
     private final TestCase followupTest; // Derived follow-up test case
+    private int domainIndex = -1; // Position in the MG domain, -1 if not part of a domain
+    private int sourceIndex = -1; // Position of the source test among the domain's source tests
 
     /**
      * Creates a metamorphic group with a source and follow-up test case
@@ -61,6 +63,36 @@ public class MetamorphicGroup {
         return followupTest;
     }
 
+    /**
+     * Records the position of this group in the MG domain; called by the
+     * domain generator while the domain is being built
+     *
+     * @param domainIndex Index of this group in the domain
+     * @param sourceIndex Index of its source test among the domain's source tests
+     */
+    public void assignDomainIndex(int domainIndex, int sourceIndex) {
+        this.domainIndex = domainIndex;
+        this.sourceIndex = sourceIndex;
+    }
+
+    /**
+     * Gets the index of this group in the MG domain
+     *
+     * @return Domain index, or -1 if the group is not part of a domain
+     */
+    public int getDomainIndex() {
+        return domainIndex;
+    }
+
+    /**
+     * Gets the index of the source test among the domain's source tests
+     *
+     * @return Source index, or -1 if the group is not part of a domain
+     */
+    public int getSourceIndex() {
+        return sourceIndex;
+    }
+
     /**
      * Gets the relation description
      *
@@ -1,5 +1,7 @@
 package paper.pss.exp.jackson_project.model;
 
+import paper.pss.exp.utils.FeatureVector;
+
 /**
  * TestCase.java
  *
@@ -14,9 +16,10 @@ package paper.pss.exp.jackson_project.model;
  * - An input string parameter to parseInt
  * - A partition ID indicating which input domain partition the test belongs to
  */
-public class TestCase {
+public class TestCase implements FeatureVector {
     private final String inputString;
     public final int partitionId;
+    private volatile double[] features; // Cached feature vector, computed on first access
 
     /**
      * Creates a test case with a string parameter and partition ID
@@ -87,6 +90,29 @@ public class TestCase {
         return partitionId;
     }
 
+    /**
+     * Gets the feature vector [numeric value], computed once and cached.
+     * Inputs that cannot be parsed use their length as the value.
+     * The returned array is shared and must not be modified.
+     *
+     * @return The feature vector
+     */
+    @Override
+    public double[] getFeatures() {
+        double[] result = features;
+        if (result == null) {
+            double value;
+            try {
+                value = Double.parseDouble(inputString);
+            } catch (NumberFormatException e) {
+                value = inputString.length();
+            }
+            result = new double[] { value };
+            features = result;
+        }
+        return result;
+    }
+
     /**
      * Returns a string representation of this test case
      */
@@ -27,6 +27,7 @@ import paper.pss.exp.jackson_project.utils.MGDomainGenerator;
 // 蜕变关系 导入
 import paper.pss.exp.jackson_project.model.MetamorphicRelation;
 import paper.pss.exp.jackson_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 // 生成器接口定义
 interface Phase1Generator {
@@ -61,6 +62,7 @@ public class get_raw_results {
     private Map<String, Phase1Generator> phase1Generators = new HashMap<>();
     private Map<String, Phase2Generator> phase2Generators = new HashMap<>();
     private List<MetamorphicGroup> mgDomain;
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED); // 蜕变关系和MG的随机选择
 
     // 日志和进度跟踪
     private Logger logger;
@@ -240,11 +242,11 @@ public class get_raw_results {
                     // 得到所有的蜕变关系
                     List<MetamorphicRelation> relations = MRFactory_utils.getApplicableRelations(testCase);
                     // 随机选择一个蜕变关系
-                    MetamorphicRelation relation = relations.get(new Random().nextInt(relations.size()));
+                    MetamorphicRelation relation = relations.get(random.nextInt(relations.size()));
                     // 从选择的蜕变关系中生成所有的MG
                     List<MetamorphicGroup> groups = relation.createGroups(testCase);
                     // 随机选择一个MG
-                    MetamorphicGroup group = groups.get(new Random().nextInt(groups.size()));
+                    MetamorphicGroup group = groups.get(random.nextInt(groups.size()));
                     // 得到后续测试用例的输出
                     int followupResult = executeMutant(mutantMethod, group.getFollowupTest());
                     // 验证 group是否满足蜕变关系
@@ -4,9 +4,14 @@ import paper.pss.exp.jackson_project.model.MetamorphicGroup;
 import paper.pss.exp.jackson_project.model.TestCase;
 
 import paper.pss.exp.jackson_project.utils.JacksonConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ShardedDomainBuilder_utils;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -15,6 +20,9 @@ import java.util.stream.Collectors;
  * 该类负责构建一个大型的蜕变组域，供后续根据不同策略选择测试用例
  */
 public class MGDomainGenerator {
+    // 自动计算域大小时的下限
+    private static final int DEFAULT_DOMAIN_SIZE = 1000;
+
     private final String configPath;
     private final JacksonConfigExtractor_utils configExtractor;
     private final int domainSize;
@@ -25,18 +33,18 @@ public class MGDomainGenerator {
      * 使用默认配置和域大小初始化蜕变组域生成器
      */
     public MGDomainGenerator() throws IOException {
-        this(1000);
+        this(0);
     }
 
     /**
      * 初始化蜕变组域生成器
      * 
-     * @param domainSize 域的大小(源测试用例数量)
+     * @param domainSize 域的大小(源测试用例数量)，不大于0时按 calculateDomainSize() 计算
      */
     public MGDomainGenerator(int domainSize) throws IOException {
         this.configPath = "src/main/java/paper/pss/exp/jackson_project/jackson_config.json";
         this.configExtractor = new JacksonConfigExtractor_utils(configPath);
-        this.domainSize = calculateDomainSize();
+        this.domainSize = domainSize > 0 ? domainSize : calculateDomainSize();
         this.partitionGenerator = new paper.pss.exp.jackson_project.generation.phase1.phase1_partition_generator(configPath);
         this.allMRTypes = loadAllMRTypes();
     }
@@ -56,18 +64,137 @@ public class MGDomainGenerator {
      * @return 生成的蜕变组域
      */
     public List<MetamorphicGroup> generateDomain() {
-        // 1. 生成源测试用例
-        List<TestCase> sourceTests = partitionGenerator.generate(domainSize);
+        return generateDomain(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 使用指定种子生成蜕变组域
+     * 各源测试用例所属的分区由最大最小算法一次性确定，源测试用例按固定大小分片并行生成并展开为蜕变组，
+     * 每个分片使用从种子 split 出的独立随机数流，分片结果按源测试用例顺序合并，合并结果与线程数量无关
+     * 
+     * @param seed 根种子
+     * @return 生成的蜕变组域
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> generateDomain(long seed) {
+        // 1. 确定每个源测试用例所属的分区
+        int[] partitionOrder = partitionGenerator.allocatePartitions(domainSize);
+
+        // 2. 分片并行生成源测试用例，并为每个源测试用例应用所有适用的蜕变关系
+        List<List<MetamorphicGroup>> groupsBySource = ShardedDomainBuilder_utils.build(domainSize, seed,
+                (from, to, rng) -> {
+                    paper.pss.exp.jackson_project.generation.phase1.phase1_partition_generator shardGenerator =
+                            new paper.pss.exp.jackson_project.generation.phase1.phase1_partition_generator(configPath, rng);
+                    List<List<MetamorphicGroup>> groups = new ArrayList<>(to - from);
+                    for (int sourceIndex = from; sourceIndex < to; sourceIndex++) {
+                        TestCase sourceTest = shardGenerator.generateTestCase(partitionOrder[sourceIndex]);
+                        groups.add(MRFactory_utils.generateAllGroups(sourceTest, rng));
+                    }
+                    return groups;
+                });
+
+        // 3. 按源测试用例顺序合并为列式存储的MG域，同一源测试用例的MG在域中连续存放
+        return new ColumnarMGDomain_utils<>(groupsBySource, MetamorphicGroup.class, new DomainLayout());
+    }
+
+    /**
+     * 读取MG域快照，只有快照由当前配置文件、指定种子和当前域大小生成时才会被复用
+     * 
+     * @param snapshotFile 快照文件
+     * @param seed         根种子
+     * @return 快照中的蜕变组域，快照不存在或不匹配时为 null
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> loadDomain(Path snapshotFile, long seed)
+            throws IOException {
+        ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain = ColumnarMGDomain_utils.loadSnapshot(snapshotFile,
+                MetamorphicGroup.class, new DomainLayout(), seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+        return domain != null && domain.getSourceCount() == domainSize ? domain : null;
+    }
+
+    /**
+     * 将蜕变组域保存为快照，供同一项目的其他运行复用
+     * 
+     * @param domain       generateDomain(seed) 生成的蜕变组域
+     * @param snapshotFile 快照文件
+     * @param seed         生成该域的根种子
+     */
+    public void saveDomain(ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain, Path snapshotFile, long seed)
+            throws IOException {
+        domain.writeSnapshot(snapshotFile, seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+    }
+
+    /**
+     * MG域的列式存储结构：后续测试用例编码为 [分区ID, 输入长度（null 为 -1）, 输入字符（每个 long 存放 4 个字符）]，
+     * 视图创建时记录MG在域中的位置
+     */
+    private static class DomainLayout implements ColumnarMGDomain_utils.Layout<MetamorphicGroup, TestCase> {
+        @Override
+        public String mrId(MetamorphicGroup group) {
+            return group.getMRId();
+        }
 
-        // 2. 为每个源测试用例应用所有适用的蜕变关系
-        List<MetamorphicGroup> mgDomain = new ArrayList<>();
+        @Override
+        public String description(MetamorphicGroup group) {
+            return group.getDescription();
+        }
+
+        @Override
+        public TestCase sourceTest(MetamorphicGroup group) {
+            return group.getSourceTest();
+        }
+
+        @Override
+        public TestCase followupTest(MetamorphicGroup group) {
+            return group.getFollowupTest();
+        }
 
-        for (TestCase sourceTest : sourceTests) {
-            List<MetamorphicGroup> mgs = MRFactory_utils.generateAllGroups(sourceTest);
-            mgDomain.addAll(mgs);
+        @Override
+        public int domainIndex(MetamorphicGroup group) {
+            return group.getDomainIndex();
         }
 
-        return mgDomain;
+        @Override
+        public int encodedLength(TestCase test) {
+            String input = test.getInput();
+            return input == null ? 2 : 2 + (input.length() + 3) / 4;
+        }
+
+        @Override
+        public void encode(TestCase test, long[] out, int offset) {
+            String input = test.getInput();
+            out[offset] = test.getPartitionId();
+            out[offset + 1] = input == null ? -1 : input.length();
+            if (input != null) {
+                for (int word = 0; word < (input.length() + 3) / 4; word++) {
+                    long packed = 0L;
+                    for (int k = 0; k < 4 && word * 4 + k < input.length(); k++) {
+                        packed |= (long) input.charAt(word * 4 + k) << (16 * k);
+                    }
+                    out[offset + 2 + word] = packed;
+                }
+            }
+        }
+
+        @Override
+        public TestCase decode(long[] in, int offset, int length) {
+            int inputLength = (int) in[offset + 1];
+            String input = null;
+            if (inputLength >= 0) {
+                char[] chars = new char[inputLength];
+                for (int i = 0; i < inputLength; i++) {
+                    chars[i] = (char) (in[offset + 2 + i / 4] >>> (16 * (i % 4)));
+                }
+                input = new String(chars);
+            }
+            return new TestCase(input, (int) in[offset]);
+        }
+
+        @Override
+        public MetamorphicGroup view(String mrId, String description, TestCase sourceTest, TestCase followupTest,
+                int domainIndex, int sourceIndex) {
+            MetamorphicGroup group = new MetamorphicGroup(mrId, description, sourceTest, followupTest);
+            group.assignDomainIndex(domainIndex, sourceIndex);
+            return group;
+        }
     }
 
     /**
@@ -92,8 +219,8 @@ public class MGDomainGenerator {
         // 推荐域大小（每类最少minSamplesPerCategory，考虑安全系数1.5）
         int suggestedSize = (int) (minSamplesPerCategory * totalCategories * 1.5);
         
-        // 最小5000，最大20000
-        return Math.min(Math.max(suggestedSize, 1000), 3000);
+        // 不少于默认域大小，不设上限；需要更大的域时通过构造函数指定域大小
+        return Math.max(suggestedSize, DEFAULT_DOMAIN_SIZE);
     }
 
     /**
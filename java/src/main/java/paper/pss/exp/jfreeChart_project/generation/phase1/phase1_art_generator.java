@@ -4,7 +4,10 @@ import java.awt.geom.Line2D;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 import paper.pss.exp.jfreeChart_project.model.TestCase;
+import paper.pss.exp.utils.ArtIndex_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 /**
  * phase1_art_generator.java
@@ -20,7 +23,7 @@ import paper.pss.exp.jfreeChart_project.model.TestCase;
  */
 public class phase1_art_generator {
 
-    private static final Random random = new Random(System.currentTimeMillis());
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     private final int candidateNum;
 
     // Constants for coordinate ranges
@@ -38,65 +41,74 @@ public class phase1_art_generator {
     // Tolerance for equality comparisons
     private static final double EPSILON = 0.0001;
 
+    // 特征向量各维度在距离中的下界权重（中点坐标距离 + 0.1 × 宽度差），用于最近邻索引剪枝
+    private static final double[] FEATURE_WEIGHTS = { 1.0, 1.0, 0.1 };
+
     public phase1_art_generator() {
         this.candidateNum = 10;
     }
 
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
+        // 已选测试用例的特征向量索引，用最近邻查询代替与所有已有用例逐一比较
+        ArtIndex_utils index = new ArtIndex_utils(FEATURE_WEIGHTS, this::featureDistance);
 
         // Step 1: generate the first random test case
-        TestCase firstTestCase = generateRandomTestCase();
+        TestCase firstTestCase = generateRandomTestCase(random);
         testCases.add(firstTestCase);
+        index.add(features(firstTestCase));
 
         // Step 2: generate remaining test cases using ART strategy
         while (testCases.size() < count) {
             TestCase bestCandidate = null;
+            double[] bestFeatures = null;
             double bestMinDist = -1;
 
             for (int i = 0; i < candidateNum; i++) {
-                TestCase candidate = generateRandomTestCase();
-
-                double minDist = Double.MAX_VALUE;
-                for (TestCase existing : testCases) {
-                    double dist = distance(candidate, existing);
-                    if (dist < minDist) {
-                        minDist = dist;
-                    }
-                }
+                TestCase candidate = generateRandomTestCase(random);
+                double[] candidateFeatures = features(candidate);
+
+                double minDist = index.nearestDistance(candidateFeatures);
 
                 if (minDist > bestMinDist) {
                     bestMinDist = minDist;
                     bestCandidate = candidate;
+                    bestFeatures = candidateFeatures;
                 }
             }
 
             testCases.add(bestCandidate);
+            index.add(bestFeatures);
         }
 
         return testCases;
     }
 
+    /**
+     * 测试用例的特征向量: [线段中点x, 线段中点y, 宽度]（缓存在测试用例上）
+     */
+    private double[] features(TestCase testCase) {
+        return testCase.getFeatures();
+    }
+
     /**
      * 计算两个测试用例之间的距离
      * 使用线段中点坐标和宽度的欧几里得距离
      */
-    private double distance(TestCase a, TestCase b) {
-        Line2D lineA = a.getLine();
-        Line2D lineB = b.getLine();
-        
-        // 计算线段中点
-        double midXA = (lineA.getX1() + lineA.getX2()) / 2.0;
-        double midYA = (lineA.getY1() + lineA.getY2()) / 2.0;
-        double midXB = (lineB.getX1() + lineB.getX2()) / 2.0;
-        double midYB = (lineB.getY1() + lineB.getY2()) / 2.0;
-        
+    private double featureDistance(double[] a, double[] b) {
         // 计算坐标距离
-        double coordDist = Math.sqrt(Math.pow(midXA - midXB, 2) + Math.pow(midYA - midYB, 2));
-        
-        // 计算宽度距离
-        double widthDist = Math.abs(a.getWidth() - b.getWidth());
-        
+        double coordDist = Math.sqrt(Math.pow(a[0] - b[0], 2) + Math.pow(a[1] - b[1], 2));
+
+        // 计算宽度距离（宽度为 float，与原先一样按 float 求差）
+        double widthDist = Math.abs((float) a[2] - (float) b[2]);
+
         // 组合距离（坐标距离权重更大）
         return coordDist + widthDist * 0.1;
     }
@@ -104,8 +116,8 @@ public class phase1_art_generator {
     /**
      * 生成一个随机测试用例
      */
-    private TestCase generateRandomTestCase() {
-        Line2D line = generateRandomLine();
+    private TestCase generateRandomTestCase(RandomGenerator random) {
+        Line2D line = generateRandomLine(random);
         float width = WIDTH_MIN + random.nextFloat() * (WIDTH_MAX - WIDTH_MIN);
         width = Math.round(width * 100) / 100.0f; // 保留两位小数
         int partitionId = determinePartitionId(line);
@@ -115,7 +127,7 @@ public class phase1_art_generator {
     /**
      * 生成一个随机线段
      */
-    private Line2D generateRandomLine() {
+    private Line2D generateRandomLine(RandomGenerator random) {
         // 生成随机坐标并保留两位小数
         double x1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
         double y1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
@@ -3,10 +3,13 @@ package paper.pss.exp.jfreeChart_project.generation.phase1;
 import paper.pss.exp.jfreeChart_project.model.TestCase;
 import paper.pss.exp.jfreeChart_project.utils.jfreeConfigExtractor_utils;
 import paper.pss.exp.jfreeChart_project.utils.jfreeConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.awt.geom.Line2D;
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -26,8 +29,8 @@ public class phase1_partition_generator {
     private final jfreeConfigExtractor_utils configExtractor;
     private final List<Partition> partitions;
     private final List<Integer> partitionWeights;
-    private final Map<Integer, Integer> selectedCounts;
-    private final Random random;
+    private final PsalmAllocator_utils allocator; // 各分区的分配状态，单元编号为分区在配置中的下标
+    private final RandomGenerator random;
 
     // Constants for coordinate ranges
     private static final double COORD_MIN = -10.0;
@@ -49,18 +52,22 @@ public class phase1_partition_generator {
     }
 
     public phase1_partition_generator(String configPath) throws IOException {
+        this(configPath, new Random(ExperimentSeed_utils.DEFAULT_SEED));
+    }
+
+    /**
+     * 使用指定的随机数生成器创建生成器，分片并行构建MG域时每个分片使用各自独立的随机数流
+     */
+    public phase1_partition_generator(String configPath, RandomGenerator random) throws IOException {
         this.configExtractor = new jfreeConfigExtractor_utils(configPath);
         this.partitions = configExtractor.getPartitions();
         this.partitionWeights = partitions.stream()
                 .map(Partition::getWeight)
                 .collect(Collectors.toList());
-        this.selectedCounts = new HashMap<>();
-        this.random = new Random();
-        
-        // 初始化选择计数
-        for (Partition partition : partitions) {
-            selectedCounts.put(partition.getId(), 0);
-        }
+        this.allocator = new PsalmAllocator_utils(partitions.stream()
+                .mapToDouble(partition -> partition.getWeight())
+                .toArray());
+        this.random = random;
         
         validateConfig();
     }
@@ -88,73 +95,56 @@ public class phase1_partition_generator {
      * 使用最大最小算法生成指定数量的测试用例
      */
     public List<TestCase> generate(int count) {
-        return allocateTestCases(count);
+        return generate(count, random);
     }
 
     /**
-     * 使用最大最小算法分配测试用例到各分区
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
      */
-    private List<TestCase> allocateTestCases(int count) {
-        // 重置选择计数
-        for (Integer partitionId : selectedCounts.keySet()) {
-            selectedCounts.put(partitionId, 0);
-        }
+    public List<TestCase> generate(int count, RandomGenerator random) {
+        return allocateTestCases(count, random);
+    }
 
-        Map<Integer, Double> samplingRates = new HashMap<>();
-        for (Partition partition : partitions) {
-            samplingRates.put(partition.getId(), 0.0);
-        }
+    /**
+     * 使用最大最小算法分配测试用例到各分区
+     */
+    private List<TestCase> allocateTestCases(int count, RandomGenerator random) {
+        int[] partitionOrder = allocatePartitions(count);
 
-        List<TestCase> testCases = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            int selectedPartition = findLowestSamplingRatePartition(samplingRates);
-            TestCase testCase = generateTestCaseInPartition(selectedPartition);
-            testCases.add(testCase);
-            
-            selectedCounts.put(selectedPartition, selectedCounts.get(selectedPartition) + 1);
-            
-            // 更新采样率
-            int partitionWeight = partitionWeights.get(selectedPartition - 1);
-            samplingRates.put(selectedPartition, 
-                (double) selectedCounts.get(selectedPartition) / partitionWeight);
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int partitionId : partitionOrder) {
+            testCases.add(generateTestCaseInPartition(partitionId, random));
         }
         return testCases;
     }
 
     /**
-     * 找到采样率最低的分区
+     * 按最大最小算法依次确定 count 个测试用例所属的分区
+     *
+     * @param count 测试用例数量
+     * @return 第 i 个元素为第 i 个测试用例的分区ID
      */
-    private int findLowestSamplingRatePartition(Map<Integer, Double> samplingRates) {
-        int selectedPartition = 1;
-        double lowestRate = Double.POSITIVE_INFINITY;
-        
-        for (Map.Entry<Integer, Double> entry : samplingRates.entrySet()) {
-            int partitionId = entry.getKey();
-            double rate = entry.getValue();
-            
-            if (rate < lowestRate) {
-                lowestRate = rate;
-                selectedPartition = partitionId;
-            } else if (rate == lowestRate && partitionId <= partitionWeights.size()) {
-                int currentWeight = partitionWeights.get(partitionId - 1);
-                int selectedWeight = partitionWeights.get(selectedPartition - 1);
-                if (currentWeight > selectedWeight) {
-                    selectedPartition = partitionId;
-                }
-            }
+    public int[] allocatePartitions(int count) {
+        // 重置选择计数
+        allocator.reset();
+
+        int[] partitionOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            // 选择采样率最低的分区，并更新其计数和采样率
+            partitionOrder[i] = partitions.get(allocator.next()).getId();
         }
-        return selectedPartition;
+        return partitionOrder;
     }
 
     /**
      * 在指定分区中生成测试用例
      */
-    private TestCase generateTestCaseInPartition(int partitionId) {
+    private TestCase generateTestCaseInPartition(int partitionId, RandomGenerator random) {
         if (partitionId < 1 || partitionId > partitions.size()) {
             throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
         
-        Line2D line = generateLineForPartition(partitionId);
+        Line2D line = generateLineForPartition(partitionId, random);
         float width = WIDTH_MIN + random.nextFloat() * (WIDTH_MAX - WIDTH_MIN);
         width = Math.round(width * 100) / 100.0f; // 保留两位小数
         
@@ -164,16 +154,16 @@ public class phase1_partition_generator {
     /**
      * 为指定分区生成线段
      */
-    private Line2D generateLineForPartition(int partitionId) {
+    private Line2D generateLineForPartition(int partitionId, RandomGenerator random) {
         switch (partitionId) {
             case 1: // 水平线段
-                return generateHorizontalLine();
+                return generateHorizontalLine(random);
             case 2: // 垂直线段
-                return generateVerticalLine();
+                return generateVerticalLine(random);
             case 3: // 正斜率对角线
-                return generateDiagonalLine(true);
+                return generateDiagonalLine(true, random);
             case 4: // 负斜率对角线
-                return generateDiagonalLine(false);
+                return generateDiagonalLine(false, random);
             default:
                 throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
@@ -182,7 +172,7 @@ public class phase1_partition_generator {
     /**
      * 生成水平线段 (y1 == y2)
      */
-    private Line2D generateHorizontalLine() {
+    private Line2D generateHorizontalLine(RandomGenerator random) {
         // 随机起始点（保留两位小数）
         double x1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
         double y = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
@@ -216,7 +206,7 @@ public class phase1_partition_generator {
     /**
      * 生成垂直线段 (x1 == x2)
      */
-    private Line2D generateVerticalLine() {
+    private Line2D generateVerticalLine(RandomGenerator random) {
         // 随机起始点（保留两位小数）
         double x = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
         double y1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
@@ -250,7 +240,7 @@ public class phase1_partition_generator {
     /**
      * 生成对角线段，具有正斜率或负斜率
      */
-    private Line2D generateDiagonalLine(boolean positiveSlope) {
+    private Line2D generateDiagonalLine(boolean positiveSlope, RandomGenerator random) {
         // 随机起始点（保留两位小数）
         double x1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
         double y1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
@@ -326,7 +316,14 @@ public class phase1_partition_generator {
      * 生成指定分区的测试用例
      */
     public TestCase generateTestCase(int partitionId) {
-        return generateTestCaseInPartition(partitionId);
+        return generateTestCase(partitionId, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器在指定分区中生成测试用例
+     */
+    public TestCase generateTestCase(int partitionId, RandomGenerator random) {
+        return generateTestCaseInPartition(partitionId, random);
     }
 
     /**
@@ -1,11 +1,13 @@
 package paper.pss.exp.jfreeChart_project.generation.phase1;
 
 import paper.pss.exp.jfreeChart_project.model.TestCase;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.awt.geom.Line2D;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * phase1_random_generator.java
@@ -39,7 +41,7 @@ public class phase1_random_generator {
     private static final double EPSILON = 0.0001;
 
     public phase1_random_generator() {
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     }
 
     public phase1_random_generator(long seed) {
@@ -50,9 +52,16 @@ public class phase1_random_generator {
      * 生成指定数量的随机测试用例
      */
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
         for (int i = 0; i < count; i++) {
-            testCases.add(generateRandomTestCase());
+            testCases.add(generateRandomTestCase(random));
         }
         return testCases;
     }
@@ -60,9 +69,9 @@ public class phase1_random_generator {
     /**
      * 生成单个随机测试用例
      */
-    private TestCase generateRandomTestCase() {
-        Line2D line = generateRandomLine();
-        float width = generateRandomWidth();
+    private TestCase generateRandomTestCase(RandomGenerator random) {
+        Line2D line = generateRandomLine(random);
+        float width = generateRandomWidth(random);
         // int partitionId = determinePartitionId(line);
         return new TestCase(line, width, -1);
     }
@@ -70,7 +79,7 @@ public class phase1_random_generator {
     /**
      * 生成随机线段
      */
-    private Line2D generateRandomLine() {
+    private Line2D generateRandomLine(RandomGenerator random) {
         // 生成随机起始点（保留两位小数）
         double x1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
         double y1 = Math.round((COORD_MIN + random.nextDouble() * (COORD_MAX - COORD_MIN)) * 100) / 100.0;
@@ -108,7 +117,7 @@ public class phase1_random_generator {
     /**
      * 生成随机宽度
      */
-    private float generateRandomWidth() {
+    private float generateRandomWidth(RandomGenerator random) {
         float width = WIDTH_MIN + random.nextFloat() * (WIDTH_MAX - WIDTH_MIN);
         return Math.round(width * 100) / 100.0f; // 保留两位小数
     }
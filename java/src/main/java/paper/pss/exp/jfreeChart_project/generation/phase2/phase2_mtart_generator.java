@@ -4,10 +4,12 @@ import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
 import paper.pss.exp.jfreeChart_project.model.TestCase;
 import paper.pss.exp.jfreeChart_project.utils.jfreeConfigExtractor_utils;
 import paper.pss.exp.jfreeChart_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PartitionIndex_utils;
 
-import java.awt.geom.Line2D;
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * MT-ART生成器，基于论文策略1（优先平均距离+内部距离）实现，包含分区逻辑和全点对距离计算
@@ -17,6 +19,7 @@ public class phase2_mtart_generator {
     private final jfreeConfigExtractor_utils configExtractor;
     private final Random random;
     private final List<MetamorphicGroup> mgDomain;
+    private final PartitionIndex_utils<MetamorphicGroup> partitionIndex; // 按源测试用例的中点X坐标排序的分区索引，构造时建立一次
 
     /**
      * 构造函数
@@ -26,8 +29,9 @@ public class phase2_mtart_generator {
      */
     public phase2_mtart_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new jfreeConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
+        this.partitionIndex = new PartitionIndex_utils<>(mgDomain, mg -> extractFeatures(mg.getSourceTest())[0]);
     }
 
     /**
@@ -40,62 +44,24 @@ public class phase2_mtart_generator {
     }
 
     /**
-     * 从TestCase中提取线段的中点坐标和宽度作为特征向量
+     * 获取线段的中点坐标和宽度作为特征向量（缓存在测试用例上，只读）
      * 
      * @param testCase 测试用例
      * @return 特征向量 [midX, midY, width]
      */
     private double[] extractFeatures(TestCase testCase) {
-        Line2D line = testCase.getLine();
-        float width = testCase.getWidth();
-        
-        // 计算线段中点坐标
-        double midX = (line.getX1() + line.getX2()) / 2.0;
-        double midY = (line.getY1() + line.getY2()) / 2.0;
-        
-        return new double[]{midX, midY, width};
+        return testCase.getFeatures();
     }
 
     /**
-     * 基于source_test的特征创建等距分区（参考Python版本的统一分区策略）
+     * 基于源测试用例的中点X坐标创建等距分区（参考Python版本的统一分区策略）
+     * 排序索引在构造时建立，这里只需二分查找各分区的边界
      * 
-     * @param mgDomain      蜕变组域
      * @param numPartitions 分区数量
-     * @return 分区列表，每个分区包含对应的MetamorphicGroup
+     * @return 分区列表（只读视图），每个分区包含对应的MetamorphicGroup
      */
-    private List<List<MetamorphicGroup>> createPartitions(List<MetamorphicGroup> mgDomain, int numPartitions) {
-        if (mgDomain.isEmpty() || numPartitions <= 0) {
-            return new ArrayList<>();
-        }
-
-        // 获取所有source_test的中点X坐标作为分区依据
-        List<Double> values = new ArrayList<>();
-        for (MetamorphicGroup mg : mgDomain) {
-            double[] features = extractFeatures(mg.getSourceTest());
-            values.add(features[0]); // 使用midX作为分区依据
-        }
-
-        double minVal = Collections.min(values);
-        double maxVal = Collections.max(values);
-        double step = numPartitions > 1 ? (maxVal - minVal) / numPartitions : 1.0;
-
-        // 初始化分区
-        List<List<MetamorphicGroup>> partitions = new ArrayList<>();
-        for (int i = 0; i < numPartitions; i++) {
-            partitions.add(new ArrayList<>());
-        }
-
-        // 将MG分配到对应分区
-        for (MetamorphicGroup mg : mgDomain) {
-            double[] features = extractFeatures(mg.getSourceTest());
-            double value = features[0]; // midX
-            int idx = (int) ((value - minVal) / step);
-            // 处理边界情况
-            idx = Math.min(idx, numPartitions - 1);
-            partitions.get(idx).add(mg);
-        }
-
-        return partitions;
+    private List<List<MetamorphicGroup>> createPartitions(int numPartitions) {
+        return partitionIndex.equalWidthPartitions(numPartitions);
     }
 
     /**
@@ -108,7 +74,7 @@ public class phase2_mtart_generator {
      */
     private CandidateResult selectCandidates(List<List<MetamorphicGroup>> partitions,
                                               Set<Integer> coveredPartitions,
-                                              int candidatesPerIter) {
+                                              int candidatesPerIter, RandomGenerator random) {
         List<MetamorphicGroup> candidates = new ArrayList<>();
         List<Integer> partitionIndices = new ArrayList<>();
 
@@ -200,6 +166,13 @@ public class phase2_mtart_generator {
      * @return 生成的蜕变组列表
      */
     public List<MetamorphicGroup> generate(int numSamples) {
+        return generate(numSamples, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int numSamples, RandomGenerator random) {
         int candidatesPerIter = 5;
         if (numSamples > mgDomain.size()) {
             throw new IllegalArgumentException("样本数超过MG域大小");
@@ -211,7 +184,7 @@ public class phase2_mtart_generator {
 
         // 统一创建分区（参考Python版本：num_partitions = max(1, int(num_samples * 1.5))）
         int numPartitions = Math.max(1, (int) (numSamples * 1.5));
-        List<List<MetamorphicGroup>> partitions = createPartitions(mgDomain, numPartitions);
+        List<List<MetamorphicGroup>> partitions = createPartitions(numPartitions);
 
         List<MetamorphicGroup> selected = new ArrayList<>();
         List<double[][]> recentFeatures = new ArrayList<>(); // 维护最近5个MG的特征
@@ -219,7 +192,7 @@ public class phase2_mtart_generator {
 
         for (int iteration = 0; iteration < numSamples; iteration++) {
             // 选择候选集
-            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter);
+            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter, random);
             List<MetamorphicGroup> candidates = candidateResult.candidates;
             List<Integer> partitionIndices = candidateResult.partitionIndices;
 
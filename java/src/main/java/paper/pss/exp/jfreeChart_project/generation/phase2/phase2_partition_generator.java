@@ -4,9 +4,13 @@ import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
 import paper.pss.exp.jfreeChart_project.utils.jfreeConfigExtractor_utils;
 import paper.pss.exp.jfreeChart_project.utils.MGDomainGenerator_utils;
 import paper.pss.exp.jfreeChart_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -27,9 +31,13 @@ public class phase2_partition_generator {
     // 分区大小: (partition_id, mr_id) -> weight
     private final Map<String, Double> partitionSize;
     
-    // 分区选择计数和比率
-    private final Map<String, Integer> partitionSelectedCounts;
-    private final Map<String, Double> partitionSelectedRatio;
+    // 参与分配的分区-MR组合，按 (分区ID, MR ID) 排序，下标即分配器中的单元编号
+    // 构造完成后只读（分配顺序缓存只会被整体替换为更长的序列），同一实例可被多个线程并发调用
+    private final List<String> cellKeys;
+    private final List<List<MetamorphicGroup>> cellMgs;
+    private final double[] cellWeights;
+    // 分配顺序缓存：第 i 个样本分配到的组合编号。分配规则是确定的，n 个样本的分配恰为该序列的前 n 项
+    private volatile int[] allocationOrder = new int[0];
     
     /**
      * 使用默认配置路径初始化分区生成器
@@ -48,7 +56,7 @@ public class phase2_partition_generator {
      */
     public phase2_partition_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new jfreeConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
         
         // 从配置中获取分区比率和MR类型
@@ -60,22 +68,19 @@ public class phase2_partition_generator {
         this.mrTypes = MRFactory_utils.getAllRelationIds();
         
         // 构建分区映射
-        this.partitionMgMap = new HashMap<>();        
-        // 生成分区大小
-        this.partitionSelectedCounts = new HashMap<>();
-        this.partitionSelectedRatio = new HashMap<>();
-        // 初始化分区映射
-        for (MetamorphicGroup mg : mgDomain) {
-            String key = createKey(mg.getSourceTest().getPartitionId(), mg.getMRId());
-            this.partitionMgMap.computeIfAbsent(key, k -> new ArrayList<>()).add(mg);
-        }
-        // 初始化分区选择计数和比率
-        for (String key : partitionMgMap.keySet()) {
-            this.partitionSelectedCounts.put(key, 0);
-            this.partitionSelectedRatio.put(key, 0.0);
-        }
+        // 每个组合只保存MG在域中的下标，MG在抽样时才从域中读取
+        this.partitionMgMap = ColumnarMGDomain_utils.groupByKey(mgDomain,
+                mg -> createKey(mg.getSourceTest().getPartitionId(), mg.getMRId()));
         // 生成分区大小
         this.partitionSize = generatePartitionSize();
+        // 为参与分配的组合编号，分配过程只操作数组
+        this.cellKeys = sortedCellKeys(partitionSize.keySet());
+        this.cellMgs = new ArrayList<>(cellKeys.size());
+        this.cellWeights = new double[cellKeys.size()];
+        for (int c = 0; c < cellKeys.size(); c++) {
+            cellMgs.add(partitionMgMap.get(cellKeys.get(c)));
+            cellWeights[c] = partitionSize.get(cellKeys.get(c));
+        }
     }
     
     /**
@@ -85,6 +90,17 @@ public class phase2_partition_generator {
         return partitionId + "_" + mrId;
     }
     
+    /**
+     * 按 (分区ID, MR ID) 排序组合键
+     */
+    private List<String> sortedCellKeys(Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(Comparator
+                .comparingInt((String key) -> partitionMgMap.get(key).get(0).getSourceTest().getPartitionId())
+                .thenComparing(key -> partitionMgMap.get(key).get(0).getMRId()));
+        return sorted;
+    }
+    
     /**
      * 生成每个(partition_id, mr_id)组合的期望大小/权重
      * 对于每对，值 = partition_weight * mr_type_weight
@@ -156,78 +172,99 @@ public class phase2_partition_generator {
     }
     
     /**
-     * 找到采样率最低的(partition_id, mr_id)键
-     * 如果多个具有相同的最小比率，选择partition_size最大的
+     * 动态地一次分配一个MG到当前采样率最低的(分区, MR)（使用生成器自身的随机数）
      * 
-     * @return (partition_id, mr_id)键
+     * @param totalSamples 总样本数
+     * @return 采样的MetamorphicGroup列表
      */
-    private String findLowestSamplingRatePartition() {
-        Set<String> keys = partitionSize.keySet();
-        
-        // 1. 找所有采样率最小的key
-        double minRatio = keys.stream()
-                .mapToDouble(k -> partitionSelectedRatio.getOrDefault(k, 0.0))
-                .min()
-                .orElse(0.0);
-        
-        List<String> minKeys = keys.stream()
-                .filter(k -> Math.abs(partitionSelectedRatio.getOrDefault(k, 0.0) - minRatio) < 1e-9)
-                .collect(Collectors.toList());
-        
-        // 2. 如果多个采样率相同，选size最大的
-        if (minKeys.size() == 1) {
-            return minKeys.get(0);
-        }
-        
-        // 有多个，选size最大
-        double maxSize = minKeys.stream()
-                .mapToDouble(k -> partitionSize.get(k))
-                .max()
-                .orElse(0.0);
-        
-        List<String> candidates = minKeys.stream()
-                .filter(k -> Math.abs(partitionSize.get(k) - maxSize) < 1e-9)
-                .collect(Collectors.toList());
-        
-        // 如还有平局，随便取一个
-        return candidates.get(0);
+    public List<MetamorphicGroup> generate(int totalSamples) {
+        return generate(totalSamples, random);
     }
     
     /**
      * 动态地一次分配一个MG到当前采样率最低的(分区, MR)
+     * 分配顺序来自缓存，不修改生成器状态，可被多个线程并发调用
      * 
      * @param totalSamples 总样本数
+     * @param rng 本次调用使用的随机数生成器
      * @return 采样的MetamorphicGroup列表
      */
-    public List<MetamorphicGroup> generate(int totalSamples) {
+    public List<MetamorphicGroup> generate(int totalSamples, RandomGenerator rng) {
         
         // 准备采样
-        List<MetamorphicGroup> sampled = new ArrayList<>();
+        List<MetamorphicGroup> sampled = new ArrayList<>(totalSamples);
         
-        // 初始化
-        for (String key : partitionMgMap.keySet()) {
-            partitionSelectedCounts.put(key, 0);
-            partitionSelectedRatio.put(key, 0.0);
-        }
+        // 前 totalSamples 个样本依次分配到的(分区, MR)
+        int[] order = allocationOrder(totalSamples);
         
         for (int i = 0; i < totalSamples; i++) {            
-            String targetPartitionKey = findLowestSamplingRatePartition();
-            
-            // 检查该分区是否有可用的MG（理论上不应该发生，因为已经预过滤）
-            List<MetamorphicGroup> availableMgs = partitionMgMap.get(targetPartitionKey);
-            MetamorphicGroup targetMg = availableMgs.get(random.nextInt(availableMgs.size()));
+            List<MetamorphicGroup> availableMgs = cellMgs.get(order[i]);
+            MetamorphicGroup targetMg = availableMgs.get(rng.nextInt(availableMgs.size()));
             sampled.add(targetMg);
-            
-            // 更新计数和比率
-            int newCount = partitionSelectedCounts.get(targetPartitionKey) + 1;
-            partitionSelectedCounts.put(targetPartitionKey, newCount);
-            
-            double newRatio = newCount / partitionSize.get(targetPartitionKey);
-            partitionSelectedRatio.put(targetPartitionKey, newRatio);
         }
         
         return sampled;
     }
+
+    /**
+     * 计算从初始状态开始抽取 totalSamples 个MG时，每个分区-MR组合分到的数量
+     * 与 generate 使用相同的分配顺序，但不抽取具体的MG
+     *
+     * @param totalSamples 要分配的样本总数
+     * @return 分区键 -> 分配数量（只包含分配数量大于0的组合）
+     */
+    public Map<String, Integer> allocate(int totalSamples) {
+        int[] order = allocationOrder(totalSamples);
+        int[] counts = new int[cellKeys.size()];
+        for (int i = 0; i < totalSamples; i++) {
+            counts[order[i]]++;
+        }
+        Map<String, Integer> allocation = new HashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                allocation.put(cellKeys.get(c), counts[c]);
+            }
+        }
+        return allocation;
+    }
+
+    /**
+     * 预先计算前 maxSamples 个样本的分配顺序，之后不超过该数量的 generate / allocate 调用都直接读取缓存
+     *
+     * @param maxSamples 最大样本数（通常为实验的最大测试用例数量）
+     */
+    public void precomputeAllocations(int maxSamples) {
+        allocationOrder(maxSamples);
+    }
+
+    /**
+     * 获取至少包含前 totalSamples 项的分配顺序，缓存不足时重新计算更长的序列
+     */
+    private int[] allocationOrder(int totalSamples) {
+        int[] order = allocationOrder;
+        if (order.length >= totalSamples) {
+            return order;
+        }
+        synchronized (this) {
+            order = allocationOrder;
+            if (order.length < totalSamples) {
+                order = new int[Math.max(totalSamples, order.length * 2)];
+                PsalmAllocator_utils allocator = new PsalmAllocator_utils(cellWeights);
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = allocator.next();
+                }
+                allocationOrder = order;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * 获取分区-MR组合到其MG列表的映射（只读）
+     */
+    public Map<String, List<MetamorphicGroup>> getPartitionMgMap() {
+        return Collections.unmodifiableMap(partitionMgMap);
+    }
     
     /**
      * 返回每个(partition_id, mr_id)中采样MG数量的字符串摘要
@@ -6,7 +6,8 @@ import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.jfreeChart_project.model.MetamorphicRelation;
 import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
@@ -24,7 +25,6 @@ import paper.pss.exp.jfreeChart_project.model.TestCase;
  */
 public class MR1_relation implements MetamorphicRelation {
 
-    private static final Random random = new Random();
 
     // 默认的宽度比例系数
     private static final double DEFAULT_WIDTH_FACTOR = 2.0;
@@ -44,6 +44,11 @@ public class MR1_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
 
         // 如果源测试用例不可用，返回空列表
@@ -177,10 +182,15 @@ public class MR1_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
 
         // 生成后续测试用例
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         // 为每个后续测试创建一个蜕变组
         for (TestCase followupTest : followupTests) {
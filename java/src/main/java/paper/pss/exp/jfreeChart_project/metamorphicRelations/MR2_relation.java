@@ -5,7 +5,8 @@ import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.awt.geom.PathIterator;
 
 import paper.pss.exp.jfreeChart_project.model.MetamorphicRelation;
@@ -24,7 +25,6 @@ import paper.pss.exp.jfreeChart_project.model.TestCase;
  */
 public class MR2_relation implements MetamorphicRelation {
 
-    private static final Random random = new Random();
 
     // 默认的长度比例系数
     private static final double DEFAULT_LENGTH_FACTOR = 2.0;
@@ -44,6 +44,11 @@ public class MR2_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
 
         // 如果源测试用例不可用，返回空列表
@@ -191,10 +196,15 @@ public class MR2_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
 
         // 生成后续测试用例
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         // 为每个后续测试创建一个蜕变组
         for (TestCase followupTest : followupTests) {
@@ -7,7 +7,8 @@ import java.awt.geom.PathIterator;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.jfreeChart_project.model.MetamorphicRelation;
 import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
@@ -21,7 +22,6 @@ import paper.pss.exp.jfreeChart_project.model.TestCase;
  */
 public class MR6_relation implements MetamorphicRelation {
 
-    private static final Random random = new Random();
 
     // 面积和周长比较允许的误差范围 (%)
     private static final double SHAPE_PROPERTY_TOLERANCE = 1;
@@ -38,6 +38,11 @@ public class MR6_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
 
         // 如果源测试用例不可用，返回空列表
@@ -193,10 +198,15 @@ public class MR6_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
 
         // 生成后续测试用例
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         // 为每个后续测试创建一个蜕变组
         for (TestCase followupTest : followupTests) {
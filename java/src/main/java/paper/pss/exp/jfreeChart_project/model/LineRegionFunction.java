@@ -0,0 +1,24 @@
+package paper.pss.exp.jfreeChart_project.model;
+
+import java.awt.Shape;
+import java.awt.geom.Line2D;
+
+/**
+ * LineRegionFunction.java
+ *
+ * createLineRegion(Line2D, float) 的函数接口形式。
+ * 突变体的 createLineRegion 方法通过 MutantBinding_utils 绑定到该接口后，
+ * 调用时 width 以基本类型传递，无需装箱。
+ */
+@FunctionalInterface
+public interface LineRegionFunction {
+
+    /**
+     * 计算线段按给定宽度扩展后的区域
+     *
+     * @param line  线段
+     * @param width 宽度
+     * @return 区域形状
+     */
+    Shape apply(Line2D line, float width);
+}
@@ -2,6 +2,8 @@ package paper.pss.exp.jfreeChart_project.model;
 
 import java.awt.geom.Line2D;
 
+import paper.pss.exp.utils.FeatureVector;
+
 /**
  * TestCase.java
  *
@@ -25,10 +27,11 @@ import java.awt.geom.Line2D;
  * 4: Diagonal line with negative slope ((y2 > y1 && x2 < x1) || (y2 < y1 && x2
  * > x1))
  */
-public class TestCase {
+public class TestCase implements FeatureVector {
     private final Line2D line;
     private final float width;
     private final int partitionId;
+    private volatile double[] features; // Cached feature vector, computed on first access
 
     /**
      * Creates a test case with specified Line2D, width and partition ID
@@ -70,6 +73,26 @@ public class TestCase {
         return partitionId;
     }
 
+    /**
+     * Gets the feature vector [midX, midY, width], computed once and cached.
+     * The returned array is shared and must not be modified.
+     *
+     * @return The feature vector
+     */
+    @Override
+    public double[] getFeatures() {
+        double[] result = features;
+        if (result == null) {
+            result = new double[] {
+                    (line.getX1() + line.getX2()) / 2.0,
+                    (line.getY1() + line.getY2()) / 2.0,
+                    width
+            };
+            features = result;
+        }
+        return result;
+    }
+
     /**
      * Returns a string representation of this test case
      */
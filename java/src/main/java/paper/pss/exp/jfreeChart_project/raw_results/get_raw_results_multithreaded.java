@@ -2,14 +2,16 @@ package paper.pss.exp.jfreeChart_project.raw_results;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.*;
-import java.lang.reflect.Method;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.*;
+import java.util.random.RandomGenerator;
 import java.util.Scanner;
 import java.awt.Shape;
 import java.awt.geom.Line2D;
@@ -25,19 +27,31 @@ import paper.pss.exp.jfreeChart_project.generation.phase2.phase2_mtart_generator
 // Model 导入
 import paper.pss.exp.jfreeChart_project.model.TestCase;
 import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
+import paper.pss.exp.jfreeChart_project.model.LineRegionFunction;
 import paper.pss.exp.jfreeChart_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.jfreeChart_project.utils.MutantOutputCache_utils;
 
 // 蜕变关系 导入
 import paper.pss.exp.jfreeChart_project.model.MetamorphicRelation;
 import paper.pss.exp.jfreeChart_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.CellScheduler_utils;
+import paper.pss.exp.utils.CheckpointJournal_utils;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExactPMeasure_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.MutantBinding_utils;
+import paper.pss.exp.utils.MutantWatchdog_utils;
+import paper.pss.exp.utils.ResultStreamWriter_utils;
+import paper.pss.exp.utils.SequentialStopping_utils;
+import paper.pss.exp.utils.ViolationBitmap_utils;
 
 // 生成器接口定义 - 多线程版本
 interface Phase1GeneratorMT {
-    List<TestCase> generate(int count);
+    List<TestCase> generate(int count, RandomGenerator random);
 }
 
 interface Phase2GeneratorMT {
-    List<MetamorphicGroup> generate(int count);
+    List<MetamorphicGroup> generate(int count, RandomGenerator random);
 }
 
 /**
@@ -49,8 +63,10 @@ interface Phase2GeneratorMT {
 public class get_raw_results_multithreaded {
 
     private static final int TIMEOUT_SECONDS = 3;
+    private static final int OUTPUT_CACHE_CHUNK_SIZE = 256; // 构建输出缓存时每个单元负责的MG数量
     private static final String MUTANTS_PACKAGE = "paper.pss.exp.jfreeChart_project.mutants";
     private static final String LOG_DIR = "src/main/java/paper/pss/exp/jfreeChart_project/raw_results/log";
+    private static final String DOMAIN_SNAPSHOT_DIR = "src/main/java/paper/pss/exp/jfreeChart_project/raw_results/phase2/domain";
 
     // 实验参数
     private final int internalIteration;
@@ -61,20 +77,41 @@ public class get_raw_results_multithreaded {
     private final String[] strategies;
     private final int threadPoolSize;
     private final boolean logMod; // 日志开关
-
-    // 生成器实例映射
-    private Map<String, Phase1GeneratorMT> phase1Generators = new HashMap<>();
-    private Map<String, Phase2GeneratorMT> phase2Generators = new HashMap<>();
+    private final boolean useOutputCache; // phase2是否缓存突变体在MG域上的输出
+    private final boolean useViolationBitmap; // phase2是否预计算并持久化MG违反位图
+    private final String pMeasureMode; // P-measure计算模式: simulate / exact / both
+    private final double sequentialHalfWidth; // 序贯抽样的置信区间半宽度，0表示始终执行 internalIteration 次试验
+    private final boolean incrementalSweep; // 是否用同一条长度为 maxTcsNum 的序列的前缀得到所有测试用例数量的结果
+    private final boolean resume; // 是否从断点日志续跑，跳过已完成的 (突变体, 测试用例数量)
+    private final boolean useDomainSnapshot; // phase2是否复用持久化的MG域快照
+    private final long experimentSeed; // 实验根种子：MG域和所有实验单元的随机数流都由它派生，快照按种子区分
+
+    // 生成器实例映射（线程私有）：每个工作线程持有自己的一套生成器实例，
+    // 生成时无需加锁；MG域构建完成后只读，在所有线程间共享
+    private final ThreadLocal<Map<String, Phase1GeneratorMT>> phase1Generators = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<Map<String, Phase2GeneratorMT>> phase2Generators = ThreadLocal.withInitial(HashMap::new);
     private List<MetamorphicGroup> mgDomain;
+    // phase2.partition 生成器构造后只读，所有工作线程共享同一个实例，每次调用传入线程自己的随机数生成器
+    private phase2_partition_generator sharedPartitionGenerator;
+    // 突变体名 -> 该突变体在MG域上的输出缓存，在各策略之间复用
+    private final Map<String, MutantOutputCache_utils> outputCaches = new ConcurrentHashMap<>();
+    // 突变体名 -> 该突变体在MG域上的违反位图，以及用于校验持久化位图的MG域指纹
+    private final Map<String, ViolationBitmap_utils> violationBitmaps = new ConcurrentHashMap<>();
+    private String domainFingerprint;
+    // 突变体超时看门狗：实验单元整体在看门狗的执行线程上运行，单次调用超过 TIMEOUT_SECONDS 时放弃该线程
+    private final MutantWatchdog_utils watchdog = new MutantWatchdog_utils("mutant-exec", TIMEOUT_SECONDS,
+            TimeUnit.SECONDS);
+    // 超时的突变体，之后的所有阶段和策略都跳过
+    private final Set<String> timedOutMutants = ConcurrentHashMap.newKeySet();
 
     // 日志和进度跟踪
     private Logger logger;
     private FileHandler fileHandler;
     private int totalExperiments;
     private AtomicInteger completedExperiments = new AtomicInteger(0);
-
-    // 线程安全的结果收集
-    private final Object resultLock = new Object();
+    // 序贯抽样统计：实际执行的试验次数与按 internalIteration 计算的试验预算
+    private final AtomicLong totalTrialsUsed = new AtomicLong(0);
+    private final AtomicLong totalTrialsBudget = new AtomicLong(0);
 
     // 指定的突变体列表 - 适配jfreeChart_project的突变体
 private static final String[] TARGET_MUTANTS = {
@@ -91,85 +128,48 @@ private static final String[] TARGET_MUTANTS = {
         "caseStudy8", "caseStudy9", "caseStudy10"
 };
 
-    // 实验结果封装类 - 线程安全版本
+    // 实验结果封装类
+    // 模拟得到的 P-measure 在各突变体完成时即流式写入结果文件，这里只保留汇总信息
     public static class ExperimentResult {
-        public final ConcurrentHashMap<String, Map<String, List<Double>>> pMeasures;
+        // 每个测试用例数量的 P-measure 均值，用于与精确值交叉验证: 突变体 -> [均值]
+        public final ConcurrentHashMap<String, double[]> meanPMeasures;
+        // 精确计算的 P-measure: 突变体 -> 测试用例数量 -> P-measure
+        public final ConcurrentHashMap<String, Map<String, Double>> exactPMeasures;
+        // 是否进行了蒙特卡洛模拟（exact 模式下 random / partition 策略跳过模拟）
+        public boolean simulated = true;
+        // 流式写出的 P-measure 文件及试验次数文件（未启用序贯抽样时为 null），以及写出的突变体数量
+        public Path pMeasureFile;
+        public Path trialsFile;
+        public int streamedMutants;
+        // 实际执行的试验次数与按 internalIteration 计算的试验预算
+        public final AtomicLong trialsUsed = new AtomicLong(0);
+        public final AtomicLong trialsBudget = new AtomicLong(0);
+        // 突变体 -> 执行状态: OK / TIMEOUT / ERROR / LOAD_FAILED
+        public final Map<String, String> mutantStatuses = new LinkedHashMap<>();
 
         public ExperimentResult() {
-            this.pMeasures = new ConcurrentHashMap<>();
+            this.meanPMeasures = new ConcurrentHashMap<>();
+            this.exactPMeasures = new ConcurrentHashMap<>();
         }
     }
 
-    // 单个mutant的实验任务
-    private static class MutantTask implements Callable<MutantResult> {
-        private final String mutantName;
-        private final String strategy;
-        private final get_raw_results_multithreaded experiment;
+    // 单次 P-measure 估计：检测率及实际使用的试验次数
+    private static class PMeasureEstimate {
+        public final double pMeasure;
+        public final int trials;
 
-        public MutantTask(String mutantName, String strategy, get_raw_results_multithreaded experiment) {
-            this.mutantName = mutantName;
-            this.strategy = strategy;
-            this.experiment = experiment;
-        }
-
-        @Override
-        public MutantResult call() throws Exception {
-            String threadId = Thread.currentThread().getName();
-            experiment.logThreadSafe(String.format("[%s] 开始处理突变体: %s", threadId, mutantName));
-
-            MutantResult result = new MutantResult(mutantName);
-            Method createLineRegionMethod = null;
-
-            // 加载突变体类
-            String className = MUTANTS_PACKAGE + "." + mutantName + ".createLineRegion";
-            try {
-                Class<?> mutantClass = Class.forName(className);
-                createLineRegionMethod = mutantClass.getMethod("createLineRegion", Line2D.class, float.class);
-            } catch (ClassNotFoundException e) {
-                experiment.logThreadSafe(String.format("[%s] 错误: 无法加载突变体 %s", threadId, mutantName));
-                return result;
-            } catch (Exception e) {
-                experiment.logThreadSafe(
-                        String.format("[%s] 错误: 突变体 %s 执行失败 - %s", threadId, mutantName, e.getMessage()));
-                return result;
-            }
-
-            // 遍历不同的测试用例数量
-            for (int testCasesNum = experiment.minTcsNum; testCasesNum <= experiment.maxTcsNum; testCasesNum++) {
-
-                List<Double> pMeasures = new ArrayList<>();
-
-                // 更新进度
-                experiment.updateProgress(strategy, mutantName, testCasesNum);
-
-                // 重复 externalIteration 次
-                for (int iter = 0; iter < experiment.externalIteration; iter++) {
-                    double pMeasure = experiment.calculatePMeasure(createLineRegionMethod, testCasesNum, strategy);
-                    pMeasures.add(pMeasure);
-                }
-
-                result.pMeasures.put(String.valueOf(testCasesNum), pMeasures);
-            }
-
-            experiment.logThreadSafe(String.format("[%s] 完成突变体 %s", threadId, mutantName));
-            return result;
-        }
-    }
-
-    // 单个mutant的结果
-    private static class MutantResult {
-        public final String mutantName;
-        public final Map<String, List<Double>> pMeasures;
-
-        public MutantResult(String mutantName) {
-            this.mutantName = mutantName;
-            this.pMeasures = new HashMap<>();
+        public PMeasureEstimate(double pMeasure, int trials) {
+            this.pMeasure = pMeasure;
+            this.trials = trials;
         }
     }
 
     public get_raw_results_multithreaded(String phase, String[] strategies, int internalIteration,
             int externalIteration,
-            int maxTcsNum, int minTcsNum, int threadPoolSize, boolean logMod) {
+            int maxTcsNum, int minTcsNum, int threadPoolSize, boolean logMod,
+            boolean useOutputCache, boolean useViolationBitmap, String pMeasureMode,
+            double sequentialHalfWidth, boolean incrementalSweep, boolean resume, boolean useDomainSnapshot,
+            long experimentSeed) {
         this.phase = phase;
         this.strategies = strategies;
         this.internalIteration = internalIteration;
@@ -178,6 +178,17 @@ private static final String[] TARGET_MUTANTS = {
         this.minTcsNum = minTcsNum;
         this.threadPoolSize = threadPoolSize;
         this.logMod = logMod;
+        this.useOutputCache = useOutputCache;
+        this.useViolationBitmap = useViolationBitmap;
+        if (!"simulate".equals(pMeasureMode) && !"exact".equals(pMeasureMode) && !"both".equals(pMeasureMode)) {
+            throw new IllegalArgumentException("未知的P-measure计算模式: " + pMeasureMode);
+        }
+        this.pMeasureMode = pMeasureMode;
+        this.sequentialHalfWidth = sequentialHalfWidth;
+        this.incrementalSweep = incrementalSweep;
+        this.resume = resume;
+        this.useDomainSnapshot = useDomainSnapshot;
+        this.experimentSeed = experimentSeed;
 
         // 初始化日志（根据logMod参数决定是否启用）
         if (logMod) {
@@ -192,7 +203,9 @@ private static final String[] TARGET_MUTANTS = {
                     logger.info("正在生成MetamorphicGroup域...");
                 }
                 MGDomainGenerator_utils mgGenerator = new MGDomainGenerator_utils();
-                this.mgDomain = mgGenerator.generateDomain();
+                this.mgDomain = Collections.unmodifiableList(loadOrGenerateDomain(mgGenerator));
+                this.domainFingerprint = ViolationBitmap_utils.fingerprint(mgDomain,
+                        mg -> mg.getMRId() + "|" + mg.getSourceTest() + "|" + mg.getFollowupTest());
                 if (logMod && logger != null) {
                     logger.info("MG域生成完成，共" + mgDomain.size() + "个MetamorphicGroup");
                 }
@@ -205,7 +218,7 @@ private static final String[] TARGET_MUTANTS = {
         }
 
         System.out.println("[DEBUG] 开始初始化生成器...");
-        // 初始化生成器
+        // 初始化生成器（同时校验配置；工作线程在首次生成时各自创建实例）
         try {
             initializeGenerators(phase, strategies);
             System.out.println("[DEBUG] 生成器初始化完成");
@@ -225,7 +238,7 @@ private static final String[] TARGET_MUTANTS = {
     }
 
     /**
-     * 初始化生成器 - 重构为直接调用避免反射
+     * 为当前线程初始化生成器 - 重构为直接调用避免反射
      */
     private void initializeGenerators(String phase, String[] strategies) {
         try {
@@ -237,8 +250,8 @@ private static final String[] TARGET_MUTANTS = {
                             private phase1_random_generator impl = new phase1_random_generator();
 
                             @Override
-                            public List<TestCase> generate(int count) {
-                                return impl.generate(count);
+                            public List<TestCase> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     } else if (strategy.equals("phase1.partition")) {
@@ -253,8 +266,8 @@ private static final String[] TARGET_MUTANTS = {
                             }
 
                             @Override
-                            public List<TestCase> generate(int count) {
-                                return impl.generate(count);
+                            public List<TestCase> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     } else if (strategy.equals("phase1.art")) {
@@ -262,13 +275,13 @@ private static final String[] TARGET_MUTANTS = {
                             private phase1_art_generator impl = new phase1_art_generator();
 
                             @Override
-                            public List<TestCase> generate(int count) {
-                                return impl.generate(count);
+                            public List<TestCase> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     }
                     if (generator != null) {
-                        phase1Generators.put(strategy, generator);
+                        phase1Generators.get().put(strategy, generator);
                     }
                 } else {
                     Phase2GeneratorMT generator = null;
@@ -284,8 +297,8 @@ private static final String[] TARGET_MUTANTS = {
                             }
 
                             @Override
-                            public List<MetamorphicGroup> generate(int count) {
-                                return impl.generate(count);
+                            public List<MetamorphicGroup> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     } else if (strategy.equals("phase2.partition")) {
@@ -293,15 +306,15 @@ private static final String[] TARGET_MUTANTS = {
                             private phase2_partition_generator impl;
                             {
                                 try {
-                                    impl = new phase2_partition_generator(mgDomain);
+                                    impl = sharedPartitionGenerator();
                                 } catch (Exception e) {
                                     throw new RuntimeException("Failed to initialize phase2_partition_generator", e);
                                 }
                             }
 
                             @Override
-                            public List<MetamorphicGroup> generate(int count) {
-                                return impl.generate(count);
+                            public List<MetamorphicGroup> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     } else if (strategy.equals("phase2.mtart")) {
@@ -316,13 +329,13 @@ private static final String[] TARGET_MUTANTS = {
                             }
 
                             @Override
-                            public List<MetamorphicGroup> generate(int count) {
-                                return impl.generate(count);
+                            public List<MetamorphicGroup> generate(int count, RandomGenerator random) {
+                                return impl.generate(count, random);
                             }
                         };
                     }
                     if (generator != null) {
-                        phase2Generators.put(strategy, generator);
+                        phase2Generators.get().put(strategy, generator);
                     }
                 }
             }
@@ -332,22 +345,38 @@ private static final String[] TARGET_MUTANTS = {
     }
 
     /**
-     * 生成测试用例 - 线程安全版本
+     * 获取共享的 phase2.partition 生成器（首次调用时创建）
      */
-    public synchronized Object generateTestCases(int count, String strategy) {
+    private synchronized phase2_partition_generator sharedPartitionGenerator() throws IOException {
+        if (sharedPartitionGenerator == null) {
+            sharedPartitionGenerator = new phase2_partition_generator(mgDomain);
+            // 所有测试用例数量共用的分配顺序只计算一次
+            sharedPartitionGenerator.precomputeAllocations(maxTcsNum);
+        }
+        return sharedPartitionGenerator;
+    }
+
+    /**
+     * 生成测试用例 - 使用当前线程私有的生成器实例，无需同步
+     */
+    public Object generateTestCases(int count, String strategy, RandomGenerator random) {
+        if (phase1Generators.get().isEmpty() && phase2Generators.get().isEmpty()) {
+            // 当前工作线程第一次生成，为其创建独立的生成器实例
+            initializeGenerators(phase, strategies);
+        }
         try {
             if (strategy.startsWith("phase1")) {
-                Phase1GeneratorMT generator = phase1Generators.get(strategy);
+                Phase1GeneratorMT generator = phase1Generators.get().get(strategy);
                 if (generator == null) {
                     throw new IllegalArgumentException("No phase1 generator found for strategy: " + strategy);
                 }
-                return generator.generate(count);
+                return generator.generate(count, random);
             } else {
-                Phase2GeneratorMT generator = phase2Generators.get(strategy);
+                Phase2GeneratorMT generator = phase2Generators.get().get(strategy);
                 if (generator == null) {
                     throw new IllegalArgumentException("No phase2 generator found for strategy: " + strategy);
                 }
-                return generator.generate(count);
+                return generator.generate(count, random);
             }
         } catch (Exception e) {
             System.err.println("生成测试用例时出错: " + e.getMessage());
@@ -357,161 +386,817 @@ private static final String[] TARGET_MUTANTS = {
 
     /**
      * 计算 P-measure 值
+     * 启用序贯抽样时，Wilson 置信区间半宽度达到 sequentialHalfWidth 后提前停止试验
      */
-    public double calculatePMeasure(Method mutantMethod, int testCasesNum, String strategy) {
+    public PMeasureEstimate calculatePMeasure(LineRegionFunction mutant, MutantOutputCache_utils outputCache,
+            ViolationBitmap_utils violations, int testCasesNum, String strategy,
+            RandomGenerator random) {
         int defectDetectedCount = 0;
+        int trials = 0;
 
         for (int i = 0; i < internalIteration; i++) {
-            boolean defectDetected = false;
-            if (strategy.startsWith("phase1")) {
-                List<TestCase> testCases = (List<TestCase>) generateTestCases(testCasesNum, strategy);
-                for (TestCase testCase : testCases) {
-                    // 执行突变体
-                    Shape sourceResult = executeMutant(mutantMethod, testCase);
-                    if (sourceResult == null) {
-                        continue; // 跳过执行失败的测试用例
-                    }
-                    
-                    // 得到所有的蜕变关系
-                    List<MetamorphicRelation> relations = MRFactory_utils.getApplicableRelations(testCase);
-                    if (relations.isEmpty()) {
-                        continue; // 跳过没有适用蜕变关系的测试用例
-                    }
-                    
-                    // 随机选择一个蜕变关系
-                    MetamorphicRelation relation = relations.get(new Random().nextInt(relations.size()));
-                    // 从选择的蜕变关系中生成所有的MG
-                    List<MetamorphicGroup> groups = relation.createGroups(testCase);
-                    if (groups.isEmpty()) {
-                        continue; // 跳过没有生成蜕变组的测试用例
-                    }
-                    
-                    // 随机选择一个MG
-                    MetamorphicGroup group = groups.get(new Random().nextInt(groups.size()));
-                    // 得到后续测试用例的输出
-                    Shape followupResult = executeMutant(mutantMethod, group.getFollowupTest());
-                    if (followupResult == null) {
-                        continue; // 跳过执行失败的后续测试用例
-                    }
-                    
-                    // 验证 group是否满足蜕变关系
-                    if (!relation.verifyRelation(group.getSourceTest(), group.getFollowupTest(), sourceResult,
-                            followupResult, "", "")) {
-                        defectDetected = true;
-                        break;
+            if (firstFailureIndex(mutant, outputCache, violations, testCasesNum, strategy, random) >= 0) {
+                defectDetectedCount++;
+            }
+            trials++;
+            if (SequentialStopping_utils.isPrecise(defectDetectedCount, trials, sequentialHalfWidth)) {
+                break;
+            }
+        }
+        return new PMeasureEstimate((double) defectDetectedCount / trials, trials);
+    }
+
+    /**
+     * 增量扫描计算所有测试用例数量的 P-measure
+     * 每次试验只生成一条长度为 maxTcsNum 的序列，首次揭示缺陷的位置为 k 时，
+     * 所有 testCasesNum > k 的前缀都检测到缺陷，一次试验即可得到 minTcsNum..maxTcsNum 的结果。
+     * 启用序贯抽样时，所有测试用例数量都达到精度后才停止试验。
+     *
+     * @return 下标为 testCasesNum - minTcsNum 的 P-measure 估计
+     */
+    public PMeasureEstimate[] calculatePMeasureSweep(LineRegionFunction mutant, MutantOutputCache_utils outputCache,
+            ViolationBitmap_utils violations, String strategy,
+            RandomGenerator random) {
+        int tcsRange = maxTcsNum - minTcsNum + 1;
+        int[] defectDetectedCounts = new int[tcsRange];
+        int trials = 0;
+
+        for (int i = 0; i < internalIteration; i++) {
+            int firstFailure = firstFailureIndex(mutant, outputCache, violations, maxTcsNum, strategy, random);
+            if (firstFailure >= 0) {
+                // 长度为 testCasesNum 的前缀包含下标 firstFailure 即检测到缺陷
+                for (int tcsIndex = Math.max(0, firstFailure + 1 - minTcsNum); tcsIndex < tcsRange; tcsIndex++) {
+                    defectDetectedCounts[tcsIndex]++;
+                }
+            }
+            trials++;
+            boolean precise = true;
+            for (int tcsIndex = 0; tcsIndex < tcsRange && precise; tcsIndex++) {
+                precise = SequentialStopping_utils.isPrecise(defectDetectedCounts[tcsIndex], trials,
+                        sequentialHalfWidth);
+            }
+            if (precise) {
+                break;
+            }
+        }
+        PMeasureEstimate[] estimates = new PMeasureEstimate[tcsRange];
+        for (int tcsIndex = 0; tcsIndex < tcsRange; tcsIndex++) {
+            estimates[tcsIndex] = new PMeasureEstimate((double) defectDetectedCounts[tcsIndex] / trials, trials);
+        }
+        return estimates;
+    }
+
+    /**
+     * 执行一次试验：生成 testCasesNum 个测试用例（或MG），返回第一个揭示缺陷的下标，未检测到时返回 -1
+     */
+    private int firstFailureIndex(LineRegionFunction mutant, MutantOutputCache_utils outputCache,
+            ViolationBitmap_utils violations, int testCasesNum, String strategy,
+            RandomGenerator random) {
+        if (strategy.startsWith("phase1")) {
+            List<TestCase> testCases = (List<TestCase>) generateTestCases(testCasesNum, strategy, random);
+            for (int index = 0; index < testCases.size(); index++) {
+                TestCase testCase = testCases.get(index);
+                // 执行突变体
+                Shape sourceResult = executeMutant(mutant, testCase);
+                if (sourceResult == null) {
+                    continue; // 跳过执行失败的测试用例
+                }
+                
+                // 得到所有的蜕变关系
+                List<MetamorphicRelation> relations = MRFactory_utils.getApplicableRelations(testCase);
+                if (relations.isEmpty()) {
+                    continue; // 跳过没有适用蜕变关系的测试用例
+                }
+                
+                // 随机选择一个蜕变关系
+                MetamorphicRelation relation = relations.get(random.nextInt(relations.size()));
+                // 从选择的蜕变关系中生成所有的MG
+                List<MetamorphicGroup> groups = relation.createGroups(testCase, random);
+                if (groups.isEmpty()) {
+                    continue; // 跳过没有生成蜕变组的测试用例
+                }
+                
+                // 随机选择一个MG
+                MetamorphicGroup group = groups.get(random.nextInt(groups.size()));
+                // 得到后续测试用例的输出
+                Shape followupResult = executeMutant(mutant, group.getFollowupTest());
+                if (followupResult == null) {
+                    continue; // 跳过执行失败的后续测试用例
+                }
+                
+                // 验证 group是否满足蜕变关系
+                if (!relation.verifyRelation(group.getSourceTest(), group.getFollowupTest(), sourceResult,
+                        followupResult, "", "")) {
+                    return index;
+                }
+            }
+
+        } else {
+            // Phase2
+            List<MetamorphicGroup> mgList = (List<MetamorphicGroup>) generateTestCases(testCasesNum, strategy, random);
+            for (int index = 0; index < mgList.size(); index++) {
+                MetamorphicGroup mg = mgList.get(index);
+                // MG属于MG域且已有违反位图时只需测试对应的位，否则执行突变体并验证蜕变关系
+                boolean violated = violations != null && isDomainGroup(mg)
+                        ? violations.get(mg.getDomainIndex())
+                        : revealsDefect(mutant, outputCache, mg);
+                if (violated) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 判断单个MG是否揭示突变体（源/后续测试用例的输出违反蜕变关系）
+     */
+    private boolean revealsDefect(LineRegionFunction mutant, MutantOutputCache_utils outputCache, MetamorphicGroup mg) {
+        // 得到原测试用例的输出（命中输出缓存时直接查表）
+        Shape sourceResult = outputCache != null && outputCache.isCached(mg)
+                ? outputCache.getSourceOutput(mg)
+                : executeMutant(mutant, mg.getSourceTest());
+        if (sourceResult == null) {
+            return false; // 跳过执行失败的测试用例
+        }
+
+        // 得到后续测试用例的输出（命中输出缓存时直接查表）
+        Shape followupResult = outputCache != null && outputCache.isCached(mg)
+                ? outputCache.getFollowupOutput(mg)
+                : executeMutant(mutant, mg.getFollowupTest());
+        if (followupResult == null) {
+            return false; // 跳过执行失败的后续测试用例
+        }
+
+        // 得到 mg 对应的蜕变关系 ID
+        String relation_id = mg.getMRId();
+        // get the metamorphic relation from relation_id
+        MetamorphicRelation relation = MRFactory_utils.getRelationById(relation_id);
+        if (relation == null) {
+            return false; // 跳过无法找到蜕变关系的MG
+        }
+
+        // 验证 group是否满足蜕变关系
+        if (!relation.verifyRelation(mg.getSourceTest(), mg.getFollowupTest(), sourceResult,
+                followupResult, "", "")) {
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 判断MG是否来自当前的MG域
+     */
+    private boolean isDomainGroup(MetamorphicGroup mg) {
+        int index = mg.getDomainIndex();
+        return mgDomain != null && index >= 0 && index < mgDomain.size() && mgDomain.contains(mg);
+    }
+
+    /**
+     * 执行突变体测试 - 适配createLineRegion函数
+     */
+    public Shape executeMutant(LineRegionFunction mutant, TestCase input) {
+        MutantWatchdog_utils.enter();
+        try {
+            // Directly invoke the bound mutant function
+            return mutant.apply(input.getLine(), input.getWidth());
+        } catch (Throwable e) {
+            // Handle exceptions by returning null
+            return null;
+        } finally {
+            MutantWatchdog_utils.exit();
+        }
+    }
+
+    /**
+     * 将突变体标记为超时，之后的阶段和策略都跳过该突变体
+     */
+    private void markTimedOut(String mutantName, Exception e) {
+        if (timedOutMutants.add(mutantName)) {
+            logThreadSafe(String.format("警告: 突变体 %s 超时（%s），标记为TIMEOUT", mutantName, e.getMessage()));
+        }
+    }
+
+    /**
+     * 加载突变体并绑定为类型化的函数接口，加载失败时返回 null
+     */
+    private LineRegionFunction loadMutant(String mutantName) {
+        String threadId = Thread.currentThread().getName();
+        // 加载突变体类
+        String className = MUTANTS_PACKAGE + "." + mutantName + ".createLineRegion";
+        try {
+            return MutantBinding_utils.bind(className, "createLineRegion", LineRegionFunction.class, Line2D.class, float.class);
+        } catch (ClassNotFoundException e) {
+            logThreadSafe(String.format("[%s] 错误: 无法加载突变体 %s", threadId, mutantName));
+        } catch (Exception e) {
+            logThreadSafe(
+                    String.format("[%s] 错误: 突变体 %s 执行失败 - %s", threadId, mutantName, e.getMessage()));
+        }
+        return null;
+    }
+
+    /**
+     * 为尚未缓存的突变体预先执行整个MG域（仅phase2且启用输出缓存时）
+     * 按 (突变体, MG区间) 拆分后并行填充；缓存建立后在各策略之间复用
+     */
+    private void buildOutputCaches(ForkJoinPool pool, List<LineRegionFunction> mutants) {
+        if (!useOutputCache || mgDomain == null) {
+            return;
+        }
+        List<Integer> pending = new ArrayList<>();
+        for (int m = 0; m < TARGET_MUTANTS.length; m++) {
+            if (mutants.get(m) != null && !outputCaches.containsKey(TARGET_MUTANTS[m])
+                    && !timedOutMutants.contains(TARGET_MUTANTS[m])) {
+                pending.add(m);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int chunks = (mgDomain.size() + OUTPUT_CACHE_CHUNK_SIZE - 1) / OUTPUT_CACHE_CHUNK_SIZE;
+        MutantOutputCache_utils[] caches = new MutantOutputCache_utils[pending.size()];
+        boolean[] failed = new boolean[pending.size()];
+        for (int i = 0; i < caches.length; i++) {
+            caches[i] = new MutantOutputCache_utils(mgDomain);
+        }
+        logThreadSafe(String.format("开始构建突变体输出缓存: %d个突变体 × %d个MG", pending.size(), mgDomain.size()));
+
+        CellScheduler_utils.runCells(pool, pending.size() * chunks, cell -> {
+            int i = cell / chunks;
+            int from = (cell % chunks) * OUTPUT_CACHE_CHUNK_SIZE;
+            int to = Math.min(from + OUTPUT_CACHE_CHUNK_SIZE, mgDomain.size());
+            LineRegionFunction mutant = mutants.get(pending.get(i));
+            if (timedOutMutants.contains(TARGET_MUTANTS[pending.get(i)])) {
+                return; // 该突变体的其他区间已超时
+            }
+            watchdog.call(() -> {
+                caches[i].fill(from, to, testCase -> executeMutant(mutant, testCase));
+                return null;
+            });
+        }, (cell, e) -> {
+            // 缓存构建失败的突变体回退为直接执行，超时的突变体之后不再执行
+            failed[cell / chunks] = true;
+            if (e instanceof MutantWatchdog_utils.MutantTimeoutException) {
+                markTimedOut(TARGET_MUTANTS[pending.get(cell / chunks)], e);
+                return;
+            }
+            logThreadSafe("错误: 构建突变体输出缓存时发生异常 - " + e.getMessage());
+        });
+
+        for (int i = 0; i < caches.length; i++) {
+            if (!failed[i]) {
+                outputCaches.put(TARGET_MUTANTS[pending.get(i)], caches[i]);
+            }
+        }
+        logThreadSafe("突变体输出缓存构建完成");
+    }
+
+    /**
+     * 为尚未建立违反位图的突变体准备位图（仅phase2且启用违反位图或需要精确计算时）
+     * 优先复用与当前MG域指纹一致的持久化位图，否则按 (突变体, MG区间) 并行计算并保存
+     */
+    private void buildViolationBitmaps(ForkJoinPool pool, List<LineRegionFunction> mutants, boolean required) {
+        if ((!useViolationBitmap && !required) || mgDomain == null) {
+            return;
+        }
+        Path bitmapDir = Paths.get("src/main/java/paper/pss/exp/jfreeChart_project/raw_results/" + phase + "/violations");
+        List<Integer> pending = new ArrayList<>();
+        for (int m = 0; m < TARGET_MUTANTS.length; m++) {
+            String mutantName = TARGET_MUTANTS[m];
+            if (mutants.get(m) == null || violationBitmaps.containsKey(mutantName)
+                    || timedOutMutants.contains(mutantName)) {
+                continue;
+            }
+            try {
+                ViolationBitmap_utils loaded = ViolationBitmap_utils.load(bitmapDir.resolve(mutantName + ".json"),
+                        domainFingerprint);
+                if (loaded != null && loaded.size() == mgDomain.size()) {
+                    violationBitmaps.put(mutantName, loaded);
+                    logThreadSafe(String.format("复用突变体 %s 的违反位图 (%d/%d)", mutantName, loaded.cardinality(),
+                            loaded.size()));
+                    continue;
+                }
+            } catch (IOException e) {
+                logThreadSafe(String.format("警告: 读取突变体 %s 的违反位图失败 - %s", mutantName, e.getMessage()));
+            }
+            pending.add(m);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // 区间长度为 WORD_BITS 的整数倍，不同单元不会写入同一个 long
+        int chunkSize = ViolationBitmap_utils.WORD_BITS * 4;
+        int chunks = (mgDomain.size() + chunkSize - 1) / chunkSize;
+        ViolationBitmap_utils[] bitmaps = new ViolationBitmap_utils[pending.size()];
+        boolean[] failed = new boolean[pending.size()];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new ViolationBitmap_utils(mgDomain.size());
+        }
+        logThreadSafe(String.format("开始计算MG违反位图: %d个突变体 × %d个MG", pending.size(), mgDomain.size()));
+
+        CellScheduler_utils.runCells(pool, pending.size() * chunks, cell -> {
+            int i = cell / chunks;
+            int from = (cell % chunks) * chunkSize;
+            int to = Math.min(from + chunkSize, mgDomain.size());
+            String mutantName = TARGET_MUTANTS[pending.get(i)];
+            LineRegionFunction mutant = mutants.get(pending.get(i));
+            if (timedOutMutants.contains(mutantName)) {
+                return; // 该突变体的其他区间已超时
+            }
+            MutantOutputCache_utils outputCache = outputCaches.get(mutantName);
+            watchdog.call(() -> {
+                for (int index = from; index < to; index++) {
+                    if (revealsDefect(mutant, outputCache, mgDomain.get(index))) {
+                        bitmaps[i].set(index);
                     }
                 }
+                return null;
+            });
+        }, (cell, e) -> {
+            // 位图计算失败的突变体回退为逐个MG验证，超时的突变体之后不再执行
+            failed[cell / chunks] = true;
+            if (e instanceof MutantWatchdog_utils.MutantTimeoutException) {
+                markTimedOut(TARGET_MUTANTS[pending.get(cell / chunks)], e);
+                return;
+            }
+            logThreadSafe("错误: 计算MG违反位图时发生异常 - " + e.getMessage());
+        });
+
+        for (int i = 0; i < bitmaps.length; i++) {
+            if (failed[i]) {
+                continue;
+            }
+            String mutantName = TARGET_MUTANTS[pending.get(i)];
+            violationBitmaps.put(mutantName, bitmaps[i]);
+            try {
+                bitmaps[i].save(bitmapDir.resolve(mutantName + ".json"), mutantName, domainFingerprint);
+            } catch (IOException e) {
+                logThreadSafe(String.format("警告: 保存突变体 %s 的违反位图失败 - %s", mutantName, e.getMessage()));
+            }
+        }
+        logThreadSafe("MG违反位图计算完成");
+    }
 
+    /**
+     * 判断策略是否支持增量扫描
+     * 这些策略逐个生成测试用例（或MG），长度为 n 的前缀与单独生成 n 个的分布相同；
+     * phase2.mtart 的分区数量依赖于样本数，不满足该性质
+     */
+    private boolean supportsIncrementalSweep(String strategy) {
+        return "phase1.random".equals(strategy) || "phase1.partition".equals(strategy)
+                || "phase1.art".equals(strategy) || "phase2.random".equals(strategy)
+                || "phase2.partition".equals(strategy);
+    }
+
+    /**
+     * 判断策略是否支持精确计算 P-measure
+     */
+    private boolean supportsExactPMeasure(String strategy) {
+        return mgDomain != null && ("phase2.random".equals(strategy) || "phase2.partition".equals(strategy));
+    }
+
+    /**
+     * 根据违反位图精确计算 P-measure（仅 phase2.random / phase2.partition）
+     * random 按不放回均匀抽样计算，partition 按分配到各分区-MR组合的数量及组合内有放回抽样计算
+     */
+    private void computeExactPMeasures(String strategy, ExperimentResult result) {
+        List<String> cellKeys = new ArrayList<>();
+        int[] cellSizes = new int[0];
+        List<int[]> cellSamples = new ArrayList<>();
+        Map<String, List<MetamorphicGroup>> cells = Collections.emptyMap();
+        if ("phase2.partition".equals(strategy)) {
+            phase2_partition_generator partitionGenerator;
+            try {
+                partitionGenerator = sharedPartitionGenerator();
+            } catch (IOException e) {
+                logThreadSafe("错误: 无法创建分区生成器，跳过精确计算 - " + e.getMessage());
+                return;
+            }
+            cells = partitionGenerator.getPartitionMgMap();
+            cellKeys.addAll(cells.keySet());
+            cellSizes = new int[cellKeys.size()];
+            for (int c = 0; c < cellKeys.size(); c++) {
+                cellSizes[c] = cells.get(cellKeys.get(c)).size();
+            }
+            // 分配方案只与测试用例数量有关，所有突变体共用
+            for (int testCasesNum = minTcsNum; testCasesNum <= maxTcsNum; testCasesNum++) {
+                Map<String, Integer> allocation = partitionGenerator.allocate(testCasesNum);
+                int[] samples = new int[cellKeys.size()];
+                for (int c = 0; c < cellKeys.size(); c++) {
+                    samples[c] = allocation.getOrDefault(cellKeys.get(c), 0);
+                }
+                cellSamples.add(samples);
+            }
+        }
+
+        for (String mutantName : TARGET_MUTANTS) {
+            ViolationBitmap_utils violations = violationBitmaps.get(mutantName);
+            if (violations == null) {
+                continue;
+            }
+            Map<String, Double> exactPMeasures = new LinkedHashMap<>();
+            if ("phase2.random".equals(strategy)) {
+                int violatedCount = violations.cardinality();
+                for (int testCasesNum = minTcsNum; testCasesNum <= maxTcsNum; testCasesNum++) {
+                    exactPMeasures.put(String.valueOf(testCasesNum), ExactPMeasure_utils
+                            .randomWithoutReplacement(mgDomain.size(), violatedCount, testCasesNum));
+                }
             } else {
-                // Phase2
-                List<MetamorphicGroup> mgList = (List<MetamorphicGroup>) generateTestCases(testCasesNum, strategy);
-                for (MetamorphicGroup mg : mgList) {
-                    // 得到原测试用例的输出
-                    Shape sourceResult = executeMutant(mutantMethod, mg.getSourceTest());
-                    if (sourceResult == null) {
-                        continue; // 跳过执行失败的测试用例
-                    }
-                    
-                    // 得到后续测试用例的输出
-                    Shape followupResult = executeMutant(mutantMethod, mg.getFollowupTest());
-                    if (followupResult == null) {
-                        continue; // 跳过执行失败的后续测试用例
-                    }
-                    
-                    // 得到 mg 对应的蜕变关系 ID
-                    String relation_id = mg.getMRId();
-                    // get the metamorphic relation from relation_id
-                    MetamorphicRelation relation = MRFactory_utils.getRelationById(relation_id);
-                    if (relation == null) {
-                        continue; // 跳过无法找到蜕变关系的MG
-                    }
-                    
-                    // 验证 group是否满足蜕变关系
-                    if (!relation.verifyRelation(mg.getSourceTest(), mg.getFollowupTest(), sourceResult,
-                            followupResult, "", "")) {
-                        defectDetected = true;
-                        break;
+                int[] cellViolated = new int[cellKeys.size()];
+                for (int c = 0; c < cellKeys.size(); c++) {
+                    for (MetamorphicGroup mg : cells.get(cellKeys.get(c))) {
+                        if (violations.get(mg.getDomainIndex())) {
+                            cellViolated[c]++;
+                        }
                     }
                 }
+                for (int testCasesNum = minTcsNum; testCasesNum <= maxTcsNum; testCasesNum++) {
+                    exactPMeasures.put(String.valueOf(testCasesNum), ExactPMeasure_utils.partitionWithReplacement(
+                            cellSizes, cellViolated, cellSamples.get(testCasesNum - minTcsNum)));
+                }
             }
-            if (defectDetected) {
-                defectDetectedCount++;
+            result.exactPMeasures.put(mutantName, exactPMeasures);
+        }
+        logThreadSafe(String.format("精确计算完成: %d个突变体", result.exactPMeasures.size()));
+    }
+
+    /**
+     * 交叉验证：比较蒙特卡洛模拟的均值与精确值
+     */
+    private void logExactComparison(ExperimentResult result) {
+        for (String mutantName : TARGET_MUTANTS) {
+            Map<String, Double> exactPMeasures = result.exactPMeasures.get(mutantName);
+            double[] means = result.meanPMeasures.get(mutantName);
+            if (exactPMeasures == null || means == null) {
+                continue;
             }
+            double maxDeviation = 0.0;
+            for (int tcsIndex = 0; tcsIndex < means.length; tcsIndex++) {
+                Double exact = exactPMeasures.get(String.valueOf(minTcsNum + tcsIndex));
+                if (exact == null) {
+                    continue;
+                }
+                maxDeviation = Math.max(maxDeviation, Math.abs(means[tcsIndex] - exact));
+            }
+            logThreadSafe(String.format("精确值交叉验证 - 突变体 %s: 模拟均值与精确值的最大偏差 %.4f", mutantName, maxDeviation));
         }
-        return (double) defectDetectedCount / internalIteration;
     }
 
     /**
-     * 执行突变体测试 - 适配createLineRegion函数
+     * 打开当前策略的断点日志，失败时返回 null（实验照常进行，只是不记录断点）
      */
-    public Shape executeMutant(Method mutantMethod, TestCase input) {
+    private CheckpointJournal_utils openJournal(String strategy, boolean sweep) {
+        Path journalFile = Paths.get("src/main/java/paper/pss/exp/jfreeChart_project/raw_results/" + phase + "/checkpoint/P-measure_" + strategy
+                + ".journal.jsonl");
+        // 影响结果的实验参数，续跑时必须一致
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("phase", phase);
+        config.put("strategy", strategy);
+        config.put("internalIteration", internalIteration);
+        config.put("externalIteration", externalIteration);
+        config.put("minTcsNum", minTcsNum);
+        config.put("maxTcsNum", maxTcsNum);
+        config.put("sequentialHalfWidth", sequentialHalfWidth);
+        config.put("incrementalSweep", sweep);
+        config.put("experimentSeed", experimentSeed);
+        config.put("pMeasureMode", pMeasureMode);
+        config.put("useOutputCache", useOutputCache);
+        config.put("useViolationBitmap", useViolationBitmap);
+        config.put("domainFingerprint", domainFingerprint); // MG域的身份（phase1为null），快照或生成参数变化时不同
         try {
-            Line2D line = input.getLine();
-            float width = input.getWidth();
-            // Directly invoke the mutant method
-            Object result = mutantMethod.invoke(null, line, width);
-
-            // Check if the result is of the expected type (Shape)
-            if (result instanceof Shape) {
-                return (Shape) result;
-            } else {
-                return null; // Return null if the result is not a Shape
+            return CheckpointJournal_utils.open(journalFile, config, resume);
+        } catch (IOException e) {
+            logThreadSafe("警告: 无法打开断点日志，本次运行不记录断点 - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 将断点日志中已完成的结果填入结果数组，并标记对应的 (突变体, 测试用例数量)
+     */
+    private void restoreCheckpoint(CheckpointJournal_utils journal, double[][][] cellValues, int[][][] cellTrials,
+            boolean[][] completedTcs) {
+        if (journal == null) {
+            return;
+        }
+        List<String> mutantNames = Arrays.asList(TARGET_MUTANTS);
+        int restored = 0;
+        for (CheckpointJournal_utils.Entry entry : journal.getCompleted()) {
+            int m = mutantNames.indexOf(entry.mutant);
+            int tcsIndex = entry.testCasesNum - minTcsNum;
+            if (m < 0 || tcsIndex < 0 || tcsIndex >= completedTcs[m].length
+                    || entry.pMeasures.size() != externalIteration || entry.trials.size() != externalIteration) {
+                continue;
             }
-        } catch (Exception e) {
-            // Handle exceptions by returning null
+            for (int iter = 0; iter < externalIteration; iter++) {
+                cellValues[m][tcsIndex][iter] = entry.pMeasures.get(iter);
+                cellTrials[m][tcsIndex][iter] = entry.trials.get(iter);
+            }
+            completedTcs[m][tcsIndex] = true;
+            restored++;
+        }
+        if (restored > 0) {
+            completedExperiments.addAndGet(restored);
+            logThreadSafe(String.format("从断点日志恢复 %d 个 (突变体, 测试用例数量) 的结果", restored));
+        }
+    }
+
+    /**
+     * 记录一个外层迭代完成；某个 (突变体, 测试用例数量) 的全部外层迭代完成后追加到断点日志
+     */
+    private void checkpointIteration(CheckpointJournal_utils journal, AtomicIntegerArray remainingIterations, int m,
+            int tcsIndex, double[][][] cellValues, int[][][] cellTrials) {
+        int tcsRange = maxTcsNum - minTcsNum + 1;
+        if (remainingIterations.decrementAndGet(m * tcsRange + tcsIndex) != 0 || journal == null) {
+            return;
+        }
+        List<Double> pMeasures = new ArrayList<>(externalIteration);
+        List<Integer> trials = new ArrayList<>(externalIteration);
+        for (int iter = 0; iter < externalIteration; iter++) {
+            pMeasures.add(cellValues[m][tcsIndex][iter]);
+            trials.add(cellTrials[m][tcsIndex][iter]);
+        }
+        try {
+            journal.append(TARGET_MUTANTS[m], minTcsNum + tcsIndex, pMeasures, trials);
+        } catch (IOException e) {
+            logThreadSafe("警告: 写入断点日志失败 - " + e.getMessage());
+        }
+    }
+
+    private void closeJournal(CheckpointJournal_utils journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logThreadSafe("警告: 关闭断点日志失败 - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 打开流式结果文件，失败时返回 null
+     */
+    private ResultStreamWriter_utils openResultWriter(String fileName) {
+        Path file = Paths.get("src/main/java/paper/pss/exp/jfreeChart_project/raw_results/" + phase).resolve(fileName);
+        try {
+            return new ResultStreamWriter_utils(file);
+        } catch (IOException e) {
+            logThreadSafe(String.format("错误: 无法创建结果文件 %s - %s", fileName, e.getMessage()));
             return null;
         }
     }
 
+    /**
+     * 突变体的全部单元完成后写出其结果并释放对应的结果数组，只保留每个测试用例数量的均值
+     */
+    private void completeMutant(int m, boolean sweep, double[][][] cellValues, int[][][] cellTrials,
+            ResultStreamWriter_utils pMeasureWriter, ResultStreamWriter_utils trialsWriter, ExperimentResult result) {
+        int tcsRange = maxTcsNum - minTcsNum + 1;
+        double[] means = new double[tcsRange];
+        long trialsUsed = 0;
+        for (int tcsIndex = 0; tcsIndex < tcsRange; tcsIndex++) {
+            for (int iter = 0; iter < externalIteration; iter++) {
+                means[tcsIndex] += cellValues[m][tcsIndex][iter];
+                if (!sweep || tcsIndex == 0) {
+                    // 增量扫描时一次试验覆盖所有测试用例数量，只计一次
+                    trialsUsed += cellTrials[m][tcsIndex][iter];
+                }
+            }
+            means[tcsIndex] /= externalIteration;
+        }
+        result.meanPMeasures.put(TARGET_MUTANTS[m], means);
+        result.trialsUsed.addAndGet(trialsUsed);
+        result.trialsBudget.addAndGet((long) (sweep ? 1 : tcsRange) * externalIteration * internalIteration);
+        try {
+            if (pMeasureWriter != null) {
+                pMeasureWriter.writeBlock(TARGET_MUTANTS[m], minTcsNum, cellValues[m]);
+            }
+            if (trialsWriter != null) {
+                trialsWriter.writeBlock(TARGET_MUTANTS[m], minTcsNum, cellTrials[m]);
+            }
+        } catch (IOException e) {
+            logThreadSafe(String.format("错误: 写出突变体 %s 的结果失败 - %s", TARGET_MUTANTS[m], e.getMessage()));
+        }
+        cellValues[m] = null;
+        cellTrials[m] = null;
+    }
+
+    /**
+     * 为没有结果的突变体（加载失败、超时或执行失败）写出空结果
+     */
+    private void writeEmptyResult(int m, ResultStreamWriter_utils pMeasureWriter, ResultStreamWriter_utils trialsWriter) {
+        try {
+            if (pMeasureWriter != null) {
+                pMeasureWriter.writeBlock(TARGET_MUTANTS[m], minTcsNum, new double[0][]);
+            }
+            if (trialsWriter != null) {
+                trialsWriter.writeBlock(TARGET_MUTANTS[m], minTcsNum, new int[0][]);
+            }
+        } catch (IOException e) {
+            logThreadSafe(String.format("错误: 写出突变体 %s 的结果失败 - %s", TARGET_MUTANTS[m], e.getMessage()));
+        }
+    }
+
+    private void closeResultWriter(ResultStreamWriter_utils writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logThreadSafe(String.format("错误: 保存结果文件 %s 失败 - %s", writer.getFile().getFileName(), e.getMessage()));
+        }
+    }
+
     /**
      * 多线程运行完整实验
+     * 按 (突变体, 测试用例数量, 外层迭代) 拆分为独立单元，在 work-stealing 线程池上并行执行，
+     * 每个突变体的单元全部完成后立即按 突变体 -> 测试用例数量 -> P-measure列表 的结构写出其结果
      */
     public ExperimentResult runExperimentMultithreaded(String strategy) {
         ExperimentResult result = new ExperimentResult();
 
-        // 创建线程池
-        ExecutorService executor = Executors.newFixedThreadPool(threadPoolSize);
-        List<Future<MutantResult>> futures = new ArrayList<>();
+        int tcsRange = maxTcsNum - minTcsNum + 1;
+        // 增量扫描时每个单元一次得到所有测试用例数量的结果，单元只按 (突变体, 外层迭代) 拆分
+        boolean sweep = incrementalSweep && supportsIncrementalSweep(strategy);
+        int cellsPerMutant = sweep ? externalIteration : tcsRange * externalIteration;
+
+        // 精确计算模式：phase2 的 random / partition 策略可直接由违反位图求出 P-measure
+        boolean runExact = !"simulate".equals(pMeasureMode) && supportsExactPMeasure(strategy);
+        boolean runSimulation = !(runExact && "exact".equals(pMeasureMode));
+        int totalCells = runSimulation ? TARGET_MUTANTS.length * cellsPerMutant : 0;
 
         logThreadSafe(String.format("=== 开始多线程处理策略: %s ===", strategy));
-        logThreadSafe(String.format("线程池配置: %d个线程并行处理 %d个突变体", threadPoolSize, TARGET_MUTANTS.length));
+        if ("exact".equals(pMeasureMode) && !runExact) {
+            logThreadSafe(String.format("策略 %s 不支持精确计算，使用蒙特卡洛模拟", strategy));
+        }
+        if (sweep && runSimulation) {
+            logThreadSafe(String.format("策略 %s 使用增量扫描: 每次试验生成 %d 个测试用例，复用前缀得到 %d 个测试用例数量的结果",
+                    strategy, maxTcsNum, tcsRange));
+        }
+        logThreadSafe(String.format("线程池配置: %d个线程并行处理 %d个突变体（共%d个实验单元）",
+                threadPoolSize, TARGET_MUTANTS.length, totalCells));
         logThreadSafe(String.format("预计处理时间: 根据CPU性能和突变体复杂度而定"));
 
-        // 为每个mutant创建任务
-        for (String mutantName : TARGET_MUTANTS) {
-            MutantTask task = new MutantTask(mutantName, strategy, this);
-            Future<MutantResult> future = executor.submit(task);
-            futures.add(future);
+        // 每个突变体只加载并绑定一次，加载失败的突变体不参与调度
+        List<LineRegionFunction> mutants = new ArrayList<>(TARGET_MUTANTS.length);
+        for (int m = 0; m < TARGET_MUTANTS.length; m++) {
+            mutants.add(loadMutant(TARGET_MUTANTS[m]));
         }
 
-        logThreadSafe(String.format("所有任务已提交到线程池，开始并行执行..."));
+        // 每个单元写入自己的位置，无需加锁；remainingCells 用于判断突变体何时全部完成
+        double[][][] cellValues = new double[TARGET_MUTANTS.length][tcsRange][externalIteration];
+        int[][][] cellTrials = new int[TARGET_MUTANTS.length][tcsRange][externalIteration];
+        boolean[] failedMutants = new boolean[TARGET_MUTANTS.length];
+
+        // 断点日志：续跑时恢复已完成的 (突变体, 测试用例数量) 并跳过对应单元，
+        // 其余每完成全部外层迭代就追加一条记录；remainingIterations 用于判断何时可以写入
+        CheckpointJournal_utils journal = runSimulation ? openJournal(strategy, sweep) : null;
+        boolean[][] completedTcs = new boolean[TARGET_MUTANTS.length][tcsRange];
+        restoreCheckpoint(journal, cellValues, cellTrials, completedTcs);
+        AtomicIntegerArray remainingIterations = new AtomicIntegerArray(TARGET_MUTANTS.length * tcsRange);
+        AtomicIntegerArray remainingCells = new AtomicIntegerArray(TARGET_MUTANTS.length);
+        for (int m = 0; m < TARGET_MUTANTS.length; m++) {
+            int pendingTcs = 0;
+            for (int tcsIndex = 0; tcsIndex < tcsRange; tcsIndex++) {
+                if (!completedTcs[m][tcsIndex]) {
+                    remainingIterations.set(m * tcsRange + tcsIndex, externalIteration);
+                    pendingTcs++;
+                }
+            }
+            remainingCells.set(m, sweep ? (pendingTcs > 0 ? externalIteration : 0) : pendingTcs * externalIteration);
+        }
 
-        // 收集结果
-        for (Future<MutantResult> future : futures) {
-            try {
-                MutantResult mutantResult = future.get();
-                synchronized (resultLock) {
-                    result.pMeasures.put(mutantResult.mutantName, mutantResult.pMeasures);
+        // 流式结果文件：突变体完成即写出；未能加载或已超时的突变体写出空结果，全部从断点恢复的突变体直接写出
+        ResultStreamWriter_utils pMeasureWriter = runSimulation
+                ? openResultWriter("P-measure_" + strategy + "_multithreaded.json")
+                : null;
+        ResultStreamWriter_utils trialsWriter = runSimulation && sequentialHalfWidth > 0
+                ? openResultWriter("P-measure_" + strategy + "_multithreaded_trials.json")
+                : null;
+        boolean[] emptyWritten = new boolean[TARGET_MUTANTS.length];
+        for (int m = 0; m < TARGET_MUTANTS.length && runSimulation; m++) {
+            if (mutants.get(m) == null || timedOutMutants.contains(TARGET_MUTANTS[m])) {
+                writeEmptyResult(m, pMeasureWriter, trialsWriter);
+                emptyWritten[m] = true;
+            } else if (remainingCells.get(m) == 0) {
+                completeMutant(m, sweep, cellValues, cellTrials, pMeasureWriter, trialsWriter, result);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threadPoolSize);
+        try {
+            buildOutputCaches(pool, mutants);
+            buildViolationBitmaps(pool, mutants, runExact);
+            if (runExact) {
+                computeExactPMeasures(strategy, result);
+            }
+
+            // 每个实验单元使用自己的随机数流，单元结果只由实验种子和单元编号决定
+            SplittableRandom[] cellRandoms = splitCellRandoms(strategy, totalCells);
+            CellScheduler_utils.runCells(pool, totalCells, cell -> {
+                int m = cell / cellsPerMutant;
+                if (mutants.get(m) == null || failedMutants[m] || timedOutMutants.contains(TARGET_MUTANTS[m])) {
+                    return;
+                }
+                int iter = cell % externalIteration;
+                if (sweep) {
+                    if (remainingCells.get(m) == 0) {
+                        return; // 该突变体所有测试用例数量均已从断点日志恢复
+                    }
+                    // 更新进度（每个测试用例数量记一次）
+                    if (iter == 0) {
+                        for (int tcsIndex = 0; tcsIndex < tcsRange; tcsIndex++) {
+                            updateProgress(strategy, TARGET_MUTANTS[m], minTcsNum + tcsIndex);
+                        }
+                    }
+                    PMeasureEstimate[] estimates = watchdog.call(() -> calculatePMeasureSweep(mutants.get(m),
+                            outputCaches.get(TARGET_MUTANTS[m]), violationBitmaps.get(TARGET_MUTANTS[m]),
+                            strategy, cellRandoms[cell]));
+                    for (int tcsIndex = 0; tcsIndex < tcsRange; tcsIndex++) {
+                        if (completedTcs[m][tcsIndex]) {
+                            continue;
+                        }
+                        cellValues[m][tcsIndex][iter] = estimates[tcsIndex].pMeasure;
+                        cellTrials[m][tcsIndex][iter] = estimates[tcsIndex].trials;
+                        checkpointIteration(journal, remainingIterations, m, tcsIndex, cellValues, cellTrials);
+                    }
+                } else {
+                    int tcsIndex = (cell % cellsPerMutant) / externalIteration;
+                    int testCasesNum = minTcsNum + tcsIndex;
+                    if (completedTcs[m][tcsIndex]) {
+                        return; // 已从断点日志恢复
+                    }
+
+                    // 更新进度（每个测试用例数量记一次）
+                    if (iter == 0) {
+                        updateProgress(strategy, TARGET_MUTANTS[m], testCasesNum);
+                    }
+
+                    PMeasureEstimate estimate = watchdog.call(() -> calculatePMeasure(mutants.get(m),
+                            outputCaches.get(TARGET_MUTANTS[m]), violationBitmaps.get(TARGET_MUTANTS[m]), testCasesNum,
+                            strategy, cellRandoms[cell]));
+                    cellValues[m][tcsIndex][iter] = estimate.pMeasure;
+                    cellTrials[m][tcsIndex][iter] = estimate.trials;
+                    checkpointIteration(journal, remainingIterations, m, tcsIndex, cellValues, cellTrials);
                 }
 
-            } catch (InterruptedException | ExecutionException e) {
+                if (remainingCells.decrementAndGet(m) == 0) {
+                    logThreadSafe(String.format("[%s] 完成突变体 %s", Thread.currentThread().getName(),
+                            TARGET_MUTANTS[m]));
+                    completeMutant(m, sweep, cellValues, cellTrials, pMeasureWriter, trialsWriter, result);
+                }
+            }, (cell, e) -> {
+                failedMutants[cell / cellsPerMutant] = true;
+                if (e instanceof MutantWatchdog_utils.MutantTimeoutException) {
+                    markTimedOut(TARGET_MUTANTS[cell / cellsPerMutant], e);
+                    return;
+                }
                 logThreadSafe("错误: 处理mutant时发生异常 - " + e.getMessage());
                 e.printStackTrace();
+            });
+
+            // 超时或执行失败的突变体没有完整结果，同样写出空结果，原因记录在状态文件中
+            for (int m = 0; m < TARGET_MUTANTS.length && runSimulation; m++) {
+                if (!emptyWritten[m] && mutants.get(m) != null && !result.meanPMeasures.containsKey(TARGET_MUTANTS[m])) {
+                    writeEmptyResult(m, pMeasureWriter, trialsWriter);
+                }
             }
+        } finally {
+            pool.shutdown();
+            closeJournal(journal);
+            closeResultWriter(pMeasureWriter);
+            closeResultWriter(trialsWriter);
         }
 
-        // 关闭线程池
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
-                logThreadSafe("警告: 线程池未能在60秒内正常关闭，强制关闭");
-                executor.shutdownNow();
-            } else {
-                logThreadSafe("线程池已正常关闭");
-            }
-        } catch (InterruptedException e) {
-            logThreadSafe("线程池关闭时被中断，强制关闭");
-            executor.shutdownNow();
+        result.simulated = runSimulation;
+        for (int m = 0; m < TARGET_MUTANTS.length; m++) {
+            String status = mutants.get(m) == null ? "LOAD_FAILED"
+                    : timedOutMutants.contains(TARGET_MUTANTS[m]) ? "TIMEOUT"
+                    : failedMutants[m] ? "ERROR" : "OK";
+            result.mutantStatuses.put(TARGET_MUTANTS[m], status);
+        }
+        if (pMeasureWriter != null) {
+            result.pMeasureFile = pMeasureWriter.getFile();
+            result.streamedMutants = pMeasureWriter.getBlockCount();
+        }
+        if (trialsWriter != null) {
+            result.trialsFile = trialsWriter.getFile();
+        }
+        if (runSimulation && sequentialHalfWidth > 0) {
+            long strategyTrialsUsed = result.trialsUsed.get();
+            long strategyTrialsBudget = result.trialsBudget.get();
+            totalTrialsUsed.addAndGet(strategyTrialsUsed);
+            totalTrialsBudget.addAndGet(strategyTrialsBudget);
+            logThreadSafe(String.format("序贯抽样: 策略 %s 实际试验 %d 次 / 预算 %d 次，节省 %d 次", strategy,
+                    strategyTrialsUsed, strategyTrialsBudget, strategyTrialsBudget - strategyTrialsUsed));
+        }
+
+        if (runExact && runSimulation) {
+            logExactComparison(result);
         }
 
         logThreadSafe(String.format("=== 策略 %s 完成 ===", strategy));
@@ -528,27 +1213,80 @@ private static final String[] TARGET_MUTANTS = {
             Path resultsDir = Paths.get("src/main/java/paper/pss/exp/jfreeChart_project/raw_results/" + phase);
             Files.createDirectories(resultsDir);
 
-            // 保存 P-measure 结果
             ObjectMapper mapper = new ObjectMapper();
-            Path pMeasureFile = resultsDir.resolve("P-measure_" + methodName + "_multithreaded.json");
-            mapper.writerWithDefaultPrettyPrinter().writeValue(pMeasureFile.toFile(), result.pMeasures);
 
-            // 统计结果信息
-            int totalMutants = result.pMeasures.size();
-            int totalTestCaseConfigs = result.pMeasures.values().iterator().hasNext()
-                    ? result.pMeasures.values().iterator().next().size()
-                    : 0;
+            // P-measure 结果已在实验过程中流式写出（exact 模式下跳过模拟的策略没有该文件）
+            if (result.simulated && result.pMeasureFile != null) {
+                logThreadSafe(String.format("结果保存完成:"));
+                logThreadSafe(String.format("  P-measure文件: %s", result.pMeasureFile.getFileName()));
+                logThreadSafe(String.format("  包含数据: %d个突变体 × %d个测试用例配置", result.streamedMutants,
+                        maxTcsNum - minTcsNum + 1));
+            }
+
+            // 启用序贯抽样时，每个 P-measure 实际使用的试验次数另存为结构相同的文件
+            if (result.simulated && result.trialsFile != null) {
+                logThreadSafe(String.format("  试验次数文件: %s", result.trialsFile.getFileName()));
+            }
 
-            logThreadSafe(String.format("结果保存完成:"));
-            logThreadSafe(String.format("  P-measure文件: %s", pMeasureFile.getFileName()));
-            logThreadSafe(String.format("  包含数据: %d个突变体 × %d个测试用例配置", totalMutants, totalTestCaseConfigs));
+            // 突变体状态另存为旁路文件，空结果的原因（超时、执行失败、加载失败）可以从中区分
+            Path statusFile = resultsDir.resolve("P-measure_" + methodName + "_multithreaded_status.json");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(statusFile.toFile(), result.mutantStatuses);
+            logThreadSafe(String.format("  突变体状态文件: %s", statusFile.getFileName()));
 
+            // 保存精确计算的 P-measure 结果
+            if (!result.exactPMeasures.isEmpty()) {
+                Path exactFile = resultsDir.resolve("P-measure_" + methodName + "_exact.json");
+                mapper.writerWithDefaultPrettyPrinter().writeValue(exactFile.toFile(), result.exactPMeasures);
+                logThreadSafe(String.format("  精确P-measure文件: %s", exactFile.getFileName()));
+            }
         } catch (IOException e) {
             logThreadSafe("错误: 保存结果失败 - " + e.getMessage());
             System.err.println("保存结果失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 为策略的所有实验单元划分随机数流
+     * 根流由实验种子和策略名确定，按单元编号顺序 split，跳过的单元（断点恢复、突变体加载失败）同样占用自己的流，
+     * 因此同一单元的随机数流与线程数量、调度顺序以及是否续跑无关
+     */
+    private SplittableRandom[] splitCellRandoms(String strategy, int cellCount) {
+        SplittableRandom root = new SplittableRandom(experimentSeed ^ strategy.hashCode());
+        SplittableRandom[] cellRandoms = new SplittableRandom[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellRandoms[cell] = root.split();
+        }
+        return cellRandoms;
+    }
+
+    /**
+     * 读取或生成MG域
+     * 启用快照时优先复用与当前配置文件、种子一致的快照，否则按种子生成并写入快照，
+     * 同一项目的多次运行因此共享同一个MG域
+     */
+    private ColumnarMGDomain_utils<MetamorphicGroup, TestCase> loadOrGenerateDomain(MGDomainGenerator_utils mgGenerator)
+            throws IOException {
+        Path snapshotFile = Paths.get(DOMAIN_SNAPSHOT_DIR, "mg_domain_" + experimentSeed + ".bin");
+        if (useDomainSnapshot) {
+            ColumnarMGDomain_utils<MetamorphicGroup, TestCase> snapshot = mgGenerator.loadDomain(snapshotFile,
+                    experimentSeed);
+            if (snapshot != null) {
+                logThreadSafe("复用MG域快照: " + snapshotFile);
+                return snapshot;
+            }
+        }
+        ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain = mgGenerator.generateDomain(experimentSeed);
+        if (useDomainSnapshot) {
+            try {
+                mgGenerator.saveDomain(domain, snapshotFile, experimentSeed);
+                logThreadSafe("MG域快照已保存: " + snapshotFile);
+            } catch (IOException e) {
+                logThreadSafe("警告: 保存MG域快照失败 - " + e.getMessage());
+            }
+        }
+        return domain;
+    }
+
     /**
      * 设置日志记录
      */
@@ -640,8 +1378,22 @@ private static final String[] TARGET_MUTANTS = {
         int externalIteration = 50;
         int maxTcsNum = 18;
         int minTcsNum = 6;
-        int threadPoolSize = Math.min(TARGET_MUTANTS.length, Runtime.getRuntime().availableProcessors()); // 根据CPU核心数和mutant数量决定线程数
+        int threadPoolSize = Runtime.getRuntime().availableProcessors(); // 实验按单元调度，线程数取CPU核心数
         boolean logMod = true; // 日志开关，true启用日志，false关闭日志
+        boolean useOutputCache = true; // phase2输出缓存开关，同一MG域上每个突变体的输出只计算一次
+        boolean useViolationBitmap = true; // phase2违反位图开关，预计算每个MG是否揭示突变体并持久化
+        // P-measure计算模式: simulate(蒙特卡洛模拟) / exact(random与partition策略精确计算) / both(两者都计算并交叉验证)
+        String pMeasureMode = "simulate";
+        // 序贯抽样精度（Wilson 95%置信区间半宽度，例如0.01），0表示每个P-measure都执行internalIteration次试验
+        double sequentialHalfWidth = 0.0;
+        // 以 --incremental-sweep 启动时开启增量扫描：random / partition / art 策略每次试验生成一条长度为maxTcsNum的序列，
+        // 复用其前缀得到所有测试用例数量的结果。各测试用例数量的估计因此相互关联，默认关闭，保持每个数量独立实验
+        boolean incrementalSweep = Arrays.asList(args).contains("--incremental-sweep");
+        // 以 --resume 启动时从断点日志续跑，只补算上次运行中未完成的 (突变体, 测试用例数量)
+        boolean resume = Arrays.asList(args).contains("--resume");
+        // MG域快照开关，phase2优先复用以 experimentSeed 生成的MG域快照，多次运行（包括续跑）使用完全相同的MG域
+        boolean useDomainSnapshot = true;
+        long experimentSeed = ExperimentSeed_utils.DEFAULT_SEED; // 实验根种子，相同种子和参数的两次运行结果相同
 
         System.out.println("[DEBUG] 参数配置完成: phase=" + phase + ", threadPoolSize=" + threadPoolSize);
 
@@ -668,7 +1420,8 @@ private static final String[] TARGET_MUTANTS = {
         try {
             experiment = new get_raw_results_multithreaded(
                     phase, strategies, internalIteration, externalIteration, maxTcsNum, minTcsNum, threadPoolSize,
-                    logMod);
+                    logMod, useOutputCache, useViolationBitmap, pMeasureMode,
+                    sequentialHalfWidth, incrementalSweep, resume, useDomainSnapshot, experimentSeed);
             System.out.println("[DEBUG] 实验实例创建成功");
         } catch (Exception e) {
             System.err.println("[ERROR] 创建实验实例失败: " + e.getMessage());
@@ -687,6 +1440,9 @@ private static final String[] TARGET_MUTANTS = {
         experiment.logThreadSafe(String.format("  测试用例数量范围: %d - %d", minTcsNum, maxTcsNum));
         experiment.logThreadSafe(String.format("  目标突变体数量: %d", TARGET_MUTANTS.length));
         experiment.logThreadSafe(String.format("  策略列表: %s", String.join(", ", experiment.strategies)));
+        experiment.logThreadSafe(String.format("  增量扫描: %s", incrementalSweep ? "是" : "否"));
+        experiment.logThreadSafe(String.format("  断点续跑: %s", resume ? "是" : "否"));
+        experiment.logThreadSafe(String.format("  实验种子: %d (MG域快照: %s)", experimentSeed, useDomainSnapshot ? "启用" : "关闭"));
 
         // 运行实验
         for (int i = 0; i < experiment.strategies.length; i++) {
@@ -705,6 +1461,12 @@ private static final String[] TARGET_MUTANTS = {
         }
 
         experiment.logThreadSafe("\n=== 所有多线程实验完成! ===");
+        if (sequentialHalfWidth > 0) {
+            long used = experiment.totalTrialsUsed.get();
+            long budget = experiment.totalTrialsBudget.get();
+            experiment.logThreadSafe(String.format("序贯抽样汇总: 实际试验 %d 次 / 预算 %d 次，共节省 %d 次 (%.1f%%)",
+                    used, budget, budget - used, budget > 0 ? 100.0 * (budget - used) / budget : 0.0));
+        }
 
         // 关闭日志处理器（仅在启用日志时）
         if (logMod && experiment.fileHandler != null) {
@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.jfreeChart_project.model.MetamorphicRelation;
 import paper.pss.exp.jfreeChart_project.model.MetamorphicGroup;
@@ -115,6 +117,18 @@ public class MRFactory_utils {
      * @return 包含所有生成的蜕变组的列表
      */
     public static List<MetamorphicGroup> generateMetamorphicGroups(TestCase sourceTest) {
+        return generateMetamorphicGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    /**
+     * 使用指定的随机数生成器为给定的测试用例生成所有适用的蜕变组
+     * 蜕变关系的随机参数都从该生成器中抽取，种子和源测试用例相同时生成的蜕变组相同
+     * 
+     * @param sourceTest 源测试用例
+     * @param random     调用方持有的随机数生成器
+     * @return 包含所有生成的蜕变组的列表
+     */
+    public static List<MetamorphicGroup> generateMetamorphicGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> allGroups = new ArrayList<>();
         
         // 获取适用于源测试用例的所有蜕变关系
@@ -122,7 +136,7 @@ public class MRFactory_utils {
         
         // 为每个适用的蜕变关系生成蜕变组
         for (MetamorphicRelation relation : applicableRelations) {
-            List<MetamorphicGroup> groups = relation.createGroups(sourceTest);
+            List<MetamorphicGroup> groups = relation.createGroups(sourceTest, random);
             allGroups.addAll(groups);
         }
         
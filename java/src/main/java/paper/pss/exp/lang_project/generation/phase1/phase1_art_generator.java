@@ -1,10 +1,16 @@
 package paper.pss.exp.lang_project.generation.phase1;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import paper.pss.exp.lang_project.model.TestCase;
+import paper.pss.exp.utils.ArtIndex_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 public class phase1_art_generator {
-    private static final Random random = new Random();
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
+    private static final double DAY_MILLIS = 24.0 * 60.0 * 60.0 * 1000.0;
+    // 特征向量 [date1毫秒, date2毫秒] 各维度在距离中的下界权重（两个日期相差天数的平均值），用于最近邻索引剪枝
+    private static final double[] FEATURE_WEIGHTS = { 0.5 / DAY_MILLIS, 0.5 / DAY_MILLIS };
     private final int candidateNum;
     
     public phase1_art_generator() {
@@ -12,25 +18,34 @@ public class phase1_art_generator {
     }
     
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
+        // 非空日期用例的特征向量索引；含空日期的用例之间距离为0，与非空用例距离为1，只需记录数量
+        ArtIndex_utils index = new ArtIndex_utils(FEATURE_WEIGHTS, this::featureDistance);
+        int nullCount = 0;
         
-        TestCase firstTestCase = generateRandomTestCase();
+        TestCase firstTestCase = generateRandomTestCase(random);
         testCases.add(firstTestCase);
+        if (isNullCase(firstTestCase)) {
+            nullCount++;
+        } else {
+            index.add(features(firstTestCase));
+        }
         
         while (testCases.size() < count) {
             TestCase bestCandidate = null;
             double bestMinDist = -1;
             
             for (int i = 0; i < candidateNum; i++) {
-                TestCase candidate = generateRandomTestCase();
+                TestCase candidate = generateRandomTestCase(random);
                 
-                double minDist = Double.MAX_VALUE;
-                for (TestCase existing : testCases) {
-                    double dist = distance(candidate, existing);
-                    if (dist < minDist) {
-                        minDist = dist;
-                    }
-                }
+                double minDist = minDistance(candidate, index, nullCount);
                 
                 if (minDist > bestMinDist) {
                     bestMinDist = minDist;
@@ -39,56 +54,66 @@ public class phase1_art_generator {
             }
             
             testCases.add(bestCandidate);
+            if (isNullCase(bestCandidate)) {
+                nullCount++;
+            } else {
+                index.add(features(bestCandidate));
+            }
         }
         
         return testCases;
     }
     
-    private double distance(TestCase a, TestCase b) {
-        Date date1A = a.getDate1();
-        Date date2A = a.getDate2();
-        Date date1B = b.getDate1();
-        Date date2B = b.getDate2();
-        
-        if (date1A == null || date2A == null || date1B == null || date2B == null) {
-            boolean nullA = (date1A == null || date2A == null);
-            boolean nullB = (date1B == null || date2B == null);
-            return nullA == nullB ? 0.0 : 1.0;
+    private double minDistance(TestCase candidate, ArtIndex_utils index, int nullCount) {
+        if (isNullCase(candidate)) {
+            return nullCount > 0 ? 0.0 : 1.0;
         }
+        double minDist = index.nearestDistance(features(candidate));
+        return nullCount > 0 ? Math.min(minDist, 1.0) : minDist;
+    }
+    
+    private boolean isNullCase(TestCase testCase) {
+        return testCase.getDate1() == null || testCase.getDate2() == null;
+    }
+    
+    private double[] features(TestCase testCase) {
+        return testCase.getFeatures();
+    }
+    
+    private double featureDistance(double[] a, double[] b) {
+        double dist1 = Math.abs(a[0] - b[0]);
+        double dist2 = Math.abs(a[1] - b[1]);
         
-        double dist1 = Math.abs(date1A.getTime() - date1B.getTime());
-        double dist2 = Math.abs(date2A.getTime() - date2B.getTime());
-        
-        double daysDist1 = dist1 / (24.0 * 60.0 * 60.0 * 1000.0);
-        double daysDist2 = dist2 / (24.0 * 60.0 * 60.0 * 1000.0);
+        double daysDist1 = dist1 / DAY_MILLIS;
+        double daysDist2 = dist2 / DAY_MILLIS;
         
         return (daysDist1 + daysDist2) / 2.0;
     }
     
-    private TestCase generateRandomTestCase() {
+    private TestCase generateRandomTestCase(RandomGenerator random) {
         if (random.nextDouble() < 0.1) {
-            return generateNullTestCase();
+            return generateNullTestCase(random);
         }
         
-        Date date1 = generateRandomDate();
-        Date date2 = generateRandomDate();
+        Date date1 = generateRandomDate(random);
+        Date date2 = generateRandomDate(random);
         int partitionId = determinePartitionId(date1, date2);
         
         return new TestCase(date1, date2, partitionId);
     }
     
-    private TestCase generateNullTestCase() {
+    private TestCase generateNullTestCase(RandomGenerator random) {
         int nullCase = random.nextInt(3);
         if (nullCase == 0) {
             return new TestCase((Date) null, (Date) null, 1);
         } else if (nullCase == 1) {
-            return new TestCase(null, generateRandomDate(), 1);
+            return new TestCase(null, generateRandomDate(random), 1);
         } else {
-            return new TestCase(generateRandomDate(), null, 1);
+            return new TestCase(generateRandomDate(random), null, 1);
         }
     }
     
-    private Date generateRandomDate() {
+    private Date generateRandomDate(RandomGenerator random) {
         Calendar cal = Calendar.getInstance();
         int year = 2000 + random.nextInt(50);
         int month = random.nextInt(12);
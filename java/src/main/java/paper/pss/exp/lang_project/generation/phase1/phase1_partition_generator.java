@@ -1,11 +1,14 @@
 package paper.pss.exp.lang_project.generation.phase1;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.io.IOException;
 import paper.pss.exp.lang_project.model.TestCase;
 import paper.pss.exp.lang_project.utils.langConfigExtractor_utils;
 import paper.pss.exp.lang_project.utils.langConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 /**
  * phase1_partition_generator.java
@@ -29,26 +32,30 @@ public class phase1_partition_generator {
     private final langConfigExtractor_utils configExtractor;
     private final List<Partition> partitions;
     private final List<Integer> partitionWeights;
-    private final Map<Integer, Integer> selectedCounts;
-    private final Random random;
+    private final PsalmAllocator_utils allocator; // 各分区的分配状态，单元编号为分区在配置中的下标
+    private final RandomGenerator random;
 
     public phase1_partition_generator() throws IOException {
         this("src/main/java/paper/pss/exp/lang_project/lang_config.json");
     }
 
     public phase1_partition_generator(String configPath) throws IOException {
+        this(configPath, new Random(ExperimentSeed_utils.DEFAULT_SEED));
+    }
+
+    /**
+     * 使用指定的随机数生成器创建生成器，分片并行构建MG域时每个分片使用各自独立的随机数流
+     */
+    public phase1_partition_generator(String configPath, RandomGenerator random) throws IOException {
         this.configExtractor = new langConfigExtractor_utils(configPath);
         this.partitions = configExtractor.getPartitions();
         this.partitionWeights = partitions.stream()
                 .map(Partition::getWeight)
                 .collect(Collectors.toList());
-        this.selectedCounts = new HashMap<>();
-        this.random = new Random();
-        
-        // 初始化选择计数
-        for (Partition partition : partitions) {
-            selectedCounts.put(partition.getId(), 0);
-        }
+        this.allocator = new PsalmAllocator_utils(partitions.stream()
+                .mapToDouble(partition -> partition.getWeight())
+                .toArray());
+        this.random = random;
         
         validateConfig();
     }
@@ -76,114 +83,104 @@ public class phase1_partition_generator {
      * 使用最大最小算法生成指定数量的测试用例
      */
     public List<TestCase> generate(int count) {
-        return allocateTestCases(count);
+        return generate(count, random);
     }
 
     /**
-     * 使用最大最小算法分配测试用例到各分区
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
      */
-    private List<TestCase> allocateTestCases(int count) {
-        // 重置选择计数
-        for (Integer partitionId : selectedCounts.keySet()) {
-            selectedCounts.put(partitionId, 0);
-        }
+    public List<TestCase> generate(int count, RandomGenerator random) {
+        return allocateTestCases(count, random);
+    }
 
-        Map<Integer, Double> samplingRates = new HashMap<>();
-        for (Partition partition : partitions) {
-            samplingRates.put(partition.getId(), 0.0);
-        }
+    /**
+     * 使用最大最小算法分配测试用例到各分区
+     */
+    private List<TestCase> allocateTestCases(int count, RandomGenerator random) {
+        int[] partitionOrder = allocatePartitions(count);
 
-        List<TestCase> testCases = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            int selectedPartition = findLowestSamplingRatePartition(samplingRates);
-            TestCase testCase = generateTestCaseInPartition(selectedPartition);
-            testCases.add(testCase);
-            
-            selectedCounts.put(selectedPartition, selectedCounts.get(selectedPartition) + 1);
-            
-            // 更新采样率
-            int partitionWeight = partitionWeights.get(selectedPartition - 1);
-            samplingRates.put(selectedPartition, 
-                (double) selectedCounts.get(selectedPartition) / partitionWeight);
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int partitionId : partitionOrder) {
+            testCases.add(generateTestCaseInPartition(partitionId, random));
         }
         return testCases;
     }
 
     /**
-     * 找到采样率最低的分区
+     * 按最大最小算法依次确定 count 个测试用例所属的分区
+     *
+     * @param count 测试用例数量
+     * @return 第 i 个元素为第 i 个测试用例的分区ID
      */
-    private int findLowestSamplingRatePartition(Map<Integer, Double> samplingRates) {
-        int selectedPartition = 1;
-        double lowestRate = Double.POSITIVE_INFINITY;
-        
-        for (Map.Entry<Integer, Double> entry : samplingRates.entrySet()) {
-            int partitionId = entry.getKey();
-            double rate = entry.getValue();
-            
-            if (rate < lowestRate) {
-                lowestRate = rate;
-                selectedPartition = partitionId;
-            } else if (rate == lowestRate && partitionId <= partitionWeights.size()) {
-                int currentWeight = partitionWeights.get(partitionId - 1);
-                int selectedWeight = partitionWeights.get(selectedPartition - 1);
-                if (currentWeight > selectedWeight) {
-                    selectedPartition = partitionId;
-                }
-            }
+    public int[] allocatePartitions(int count) {
+        // 重置选择计数
+        allocator.reset();
+
+        int[] partitionOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            // 选择采样率最低的分区，并更新其计数和采样率
+            partitionOrder[i] = partitions.get(allocator.next()).getId();
         }
-        return selectedPartition;
+        return partitionOrder;
     }
 
     /**
      * 在指定分区中生成测试用例
      */
-    private TestCase generateTestCaseInPartition(int partitionId) {
+    private TestCase generateTestCaseInPartition(int partitionId, RandomGenerator random) {
         if (partitionId < 1 || partitionId > partitions.size()) {
             throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
         
-        return generateTestCaseForPartition(partitionId);
+        return generateTestCaseForPartition(partitionId, random);
     }
 
     /**
      * 生成指定分区的测试用例
      */
     public TestCase generateTestCase(int partitionId) {
-        return generateTestCaseForPartition(partitionId);
+        return generateTestCase(partitionId, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器在指定分区中生成测试用例
+     */
+    public TestCase generateTestCase(int partitionId, RandomGenerator random) {
+        return generateTestCaseForPartition(partitionId, random);
     }
 
-    private TestCase generateTestCaseForPartition(int partitionId) {
+    private TestCase generateTestCaseForPartition(int partitionId, RandomGenerator random) {
         switch (partitionId) {
-            case 1: return generateNullTestCase();
-            case 2: return generateIdenticalDatesTestCase();
-            case 3: return generateSameYearMonthTestCase();
-            case 4: return generateSameYearDayTestCase();
-            case 5: return generateSameMonthDayTestCase();
-            case 6: return generateSameYearTestCase();
-            case 7: return generateSameMonthTestCase();
-            case 8: return generateSameDayTestCase();
-            case 9: return generateAllDifferentTestCase();
-            default: return generateRandomTestCase();
+            case 1: return generateNullTestCase(random);
+            case 2: return generateIdenticalDatesTestCase(random);
+            case 3: return generateSameYearMonthTestCase(random);
+            case 4: return generateSameYearDayTestCase(random);
+            case 5: return generateSameMonthDayTestCase(random);
+            case 6: return generateSameYearTestCase(random);
+            case 7: return generateSameMonthTestCase(random);
+            case 8: return generateSameDayTestCase(random);
+            case 9: return generateAllDifferentTestCase(random);
+            default: return generateRandomTestCase(random);
         }
     }
     
-    private TestCase generateNullTestCase() {
+    private TestCase generateNullTestCase(RandomGenerator random) {
         int nullCase = random.nextInt(3);
         if (nullCase == 0) {
             return new TestCase((Date) null, (Date) null, 1);
         } else if (nullCase == 1) {
-            return new TestCase(null, generateRandomDate(), 1);
+            return new TestCase(null, generateRandomDate(random), 1);
         } else {
-            return new TestCase(generateRandomDate(), null, 1);
+            return new TestCase(generateRandomDate(random), null, 1);
         }
     }
     
-    private TestCase generateIdenticalDatesTestCase() {
-        Date date = generateRandomDate();
+    private TestCase generateIdenticalDatesTestCase(RandomGenerator random) {
+        Date date = generateRandomDate(random);
         return new TestCase(date, new Date(date.getTime()), 2);
     }
     
-    private TestCase generateSameYearMonthTestCase() {
+    private TestCase generateSameYearMonthTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -197,7 +194,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 3);
     }
     
-    private TestCase generateSameYearDayTestCase() {
+    private TestCase generateSameYearDayTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -211,7 +208,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 4);
     }
     
-    private TestCase generateSameMonthDayTestCase() {
+    private TestCase generateSameMonthDayTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -225,7 +222,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 5);
     }
     
-    private TestCase generateSameYearTestCase() {
+    private TestCase generateSameYearTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -241,7 +238,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 6);
     }
     
-    private TestCase generateSameMonthTestCase() {
+    private TestCase generateSameMonthTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -257,7 +254,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 7);
     }
     
-    private TestCase generateSameDayTestCase() {
+    private TestCase generateSameDayTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -273,7 +270,7 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 8);
     }
     
-    private TestCase generateAllDifferentTestCase() {
+    private TestCase generateAllDifferentTestCase(RandomGenerator random) {
         Calendar cal1 = Calendar.getInstance();
         cal1.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         
@@ -287,13 +284,13 @@ public class phase1_partition_generator {
         return new TestCase(cal1.getTime(), cal2.getTime(), 9);
     }
     
-    private TestCase generateRandomTestCase() {
-        Date date1 = generateRandomDate();
-        Date date2 = generateRandomDate();
+    private TestCase generateRandomTestCase(RandomGenerator random) {
+        Date date1 = generateRandomDate(random);
+        Date date2 = generateRandomDate(random);
         return new TestCase(date1, date2, 0);
     }
     
-    private Date generateRandomDate() {
+    private Date generateRandomDate(RandomGenerator random) {
         Calendar cal = Calendar.getInstance();
         cal.set(2020 + random.nextInt(10), random.nextInt(12), 1 + random.nextInt(28));
         return cal.getTime();
@@ -1,46 +1,55 @@
 package paper.pss.exp.lang_project.generation.phase1;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 import paper.pss.exp.lang_project.model.TestCase;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 public class phase1_random_generator {
-    private static final Random random = new Random();
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
         
         for (int i = 0; i < count; i++) {
-            TestCase testCase = generateRandomTestCase();
+            TestCase testCase = generateRandomTestCase(random);
             testCases.add(testCase);
         }
         
         return testCases;
     }
     
-    private TestCase generateRandomTestCase() {
+    private TestCase generateRandomTestCase(RandomGenerator random) {
         if (random.nextDouble() < 0.1) {
-            return generateNullTestCase();
+            return generateNullTestCase(random);
         }
         
-        Date date1 = generateRandomDate();
-        Date date2 = generateRandomDate();
+        Date date1 = generateRandomDate(random);
+        Date date2 = generateRandomDate(random);
         int partitionId = determinePartitionId(date1, date2);
         
         return new TestCase(date1, date2, partitionId);
     }
     
-    private TestCase generateNullTestCase() {
+    private TestCase generateNullTestCase(RandomGenerator random) {
         int nullCase = random.nextInt(3);
         if (nullCase == 0) {
             return new TestCase((Date) null, (Date) null, 1);
         } else if (nullCase == 1) {
-            return new TestCase(null, generateRandomDate(), 1);
+            return new TestCase(null, generateRandomDate(random), 1);
         } else {
-            return new TestCase(generateRandomDate(), null, 1);
+            return new TestCase(generateRandomDate(random), null, 1);
         }
     }
     
-    private Date generateRandomDate() {
+    private Date generateRandomDate(RandomGenerator random) {
         Calendar cal = Calendar.getInstance();
         int year = 2000 + random.nextInt(50);
         int month = random.nextInt(12);
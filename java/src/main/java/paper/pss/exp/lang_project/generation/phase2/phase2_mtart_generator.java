@@ -4,9 +4,12 @@ import paper.pss.exp.lang_project.model.MetamorphicGroup;
 import paper.pss.exp.lang_project.model.TestCase;
 import paper.pss.exp.lang_project.utils.langConfigExtractor_utils;
 import paper.pss.exp.lang_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PartitionIndex_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * MT-ART生成器，基于论文策略1（优先平均距离+内部距离）实现，包含分区逻辑和全点对距离计算
@@ -15,6 +18,7 @@ public class phase2_mtart_generator {
     private final langConfigExtractor_utils configExtractor;
     private final Random random;
     private final List<MetamorphicGroup> mgDomain;
+    private final PartitionIndex_utils<MetamorphicGroup> partitionIndex; // 按源测试用例的数值排序的分区索引，构造时建立一次
     
     /**
      * 构造函数
@@ -24,8 +28,9 @@ public class phase2_mtart_generator {
      */
     public phase2_mtart_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new langConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
+        this.partitionIndex = new PartitionIndex_utils<>(mgDomain, mg -> extractValue(mg.getSourceTest()));
     }
     
     /**
@@ -44,42 +49,25 @@ public class phase2_mtart_generator {
      * @return 数值
      */
     private double extractValue(TestCase testCase) {
-        // 对于日期测试用例，使用日期的时间戳作为数值
-        if (testCase.getDate1() != null) {
-            return testCase.getDate1().getTime();
-        } else if (testCase.getDate2() != null) {
-            return testCase.getDate2().getTime();
+        // 对于日期测试用例，使用日期的时间戳作为数值（特征向量中空日期为NaN）
+        double[] features = testCase.getFeatures();
+        if (!Double.isNaN(features[0])) {
+            return features[0];
+        } else if (!Double.isNaN(features[1])) {
+            return features[1];
         } else {
             return 0.0; // 空值情况
         }
     }
     
     /**
-     * 创建等距分区
+     * 创建分区：按源测试用例的数值排序后轮流分配到各分区
      * 
-     * @param candidates 候选集合
      * @param numPartitions 分区数量
-     * @return 分区列表
+     * @return 分区列表（只读视图）
      */
-    private List<List<MetamorphicGroup>> createPartitions(List<MetamorphicGroup> candidates, int numPartitions) {
-        List<List<MetamorphicGroup>> partitions = new ArrayList<>();
-        for (int i = 0; i < numPartitions; i++) {
-            partitions.add(new ArrayList<>());
-        }
-        
-        // 按照源测试用例的数值进行排序
-        candidates.sort((a, b) -> Double.compare(
-            extractValue(a.getSourceTest()), 
-            extractValue(b.getSourceTest())
-        ));
-        
-        // 等距分配到各分区
-        for (int i = 0; i < candidates.size(); i++) {
-            int partitionIndex = i % numPartitions;
-            partitions.get(partitionIndex).add(candidates.get(i));
-        }
-        
-        return partitions;
+    private List<List<MetamorphicGroup>> createPartitions(int numPartitions) {
+        return partitionIndex.roundRobinPartitions(numPartitions);
     }
     
     /**
@@ -91,7 +79,7 @@ public class phase2_mtart_generator {
      */
     private CandidateResult selectCandidates(List<List<MetamorphicGroup>> partitions,
                                               Set<Integer> coveredPartitions,
-                                              int candidatesPerIter) {
+                                              int candidatesPerIter, RandomGenerator random) {
         List<MetamorphicGroup> candidates = new ArrayList<>();
         List<Integer> partitionIndices = new ArrayList<>();
 
@@ -161,6 +149,13 @@ public class phase2_mtart_generator {
      * @return MetamorphicGroup列表
      */
     public List<MetamorphicGroup> generate(int numSamples) {
+        return generate(numSamples, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int numSamples, RandomGenerator random) {
         int candidatesPerIter = 5;
         if (numSamples > mgDomain.size()) {
             throw new IllegalArgumentException("样本数超过MG域大小");
@@ -172,7 +167,7 @@ public class phase2_mtart_generator {
 
         // 统一创建分区（参考Python版本：num_partitions = max(1, int(num_samples * 1.5))）
         int numPartitions = Math.max(1, (int) (numSamples * 1.5));
-        List<List<MetamorphicGroup>> partitions = createPartitions(mgDomain, numPartitions);
+        List<List<MetamorphicGroup>> partitions = createPartitions(numPartitions);
 
         List<MetamorphicGroup> selected = new ArrayList<>();
         List<double[]> recentCoords = new ArrayList<>(); // 维护最近5个坐标
@@ -180,7 +175,7 @@ public class phase2_mtart_generator {
 
         for (int iteration = 0; iteration < numSamples; iteration++) {
             // 选择候选集
-            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter);
+            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter, random);
             List<MetamorphicGroup> candidates = candidateResult.candidates;
             List<Integer> partitionIndices = candidateResult.partitionIndices;
 
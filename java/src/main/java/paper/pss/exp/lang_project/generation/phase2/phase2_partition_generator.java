@@ -4,9 +4,13 @@ import paper.pss.exp.lang_project.model.MetamorphicGroup;
 import paper.pss.exp.lang_project.utils.langConfigExtractor_utils;
 import paper.pss.exp.lang_project.utils.MGDomainGenerator_utils;
 import paper.pss.exp.lang_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -20,9 +24,14 @@ public class phase2_partition_generator {
     private final List<Integer> sourcePartitionRatios;
     private final List<String> mrTypes;
     private final Map<String, List<MetamorphicGroup>> partitionMgMap;
-    private final Map<String, Integer> partitionSelectedCounts;
-    private final Map<String, Double> partitionSelectedRatio;
     private final Map<String, Integer> partitionSize;
+    // 分区-MR组合按 (分区ID, MR ID) 排序，下标即分配器中的单元编号
+    // 构造完成后只读（分配顺序缓存只会被整体替换为更长的序列），同一实例可被多个线程并发调用
+    private final List<String> cellKeys;
+    private final List<List<MetamorphicGroup>> cellMgs;
+    private final double[] cellWeights;
+    // 分配顺序缓存：第 i 个样本分配到的组合编号。分配规则是确定的，n 个样本的分配恰为该序列的前 n 项
+    private volatile int[] allocationOrder = new int[0];
     
     /**
      * 使用默认配置路径初始化分区生成器
@@ -41,7 +50,7 @@ public class phase2_partition_generator {
      */
     public phase2_partition_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new langConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
         
         // 从配置中获取分区比率和MR类型
@@ -53,22 +62,19 @@ public class phase2_partition_generator {
         this.mrTypes = MRFactory_utils.getAllRelationIds();
         
         // 构建分区映射
-        this.partitionMgMap = new HashMap<>();        
-        // 生成分区大小
-        this.partitionSelectedCounts = new HashMap<>();
-        this.partitionSelectedRatio = new HashMap<>();
-        // 初始化分区映射
-        for (MetamorphicGroup mg : mgDomain) {
-            String key = createKey(mg.getSourceTest().getPartitionId(), mg.getMRId());
-            this.partitionMgMap.computeIfAbsent(key, k -> new ArrayList<>()).add(mg);
-        }
-        // 初始化分区选择计数和比率
-        for (String key : partitionMgMap.keySet()) {
-            this.partitionSelectedCounts.put(key, 0);
-            this.partitionSelectedRatio.put(key, 0.0);
-        }
+        // 每个组合只保存MG在域中的下标，MG在抽样时才从域中读取
+        this.partitionMgMap = ColumnarMGDomain_utils.groupByKey(mgDomain,
+                mg -> createKey(mg.getSourceTest().getPartitionId(), mg.getMRId()));
         // 生成分区大小
         this.partitionSize = generatePartitionSize();
+        // 为组合编号，分配过程只操作数组
+        this.cellKeys = sortedCellKeys(partitionMgMap.keySet());
+        this.cellMgs = new ArrayList<>(cellKeys.size());
+        this.cellWeights = new double[cellKeys.size()];
+        for (int c = 0; c < cellKeys.size(); c++) {
+            cellMgs.add(partitionMgMap.get(cellKeys.get(c)));
+            cellWeights[c] = partitionSize.get(cellKeys.get(c));
+        }
     }
     
     /**
@@ -98,66 +104,109 @@ public class phase2_partition_generator {
     }
     
     /**
-     * 使用BMA算法生成指定数量的MG
+     * 按 (分区ID, MR ID) 排序组合键
+     * 
+     * @param keys 组合键
+     * @return 排序后的组合键
+     */
+    private List<String> sortedCellKeys(Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(Comparator
+                .comparingInt((String key) -> partitionMgMap.get(key).get(0).getSourceTest().getPartitionId())
+                .thenComparing(key -> partitionMgMap.get(key).get(0).getMRId()));
+        return sorted;
+    }
+    
+    /**
+     * 使用BMA算法生成指定数量的MG（使用生成器自身的随机数）
      * 
      * @param numMGs 要生成的MG数量
      * @return 生成的MG列表
      */
     public List<MetamorphicGroup> generate(int numMGs) {
-        List<MetamorphicGroup> selectedMGs = new ArrayList<>();
+        return generate(numMGs, random);
+    }
+    
+    /**
+     * 使用BMA算法生成指定数量的MG
+     * 分配顺序来自缓存，不修改生成器状态，可被多个线程并发调用
+     * 
+     * @param numMGs 要生成的MG数量
+     * @param rng 本次调用使用的随机数生成器
+     * @return 生成的MG列表
+     */
+    public List<MetamorphicGroup> generate(int numMGs, RandomGenerator rng) {
+        List<MetamorphicGroup> selectedMGs = new ArrayList<>(numMGs);
+        int[] order = allocationOrder(numMGs);
         
         for (int i = 0; i < numMGs; i++) {
-            // 找到当前采样率最低的分区-MR组合
-            String lowestRatioKey = findLowestRatioPartition();
-            
-            // 从该分区随机选择一个MG
-            List<MetamorphicGroup> candidateMGs = partitionMgMap.get(lowestRatioKey);
-            if (candidateMGs != null && !candidateMGs.isEmpty()) {
-                MetamorphicGroup selectedMG = candidateMGs.get(random.nextInt(candidateMGs.size()));
-                selectedMGs.add(selectedMG);
-                
-                // 更新选择计数和比率
-                updatePartitionStats(lowestRatioKey);
-            }
+            // 从第 i 个MG分配到的分区-MR组合中随机选择一个MG
+            List<MetamorphicGroup> candidateMGs = cellMgs.get(order[i]);
+            MetamorphicGroup selectedMG = candidateMGs.get(rng.nextInt(candidateMGs.size()));
+            selectedMGs.add(selectedMG);
         }
         
         return selectedMGs;
     }
     
     /**
-     * 找到当前采样率最低的分区-MR组合
-     * 
-     * @return 采样率最低的分区-MR组合的键
+     * 计算从初始状态开始抽取 totalSamples 个MG时，每个分区-MR组合分到的数量
+     * 与 generate 使用相同的分配顺序，但不抽取具体的MG
+     *
+     * @param totalSamples 要分配的样本总数
+     * @return 分区键 -> 分配数量（只包含分配数量大于0的组合）
      */
-    private String findLowestRatioPartition() {
-        String lowestKey = null;
-        double lowestRatio = Double.MAX_VALUE;
-        
-        for (String key : partitionMgMap.keySet()) {
-            double currentRatio = partitionSelectedRatio.get(key);
-            if (currentRatio < lowestRatio) {
-                lowestRatio = currentRatio;
-                lowestKey = key;
+    public Map<String, Integer> allocate(int totalSamples) {
+        int[] order = allocationOrder(totalSamples);
+        int[] counts = new int[cellKeys.size()];
+        for (int i = 0; i < totalSamples; i++) {
+            counts[order[i]]++;
+        }
+        Map<String, Integer> allocation = new HashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                allocation.put(cellKeys.get(c), counts[c]);
             }
         }
-        
-        return lowestKey;
+        return allocation;
     }
-    
+
     /**
-     * 更新分区统计信息
-     * 
-     * @param key 分区-MR组合的键
+     * 预先计算前 maxSamples 个样本的分配顺序，之后不超过该数量的 generate / allocate 调用都直接读取缓存
+     *
+     * @param maxSamples 最大样本数（通常为实验的最大测试用例数量）
      */
-    private void updatePartitionStats(String key) {
-        // 增加选择计数
-        int currentCount = partitionSelectedCounts.get(key);
-        partitionSelectedCounts.put(key, currentCount + 1);
-        
-        // 更新采样率
-        int partitionSizeValue = partitionSize.get(key);
-        double newRatio = (double) (currentCount + 1) / partitionSizeValue;
-        partitionSelectedRatio.put(key, newRatio);
+    public void precomputeAllocations(int maxSamples) {
+        allocationOrder(maxSamples);
+    }
+
+    /**
+     * 获取至少包含前 totalSamples 项的分配顺序，缓存不足时重新计算更长的序列
+     */
+    private int[] allocationOrder(int totalSamples) {
+        int[] order = allocationOrder;
+        if (order.length >= totalSamples) {
+            return order;
+        }
+        synchronized (this) {
+            order = allocationOrder;
+            if (order.length < totalSamples) {
+                order = new int[Math.max(totalSamples, order.length * 2)];
+                PsalmAllocator_utils allocator = new PsalmAllocator_utils(cellWeights);
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = allocator.next();
+                }
+                allocationOrder = order;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * 获取分区-MR组合到其MG列表的映射（只读）
+     */
+    public Map<String, List<MetamorphicGroup>> getPartitionMgMap() {
+        return Collections.unmodifiableMap(partitionMgMap);
     }
     
     /**
@@ -199,19 +248,25 @@ public class phase2_partition_generator {
     /**
      * 获取分区统计信息
      * 
+     * @param samples 采样得到的MG列表
      * @return 分区统计信息字符串
      */
-    public String getStatistics() {
+    public String getStatistics(List<MetamorphicGroup> samples) {
+        Map<String, Integer> selectedCounts = new HashMap<>();
+        for (MetamorphicGroup mg : samples) {
+            selectedCounts.merge(createKey(mg.getSourceTest().getPartitionId(), mg.getMRId()), 1, Integer::sum);
+        }
+        
         StringBuilder sb = new StringBuilder();
         sb.append("Partition Statistics:\n");
         
-        for (String key : partitionMgMap.keySet()) {
-            int size = partitionSize.get(key);
-            int selected = partitionSelectedCounts.get(key);
-            double ratio = partitionSelectedRatio.get(key);
+        for (int c = 0; c < cellKeys.size(); c++) {
+            int size = partitionSize.get(cellKeys.get(c));
+            int selected = selectedCounts.getOrDefault(cellKeys.get(c), 0);
+            double ratio = (double) selected / size;
             
             sb.append(String.format("Partition %s: Size=%d, Selected=%d, Ratio=%.4f\n", 
-                    key, size, selected, ratio));
+                    cellKeys.get(c), size, selected, ratio));
         }
         
         return sb.toString();
@@ -220,7 +275,7 @@ public class phase2_partition_generator {
     public static void main(String[] args) {
         try {
             // 首先生成MG域
-            MGDomainGenerator_utils domainGenerator = new MGDomainGenerator_utils(1000);
+            MGDomainGenerator_utils domainGenerator = new MGDomainGenerator_utils();
             List<MetamorphicGroup> mgDomain = domainGenerator.generateDomain();
             
             System.out.println("Generated MG domain with " + mgDomain.size() + " metamorphic groups");
@@ -236,7 +291,7 @@ public class phase2_partition_generator {
                                  ", Source Partition=" + mg.getSourceTest().getPartitionId());
             }
             
-            System.out.println("\n" + generator.getStatistics());
+            System.out.println("\n" + generator.getStatistics(samples));
         } catch (Exception e) {
             e.printStackTrace();
         }
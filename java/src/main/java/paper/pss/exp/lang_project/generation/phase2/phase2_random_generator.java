@@ -3,9 +3,11 @@ package paper.pss.exp.lang_project.generation.phase2;
 import paper.pss.exp.lang_project.model.MetamorphicGroup;
 import paper.pss.exp.lang_project.utils.langConfigExtractor_utils;
 import paper.pss.exp.lang_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * 随机均匀抽取蜕变组（MG）的生成器
@@ -33,7 +35,7 @@ public class phase2_random_generator {
      */
     public phase2_random_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new langConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
     }
     
@@ -44,6 +46,13 @@ public class phase2_random_generator {
      * @return 随机选择的MG列表
      */
     public List<MetamorphicGroup> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int count, RandomGenerator random) {
         if (count <= 0) {
             return new ArrayList<>();
         }
@@ -3,7 +3,8 @@ package paper.pss.exp.lang_project.metamorphicRelations;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.lang_project.model.MetamorphicRelation;
 import paper.pss.exp.lang_project.model.MetamorphicGroup;
@@ -15,7 +16,6 @@ import paper.pss.exp.lang_project.model.TestCase;
  * should not affect the result of isSameDay
  */
 public class MR2_relation implements MetamorphicRelation {
-    private static final Random random = new Random();
 
     @Override
     public String getId() {
@@ -29,6 +29,11 @@ public class MR2_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
         
         Date originalDate1 = sourceTest.getDate1();
@@ -39,8 +44,8 @@ public class MR2_relation implements MetamorphicRelation {
         }
         
         // Create modified dates with different time components
-        Date modifiedDate1 = createModifiedTimeDate(originalDate1);
-        Date modifiedDate2 = createModifiedTimeDate(originalDate2);
+        Date modifiedDate1 = createModifiedTimeDate(originalDate1, random);
+        Date modifiedDate2 = createModifiedTimeDate(originalDate2, random);
         
         // Generate follow-up test with modified time components
         TestCase followupTest = new TestCase(
@@ -57,7 +62,7 @@ public class MR2_relation implements MetamorphicRelation {
      * Creates a new Date with modified time components but same date
      */
     @SuppressWarnings("deprecation")
-    private Date createModifiedTimeDate(Date originalDate) {
+    private Date createModifiedTimeDate(Date originalDate, RandomGenerator random) {
         Date modifiedDate = new Date(originalDate.getTime());
         
         // Randomly modify time components
@@ -101,8 +106,13 @@ public class MR2_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         for (TestCase followupTest : followupTests) {
             groups.add(new MetamorphicGroup(
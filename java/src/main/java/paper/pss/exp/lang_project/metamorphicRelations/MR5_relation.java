@@ -4,7 +4,8 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.lang_project.model.MetamorphicRelation;
 import paper.pss.exp.lang_project.model.MetamorphicGroup;
@@ -16,7 +17,6 @@ import paper.pss.exp.lang_project.model.TestCase;
  * should not change the result of isSameDay
  */
 public class MR5_relation implements MetamorphicRelation {
-    private static final Random random = new Random();
     private static final int MAX_DAYS_TO_ADD = 365; // Maximum days to add/subtract
 
     @Override
@@ -31,6 +31,11 @@ public class MR5_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
         
         Date originalDate1 = sourceTest.getDate1();
@@ -97,8 +102,13 @@ public class MR5_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         for (TestCase followupTest : followupTests) {
             groups.add(new MetamorphicGroup(
@@ -3,6 +3,8 @@ package paper.pss.exp.lang_project.model;
 import java.util.Calendar;
 import java.util.Date;
 
+import paper.pss.exp.utils.FeatureVector;
+
 /**
  * TestCase.java
  * 
@@ -31,12 +33,13 @@ import java.util.Date;
  * 
  * For randomly generated test cases, partition ID might be 0 (unclassified)
  */
-public class TestCase {
+public class TestCase implements FeatureVector {
     private final Date date1;
     private final Date date2;
     private final Calendar cal1;
     private final Calendar cal2;
     public final int partitionId;
+    private volatile double[] features; // Cached feature vector, computed on first access
 
     /**
      * Creates a test case with Date parameters
@@ -126,6 +129,26 @@ public class TestCase {
         return partitionId;
     }
 
+    /**
+     * Gets the feature vector [date1 millis, date2 millis], computed once and cached.
+     * A null date is represented as NaN.
+     * The returned array is shared and must not be modified.
+     * 
+     * @return The feature vector
+     */
+    @Override
+    public double[] getFeatures() {
+        double[] result = features;
+        if (result == null) {
+            result = new double[] {
+                    date1 != null ? date1.getTime() : Double.NaN,
+                    date2 != null ? date2.getTime() : Double.NaN
+            };
+            features = result;
+        }
+        return result;
+    }
+
     /**
      * Formats a date object as a concise string representation
      * 
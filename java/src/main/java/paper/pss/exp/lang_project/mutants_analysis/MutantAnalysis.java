@@ -2,10 +2,10 @@ package paper.pss.exp.lang_project.mutants_analysis;
 import paper.pss.exp.lang_project.mutants.mutant1.isSameDayset;
 
 import java.io.*;
-import java.lang.reflect.Method;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -18,7 +18,14 @@ import paper.pss.exp.lang_project.model.MetamorphicGroup;
 
 // 蜕变关系 导入
 import paper.pss.exp.lang_project.model.MetamorphicRelation;
+import paper.pss.exp.lang_project.metamorphicRelations.MR1_relation;
 import paper.pss.exp.lang_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.CellScheduler_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.KillBitset_utils;
+import paper.pss.exp.utils.MutantBinding_utils;
+import paper.pss.exp.utils.MutantResultCache_utils;
+import paper.pss.exp.utils.TimeoutExecutor_utils;
 
 /**
  * 简化版突变体分析器 - Lang项目版本
@@ -31,35 +38,79 @@ import paper.pss.exp.lang_project.utils.MRFactory_utils;
 public class MutantAnalysis {
 
     private static final int TIMEOUT_SECONDS = 3;
+    private static final int TEST_CHUNK_SIZE = 256; // 每个执行单元的测试用例数，须为 64 的倍数以便按字合并杀死位集
     private static final String MUTANTS_PACKAGE = "paper.pss.exp.lang_project.mutants";
 
     // 统一的数据结构
     private List<String> mutantNames;
     private Map<String, MutantResult> mutantResults;
     private List<TestCase> testCases;
+    private final long seed; // 分析种子：测试用例以及每个突变体选择的蜕变关系和MG都由它决定
+    private final int parallelism; // 并行执行测试的线程数
+    private Path cacheDir; // 结果缓存目录，为 null 时不使用缓存
 
     public MutantAnalysis() {
+        this(ExperimentSeed_utils.DEFAULT_SEED);
+    }
+
+    public MutantAnalysis(long seed) {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param seed        分析种子
+     * @param parallelism 并行执行测试的线程数，不大于 1 时在调用线程上顺序执行
+     */
+    public MutantAnalysis(long seed, int parallelism) {
+        this.seed = seed;
+        this.parallelism = parallelism;
         this.mutantNames = new ArrayList<>();
-        this.mutantResults = new HashMap<>();
+        this.mutantResults = new LinkedHashMap<>(); // 按突变体加载顺序迭代
         this.testCases = new ArrayList<>();
     }
 
+    /**
+     * 设置结果缓存目录，字节码未变的突变体只执行缓存之后新增的测试用例
+     */
+    public void setCacheDir(Path cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
     /**
      * 突变体结果封装类
      */
     public static class MutantResult {
         public final Map<String, Object> results = new HashMap<>(); // 测试输入 -> 结果
         public final Map<String, String> statuses = new HashMap<>(); // 测试输入 -> 状态
-        public final Set<String> killedBy = new HashSet<>(); // 被哪些测试用例kill
+        public final KillBitset_utils killedBy; // 被哪些测试用例kill（按测试用例下标记录的位集）
         public final Set<String> subsumedBy = new HashSet<>(); // 被哪些突变体包含
         public final Set<String> subsumes = new HashSet<>(); // 包含哪些突变体
         public MutantType type = MutantType.NORMAL;
 
+        public MutantResult(int testCount) {
+            this.killedBy = new KillBitset_utils(testCount);
+        }
+
         public enum MutantType {
             NORMAL, EQUIVALENT, SUBSUMED, TRIVIAL, ERROR, TIMEOUT
         }
     }
 
+    /**
+     * 一个执行单元（突变体 × 测试用例分块）的结果分区，合并前只由执行该单元的线程写入
+     */
+    private static class TestChunkResult {
+        final Map<String, Object> results = new HashMap<>();
+        final Map<String, String> statuses = new HashMap<>();
+        final KillBitset_utils kills; // 按分块内的下标记录
+        MutantResult.MutantType type; // 分块内最后一次出现的超时/错误类型
+        Exception failure;
+
+        TestChunkResult(int testCount) {
+            this.kills = new KillBitset_utils(testCount);
+        }
+    }
+
     /**
      * 生成测试用例（使用随机生成器）
      * 
@@ -68,7 +119,7 @@ public class MutantAnalysis {
     public void generateTestCases(int count) {
         // 使用random_generator生成随机测试用例
         phase1_random_generator generator = new phase1_random_generator();
-        testCases = generator.generate(count);
+        testCases = generator.generate(count, new SplittableRandom(seed));
     }
 
     /**
@@ -121,71 +172,51 @@ public class MutantAnalysis {
         }
         // 2. 批量执行突变体
         System.out.println("批量执行突变体测试...");
+        // 结果缓存：字节码未变的突变体复用缓存中的结果，只执行测试集中新增的测试用例
+        List<String> testKeys = new ArrayList<>();
+        for (TestCase testCase : testCases) {
+            testKeys.add(getTestCaseKey(testCase));
+        }
+        MutantResultCache_utils cache = null;
+        if (cacheDir != null) {
+            try {
+                // 判定逻辑和超时设置在本类中，蜕变关系和测试用例模型在各自的包中，修改后全部缓存失效
+                String analysisHash = MutantResultCache_utils.analysisHash(
+                        List.of(MutantAnalysis.class, MRFactory_utils.class),
+                        List.of(MR1_relation.class.getPackageName(), MetamorphicRelation.class.getPackageName()));
+                cache = new MutantResultCache_utils(cacheDir, seed, analysisHash, testKeys);
+            } catch (IOException e) {
+                System.err.println("无法打开结果缓存: " + e.getMessage());
+            }
+        }
+
+        // 先加载全部突变体，加载失败的突变体直接记为 ERROR，不参与执行
+        List<String> boundNames = new ArrayList<>();
+        List<String> boundHashes = new ArrayList<>();
+        List<Integer> boundStarts = new ArrayList<>(); // 每个突变体需要执行的第一个测试用例下标
+        List<BiPredicate<java.util.Date, java.util.Date>> boundMutants = new ArrayList<>();
         for (String mutantName : mutantNames) {
-            MutantResult result = new MutantResult();
+            MutantResult result = new MutantResult(testCases.size());
             mutantResults.put(mutantName, result);
-
             try {
                 // 直接通过类名加载
                 String className = MUTANTS_PACKAGE + "." + mutantName + ".isSameDayset";
-                Class<?> mutantClass = Class.forName(className);
-                Method mutantMethod = mutantClass.getMethod("isSameDay", java.util.Date.class, java.util.Date.class);
-
-                // 执行所有测试用例
-                for (TestCase testCase : testCases) {
-                    // 执行突变体
-                    Object sourceResult = executeWithTimeout(mutantMethod, testCase);
-                    // // 执行原始方法作为对比 - 也需要通过executeWithTimeout处理异常
-                    // Method originalMethod = isSameDayset.class.getMethod("isSameDay", java.util.Date.class, java.util.Date.class);
-                    // Object originalResult = executeWithTimeout(originalMethod, testCase);
-                    // 得到所有的蜕变关系
-                    List<MetamorphicRelation> relations = MRFactory_utils.getApplicableRelations(testCase);
-                    if (relations.isEmpty()) {
-                        // 如果没有适用的蜕变关系，跳过这个测试用例
-                        continue;
-                    }
-                    // 随机选择一个蜕变关系
-                    MetamorphicRelation relation = relations.get(new Random().nextInt(relations.size()));
-                    // 从选择的蜕变关系中生成所有的MG
-                    List<MetamorphicGroup> groups = relation.createGroups(testCase);
-                    if (groups.isEmpty()) {
-                        // 如果没有生成的蜕变组，跳过这个测试用例
-                        continue;
-                    }
-                    // 随机选择一个MG
-                    MetamorphicGroup group = groups.get(new Random().nextInt(groups.size()));
-                    // 得到后续测试用例的输出
-                    Object followupResult = executeWithTimeout(mutantMethod, group.getFollowupTest());
-                    
-                    String testCaseKey = getTestCaseKey(testCase);
-                    
-                    if ((sourceResult instanceof TimeoutException) || (followupResult instanceof TimeoutException)) {
-                        result.statuses.put(testCaseKey, "timeout");
-                        // 不在这里直接设置TIMEOUT类型，在analyzeMutants中统一处理
-                    } else if ((sourceResult instanceof IllegalArgumentException) || (followupResult instanceof IllegalArgumentException)) {
-                        // IllegalArgumentException（如null参数）视为正常的测试结果，不是错误
-                        result.statuses.put(testCaseKey, "success");
-                        result.results.put(testCaseKey, sourceResult instanceof IllegalArgumentException ? sourceResult : followupResult);
-                        // 对于IllegalArgumentException，不进行蜕变关系验证
-                    } else if ((sourceResult instanceof Exception) || (followupResult instanceof Exception)) {
-                        result.statuses.put(testCaseKey, "error");
-                        result.results.put(testCaseKey, " exception error");
-                        // 不在这里直接设置ERROR类型，在analyzeMutants中统一处理
-                    } else {
-                        result.statuses.put(testCaseKey, "success");
-                        result.results.put(testCaseKey, sourceResult);
-                        // 验证 group是否满足蜕变关系
-                        if (sourceResult instanceof Boolean && followupResult instanceof Boolean) {
-                            if (!relation.verifyRelation(group.getSourceTest(), group.getFollowupTest(),
-                                    (Boolean) sourceResult, (Boolean) followupResult, "", "")) {
-                                result.killedBy.add(testCaseKey);
-                            }
-                        }
-                    }
+                BiPredicate<java.util.Date, java.util.Date> mutant = MutantBinding_utils.bind(className, "isSameDay", BiPredicate.class, java.util.Date.class, java.util.Date.class);
+                String bytecodeHash = cache != null ? MutantResultCache_utils.packageHash(MUTANTS_PACKAGE + "." + mutantName) : null;
+                MutantResultCache_utils.Entry cached = cache != null ? cache.load(mutantName, bytecodeHash) : null;
+                int start = 0;
+                if (cached != null) {
+                    restoreCached(result, cached);
+                    start = cached.testCount;
                 }
-
-                System.out.println(mutantName + ": " + result.killedBy.size() + " kills");
-
+                if (start == testCases.size()) {
+                    System.out.println(mutantName + ": " + result.killedBy.size() + " kills (缓存)");
+                    continue;
+                }
+                boundNames.add(mutantName);
+                boundMutants.add(mutant);
+                boundHashes.add(bytecodeHash);
+                boundStarts.add(start);
             } catch (ClassNotFoundException e) {
                 System.err.println("无法加载突变体: " + mutantName);
                 result.type = MutantResult.MutantType.ERROR;
@@ -194,6 +225,160 @@ public class MutantAnalysis {
                 result.type = MutantResult.MutantType.ERROR;
             }
         }
+
+        // 执行单元 = 突变体 × 测试用例分块，每个单元只写入自己的结果分区
+        int chunkCount = (testCases.size() + TEST_CHUNK_SIZE - 1) / TEST_CHUNK_SIZE;
+        TestChunkResult[] chunks = new TestChunkResult[boundNames.size() * chunkCount];
+        CellScheduler_utils.CellBody body = cell -> {
+            int mutantIndex = cell / chunkCount;
+            int chunkStart = (cell % chunkCount) * TEST_CHUNK_SIZE;
+            int from = Math.max(chunkStart, boundStarts.get(mutantIndex));
+            int to = Math.min(chunkStart + TEST_CHUNK_SIZE, testCases.size());
+            TestChunkResult chunk = new TestChunkResult(to - chunkStart);
+            chunks[cell] = chunk;
+            executeTestChunk(boundNames.get(mutantIndex), boundMutants.get(mutantIndex), chunkStart, from, to, chunk);
+        };
+        CellScheduler_utils.CellErrorHandler onError = (cell, e) -> chunks[cell].failure = e;
+        if (parallelism > 1 && chunks.length > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                CellScheduler_utils.runCells(pool, chunks.length, body, onError);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (int cell = 0; cell < chunks.length; cell++) {
+                try {
+                    body.run(cell);
+                } catch (Exception e) {
+                    onError.onError(cell, e);
+                }
+            }
+        }
+
+        // 按突变体顺序、分块顺序合并分区，结果与顺序执行相同，与线程调度无关
+        for (int mutantIndex = 0; mutantIndex < boundNames.size(); mutantIndex++) {
+            String mutantName = boundNames.get(mutantIndex);
+            MutantResult result = mutantResults.get(mutantName);
+            boolean failed = false;
+            for (int c = 0; c < chunkCount && !failed; c++) {
+                TestChunkResult chunk = chunks[mutantIndex * chunkCount + c];
+                result.results.putAll(chunk.results);
+                result.statuses.putAll(chunk.statuses);
+                result.killedBy.addAll(chunk.kills, c * TEST_CHUNK_SIZE);
+                if (chunk.type != null) {
+                    result.type = chunk.type;
+                }
+                if (chunk.failure != null) {
+                    // 与顺序执行一致：抛出异常之后的测试用例不再计入
+                    System.err.println("突变体执行失败: " + mutantName + " -> " + chunk.failure.getMessage());
+                    result.type = MutantResult.MutantType.ERROR;
+                    failed = true;
+                }
+            }
+            if (!failed) {
+                System.out.println(mutantName + ": " + result.killedBy.size() + " kills");
+                if (cache != null) {
+                    storeCached(cache, mutantName, boundHashes.get(mutantIndex), result);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在一个突变体上执行下标为 [from, to) 的测试用例，结果写入该单元的分区，杀死下标相对分块起点 chunkStart 记录
+     */
+    private void executeTestChunk(String mutantName, BiPredicate<java.util.Date, java.util.Date> mutant, int chunkStart, int from, int to, TestChunkResult chunk) {
+        for (int testIndex = from; testIndex < to; testIndex++) {
+            // 随机数流由种子、突变体名和测试用例下标决定
+            SplittableRandom random = testRandom(mutantName, testIndex);
+            TestCase testCase = testCases.get(testIndex);
+            // 执行突变体
+            Object sourceResult = executeWithTimeout(mutant, testCase);
+            // // 执行原始方法作为对比 - 也需要通过executeWithTimeout处理异常
+            // Method originalMethod = isSameDayset.class.getMethod("isSameDay", java.util.Date.class, java.util.Date.class);
+            // Object originalResult = executeWithTimeout(originalMethod, testCase);
+            // 得到所有的蜕变关系
+            List<MetamorphicRelation> relations = MRFactory_utils.getApplicableRelations(testCase);
+            if (relations.isEmpty()) {
+                // 如果没有适用的蜕变关系，跳过这个测试用例
+                continue;
+            }
+            // 随机选择一个蜕变关系
+            MetamorphicRelation relation = relations.get(random.nextInt(relations.size()));
+            // 从选择的蜕变关系中生成所有的MG
+            List<MetamorphicGroup> groups = relation.createGroups(testCase, random);
+            if (groups.isEmpty()) {
+                // 如果没有生成的蜕变组，跳过这个测试用例
+                continue;
+            }
+            // 随机选择一个MG
+            MetamorphicGroup group = groups.get(random.nextInt(groups.size()));
+            // 得到后续测试用例的输出
+            Object followupResult = executeWithTimeout(mutant, group.getFollowupTest());
+
+            String testCaseKey = getTestCaseKey(testCase);
+
+            if ((sourceResult instanceof TimeoutException) || (followupResult instanceof TimeoutException)) {
+                chunk.statuses.put(testCaseKey, "timeout");
+                // 不在这里直接设置TIMEOUT类型，在analyzeMutants中统一处理
+            } else if ((sourceResult instanceof IllegalArgumentException) || (followupResult instanceof IllegalArgumentException)) {
+                // IllegalArgumentException（如null参数）视为正常的测试结果，不是错误
+                chunk.statuses.put(testCaseKey, "success");
+                chunk.results.put(testCaseKey, sourceResult instanceof IllegalArgumentException ? sourceResult : followupResult);
+                // 对于IllegalArgumentException，不进行蜕变关系验证
+            } else if ((sourceResult instanceof Exception) || (followupResult instanceof Exception)) {
+                chunk.statuses.put(testCaseKey, "error");
+                chunk.results.put(testCaseKey, " exception error");
+                // 不在这里直接设置ERROR类型，在analyzeMutants中统一处理
+            } else {
+                chunk.statuses.put(testCaseKey, "success");
+                chunk.results.put(testCaseKey, sourceResult);
+                // 验证 group是否满足蜕变关系
+                if (sourceResult instanceof Boolean && followupResult instanceof Boolean) {
+                    if (!relation.verifyRelation(group.getSourceTest(), group.getFollowupTest(),
+                            (Boolean) sourceResult, (Boolean) followupResult, "", "")) {
+                        chunk.kills.add(testIndex - chunkStart);
+                    }
+                }
+            }
+        }
+    }
+
+    // 突变体执行第 testIndex 个测试用例时使用的随机数流，与单元划分方式和执行顺序无关
+    private SplittableRandom testRandom(String mutantName, int testIndex) {
+        return new SplittableRandom((seed ^ mutantName.hashCode()) * 0xBF58476D1CE4E5B9L + testIndex);
+    }
+
+    // 将缓存的结果并入突变体结果
+    private void restoreCached(MutantResult result, MutantResultCache_utils.Entry cached) {
+        result.statuses.putAll(cached.statuses);
+        result.results.putAll(cached.results);
+        for (int testIndex : cached.kills) {
+            result.killedBy.add(testIndex);
+        }
+        if (cached.type != null) {
+            result.type = MutantResult.MutantType.valueOf(cached.type);
+        }
+    }
+
+    // 保存突变体在当前测试集上的结果，结果只用于输出，按字符串形式保存
+    private void storeCached(MutantResultCache_utils cache, String mutantName, String bytecodeHash, MutantResult result) {
+        Map<String, String> results = new LinkedHashMap<>();
+        result.results.forEach((key, value) -> results.put(key, String.valueOf(value)));
+        List<Integer> kills = new ArrayList<>();
+        for (int testIndex = 0; testIndex < testCases.size(); testIndex++) {
+            if (result.killedBy.contains(testIndex)) {
+                kills.add(testIndex);
+            }
+        }
+        String type = result.type == MutantResult.MutantType.NORMAL ? null : result.type.name();
+        try {
+            cache.store(mutantName, bytecodeHash, new MutantResultCache_utils.Entry(testCases.size(),
+                    new LinkedHashMap<>(result.statuses), results, kills, type));
+        } catch (IOException e) {
+            System.err.println("保存结果缓存失败: " + mutantName + " -> " + e.getMessage());
+        }
     }
 
     /**
@@ -208,13 +393,15 @@ public class MutantAnalysis {
     /**
      * 带超时的执行方法
      */
-    private Object executeWithTimeout(Method method, TestCase testCase) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+    private Object executeWithTimeout(BiPredicate<java.util.Date, java.util.Date> mutant, TestCase testCase) {
         try {
-            Future<Object> future = executor.submit(() -> method.invoke(null, testCase.getDate1(), testCase.getDate2()));
-            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return TimeoutExecutor_utils.shared().call(() -> mutant.test(testCase.getDate1(), testCase.getDate2()),
+                    TIMEOUT_SECONDS, TimeUnit.SECONDS);
         } catch (TimeoutException e) {
             return e;
+        } catch (RejectedExecutionException e) {
+            // 没有可用的执行线程，不是突变体本身的行为，不能记为该测试用例的结果
+            throw e;
         } catch (Exception e) {
             // 解包嵌套异常，获取真正的根本原因
             Throwable cause = e;
@@ -222,21 +409,19 @@ public class MutantAnalysis {
                 cause = cause.getCause();
             }
             return cause;
-        } finally {
-            executor.shutdownNow();
         }
     }
 
     /**
      * 不带超时的执行方法，方便调试
      */
-    private Object executeWithoutTimeout(Method method, TestCase testCase) {
+    private Object executeWithoutTimeout(BiPredicate<java.util.Date, java.util.Date> mutant, TestCase testCase) {
         try {
-            // 直接调用反射方法
-            return method.invoke(null, testCase.getDate1(), testCase.getDate2());
+            // 直接调用绑定后的突变体函数
+            return mutant.test(testCase.getDate1(), testCase.getDate2());
         } catch (Exception e) {
             // 捕获并打印异常，方便调试
-            System.err.println("执行反射方法时出错：" + e.getMessage());
+            System.err.println("执行突变体方法时出错：" + e.getMessage());
             e.printStackTrace(); // 打印堆栈跟踪，帮助定位问题
             return e;
         }
@@ -296,34 +481,24 @@ public class MutantAnalysis {
             }
         }
 
-        // 检查包含关系 - 两轮检查确保完整性
+        // 单遍检查包含关系：杀死A的测试用例都杀死B，且B被更多测试用例杀死时，A包含B。
+        // 包含关系只由杀死位集决定，与突变体类型无关，不需要多轮迭代
         System.out.println("检查包含关系...");
-        for (int round = 1; round <= 2; round++) {
-            System.out.println("第" + round + "轮包含关系检查");
-            for (int i = 0; i < mutantNames.size(); i++) {
-                String mutantA = mutantNames.get(i);
-                MutantResult resultA = mutantResults.get(mutantA);
-                // 只对NORMAL类型的突变体进行包含关系检查
-                if (resultA.type != MutantResult.MutantType.NORMAL)
-                    continue;
-                for (int j = 0; j < mutantNames.size(); j++) {
-                    if (i == j)
-                        continue;
-                    String mutantB = mutantNames.get(j);
-                    MutantResult resultB = mutantResults.get(mutantB);
-                    // 只与NORMAL类型的突变体比较
-                    if (resultB.type != MutantResult.MutantType.NORMAL)
-                        continue;
-                    // 如果A包含B（B的所有kill都被A包含，且A的kill数量更少），则A包含B
-                    if (!resultB.killedBy.isEmpty() && resultA.killedBy.containsAll(resultB.killedBy) && resultA.killedBy.size() < resultB.killedBy.size()) {
-                        resultB.type = MutantResult.MutantType.SUBSUMED;
-                        resultB.subsumedBy.add(mutantA);
-                        resultA.subsumes.add(mutantB);
-                        System.out.println(mutantA + " 包含 " + mutantB);
-                        break;
-                    }
-                }
-            }
+        List<String> candidateMutants = mutantNames.stream()
+                .filter(name -> mutantResults.get(name).type == MutantResult.MutantType.NORMAL)
+                .collect(Collectors.toList());
+        List<KillBitset_utils> killSets = candidateMutants.stream()
+                .map(name -> mutantResults.get(name).killedBy)
+                .collect(Collectors.toList());
+        for (int[] pair : KillBitset_utils.strictSubsetPairs(killSets)) {
+            String mutantA = candidateMutants.get(pair[0]);
+            String mutantB = candidateMutants.get(pair[1]);
+            MutantResult resultA = mutantResults.get(mutantA);
+            MutantResult resultB = mutantResults.get(mutantB);
+            resultB.type = MutantResult.MutantType.SUBSUMED;
+            resultB.subsumedBy.add(mutantA);
+            resultA.subsumes.add(mutantB);
+            System.out.println(mutantA + " 包含 " + mutantB);
         }
     }
 
@@ -542,6 +717,7 @@ public class MutantAnalysis {
             System.out.println("🚀 开始简化版突变体分析...");
 
             MutantAnalysis analyzer = new MutantAnalysis();
+            analyzer.setCacheDir(Paths.get("src/main/java/paper/pss/exp/lang_project/mutants_analysis/mutant_cache"));
             int testCaseCount = 1000; // 默认值
             System.out.println("将生成 " + testCaseCount + " 个随机测试用例");
 
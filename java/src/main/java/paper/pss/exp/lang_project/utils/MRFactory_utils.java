@@ -2,6 +2,8 @@ package paper.pss.exp.lang_project.utils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.lang_project.model.MetamorphicRelation;
 import paper.pss.exp.lang_project.metamorphicRelations.MR1_relation;
@@ -70,11 +72,22 @@ public class MRFactory_utils {
      * @return List of all metamorphic groups generated from applicable relations
      */
     public static List<MetamorphicGroup> generateAllGroups(TestCase sourceTest) {
+        return generateAllGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generate all metamorphic groups for a given test case, drawing the random
+     * parameters of every relation from the given generator
+     * @param sourceTest The source test case
+     * @param random The random generator owned by the caller
+     * @return List of all generated metamorphic groups
+     */
+    public static List<MetamorphicGroup> generateAllGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> allGroups = new ArrayList<>();
         List<MetamorphicRelation> applicableRelations = getApplicableRelations(sourceTest);
         
         for (MetamorphicRelation relation : applicableRelations) {
-            allGroups.addAll(relation.createGroups(sourceTest));
+            allGroups.addAll(relation.createGroups(sourceTest, random));
         }
         
         return allGroups;
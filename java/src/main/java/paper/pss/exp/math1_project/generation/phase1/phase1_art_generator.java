@@ -3,7 +3,10 @@ package paper.pss.exp.math1_project.generation.phase1;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 import paper.pss.exp.math1_project.model.TestCase;
+import paper.pss.exp.utils.ArtIndex_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 /**
  * phase1_art_generator.java
@@ -19,7 +22,7 @@ import paper.pss.exp.math1_project.model.TestCase;
  */
 public class phase1_art_generator {
 
-    private static final Random random = new Random(System.currentTimeMillis());
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     private final int candidateNum;
 
     // Constants for array length ranges
@@ -33,90 +36,85 @@ public class phase1_art_generator {
     // Tolerance for equality comparisons
     private static final double EPSILON = 0.0001;
 
+    // 特征向量各维度在距离中的下界权重（长度距离 + 0.1 × 平均值距离），用于最近邻索引剪枝
+    private static final double[] FEATURE_WEIGHTS = { 1.0, 1.0, 0.1, 0.1 };
+
     public phase1_art_generator() {
         this.candidateNum = 10;
     }
 
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
+        // 已选测试用例的特征向量索引，用最近邻查询代替与所有已有用例逐一比较
+        ArtIndex_utils index = new ArtIndex_utils(FEATURE_WEIGHTS, this::featureDistance);
 
         // Step 1: generate the first random test case
-        TestCase firstTestCase = generateRandomTestCase();
+        TestCase firstTestCase = generateRandomTestCase(random);
         testCases.add(firstTestCase);
+        index.add(features(firstTestCase));
 
         // Step 2: generate remaining test cases using ART strategy
         while (testCases.size() < count) {
             TestCase bestCandidate = null;
+            double[] bestFeatures = null;
             double bestMinDist = -1;
 
             for (int i = 0; i < candidateNum; i++) {
-                TestCase candidate = generateRandomTestCase();
-
-                double minDist = Double.MAX_VALUE;
-                for (TestCase existing : testCases) {
-                    double dist = distance(candidate, existing);
-                    if (dist < minDist) {
-                        minDist = dist;
-                    }
-                }
+                TestCase candidate = generateRandomTestCase(random);
+                double[] candidateFeatures = features(candidate);
+
+                double minDist = index.nearestDistance(candidateFeatures);
 
                 if (minDist > bestMinDist) {
                     bestMinDist = minDist;
                     bestCandidate = candidate;
+                    bestFeatures = candidateFeatures;
                 }
             }
 
             testCases.add(bestCandidate);
+            index.add(bestFeatures);
         }
 
         return testCases;
     }
 
+    /**
+     * 测试用例的特征向量: [x长度, h长度, x平均值, h平均值, x方差, h方差]
+     * 缓存在测试用例上；距离计算与索引只使用前4个分量
+     */
+    private double[] features(TestCase testCase) {
+        return testCase.getFeatures();
+    }
+
     /**
      * 计算两个测试用例之间的距离
      * 使用数组长度和数组元素值的欧几里得距离
      */
-    private double distance(TestCase a, TestCase b) {
-        double[] xA = a.getX();
-        double[] hA = a.getH();
-        double[] xB = b.getX();
-        double[] hB = b.getH();
-        
+    private double featureDistance(double[] a, double[] b) {
         // 计算长度距离
-        double lengthDist = Math.sqrt(Math.pow(xA.length - xB.length, 2) + Math.pow(hA.length - hB.length, 2));
-        
+        double lengthDist = Math.sqrt(Math.pow(a[0] - b[0], 2) + Math.pow(a[1] - b[1], 2));
+
         // 计算数组元素的平均值距离
-        double avgXA = calculateAverage(xA);
-        double avgHA = calculateAverage(hA);
-        double avgXB = calculateAverage(xB);
-        double avgHB = calculateAverage(hB);
-        
-        double avgDist = Math.sqrt(Math.pow(avgXA - avgXB, 2) + Math.pow(avgHA - avgHB, 2));
-        
+        double avgDist = Math.sqrt(Math.pow(a[2] - b[2], 2) + Math.pow(a[3] - b[3], 2));
+
         // 组合距离（长度距离权重更大）
         return lengthDist + avgDist * 0.1;
     }
 
-    /**
-     * 计算数组的平均值
-     */
-    private double calculateAverage(double[] array) {
-        if (array.length == 0) {
-            return 0.0;
-        }
-        double sum = 0.0;
-        for (double value : array) {
-            sum += value;
-        }
-        return sum / array.length;
-    }
-
     /**
      * 生成一个随机测试用例
      */
-    private TestCase generateRandomTestCase() {
-        double[] x = generateRandomArray();
-        double[] h = generateRandomArray();
+    private TestCase generateRandomTestCase(RandomGenerator random) {
+        double[] x = generateRandomArray(random);
+        double[] h = generateRandomArray(random);
         int partitionId = determinePartitionId(x, h);
         return new TestCase(x, h, partitionId);
     }
@@ -124,7 +122,7 @@ public class phase1_art_generator {
     /**
      * 生成一个随机数组
      */
-    private double[] generateRandomArray() {
+    private double[] generateRandomArray(RandomGenerator random) {
         // 随机决定数组长度（包括0长度的可能性）
         int length = random.nextInt(LENGTH_MAX + 1); // 0 到 LENGTH_MAX
         
@@ -3,10 +3,13 @@ package paper.pss.exp.math1_project.generation.phase1;
 import paper.pss.exp.math1_project.model.TestCase;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
 /**
  * phase1_partition_generator.java
@@ -25,7 +28,7 @@ public class phase1_partition_generator {
     private final Math1ConfigExtractor_utils configExtractor;
     private final List<Partition> partitions;
     private final List<Double> partitionWeights;
-    private final Map<Integer, Integer> selectedCounts;
+    private final PsalmAllocator_utils allocator; // 各分区的分配状态，单元编号为分区在配置中的下标
     private final Random random;
 
     // Constants for array length ranges
@@ -48,13 +51,10 @@ public class phase1_partition_generator {
         this.partitionWeights = partitions.stream()
                 .map(Partition::getWeight)
                 .collect(Collectors.toList());
-        this.selectedCounts = new HashMap<>();
-        this.random = new Random();
-        
-        // 初始化选择计数
-        for (Partition partition : partitions) {
-            selectedCounts.put(partition.getId(), 0);
-        }
+        this.allocator = new PsalmAllocator_utils(partitions.stream()
+                .mapToDouble(partition -> partition.getWeight())
+                .toArray());
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         
         validateConfig();
     }
@@ -82,68 +82,36 @@ public class phase1_partition_generator {
      * 使用最大最小算法生成指定数量的测试用例
      */
     public List<TestCase> generate(int count) {
-        return allocateTestCases(count);
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
+        return allocateTestCases(count, random);
     }
 
     /**
      * 使用最大最小算法分配测试用例到各分区
      */
-    private List<TestCase> allocateTestCases(int count) {
+    private List<TestCase> allocateTestCases(int count, RandomGenerator random) {
         // 重置选择计数
-        for (Integer partitionId : selectedCounts.keySet()) {
-            selectedCounts.put(partitionId, 0);
-        }
-
-        Map<Integer, Double> samplingRates = new HashMap<>();
-        for (Partition partition : partitions) {
-            samplingRates.put(partition.getId(), 0.0);
-        }
+        allocator.reset();
 
         List<TestCase> testCases = new ArrayList<>();
         for (int i = 0; i < count; i++) {
-            int selectedPartition = findLowestSamplingRatePartition(samplingRates);
-            TestCase testCase = generateTestCaseInPartition(selectedPartition);
-            testCases.add(testCase);
-            
-            selectedCounts.put(selectedPartition, selectedCounts.get(selectedPartition) + 1);
-            
-            // 更新采样率
-            double partitionWeight = partitionWeights.get(selectedPartition - 1);
-            samplingRates.put(selectedPartition, 
-                (double) selectedCounts.get(selectedPartition) / partitionWeight);
+            // 选择采样率最低的分区，并更新其计数和采样率
+            int selectedPartition = partitions.get(allocator.next()).getId();
+            testCases.add(generateTestCaseInPartition(selectedPartition, random));
         }
         return testCases;
     }
 
-    /**
-     * 找到采样率最低的分区
-     */
-    private int findLowestSamplingRatePartition(Map<Integer, Double> samplingRates) {
-        int selectedPartition = 1;
-        double lowestRate = Double.POSITIVE_INFINITY;
-        
-        for (Map.Entry<Integer, Double> entry : samplingRates.entrySet()) {
-            int partitionId = entry.getKey();
-            double rate = entry.getValue();
-            
-            if (rate < lowestRate) {
-                lowestRate = rate;
-                selectedPartition = partitionId;
-            } else if (rate == lowestRate && partitionId <= partitionWeights.size()) {
-                double currentWeight = partitionWeights.get(partitionId - 1);
-                double selectedWeight = partitionWeights.get(selectedPartition - 1);
-                if (currentWeight > selectedWeight) {
-                    selectedPartition = partitionId;
-                }
-            }
-        }
-        return selectedPartition;
-    }
-
     /**
      * 在指定分区中生成测试用例
      */
-    private TestCase generateTestCaseInPartition(int partitionId) {
+    private TestCase generateTestCaseInPartition(int partitionId, RandomGenerator random) {
         if (partitionId < 1 || partitionId > 12) {
             throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
@@ -151,63 +119,63 @@ public class phase1_partition_generator {
         double[] x, h;
         switch (partitionId) {
             case 1: // P1_P4: len(x) > len(h), 两数组均全正
-                double[][] arrays1 = generateArraysWithLengthRelation("x_longer");
+                double[][] arrays1 = generateArraysWithLengthRelation("x_longer", random);
                 x = makeAllPositive(arrays1[0]);
                 h = makeAllPositive(arrays1[1]);
                 break;
             case 2: // P1_P5: len(x) > len(h), 两数组均不全正
-                double[][] arrays2 = generateArraysWithLengthRelation("x_longer");
-                x = makeNotAllPositive(arrays2[0]);
-                h = makeNotAllPositive(arrays2[1]);
+                double[][] arrays2 = generateArraysWithLengthRelation("x_longer", random);
+                x = makeNotAllPositive(arrays2[0], random);
+                h = makeNotAllPositive(arrays2[1], random);
                 break;
             case 3: // P1_P6: len(x) > len(h), x全正, h不全正
-                double[][] arrays3 = generateArraysWithLengthRelation("x_longer");
+                double[][] arrays3 = generateArraysWithLengthRelation("x_longer", random);
                 x = makeAllPositive(arrays3[0]);
-                h = makeNotAllPositive(arrays3[1]);
+                h = makeNotAllPositive(arrays3[1], random);
                 break;
             case 4: // P1_P7: len(x) > len(h), x不全正, h全正
-                double[][] arrays4 = generateArraysWithLengthRelation("x_longer");
-                x = makeNotAllPositive(arrays4[0]);
+                double[][] arrays4 = generateArraysWithLengthRelation("x_longer", random);
+                x = makeNotAllPositive(arrays4[0], random);
                 h = makeAllPositive(arrays4[1]);
                 break;
             case 5: // P2_P4: len(x) < len(h), 两数组均全正
-                double[][] arrays5 = generateArraysWithLengthRelation("h_longer");
+                double[][] arrays5 = generateArraysWithLengthRelation("h_longer", random);
                 x = makeAllPositive(arrays5[0]);
                 h = makeAllPositive(arrays5[1]);
                 break;
             case 6: // P2_P5: len(x) < len(h), 两数组均不全正
-                double[][] arrays6 = generateArraysWithLengthRelation("h_longer");
-                x = makeNotAllPositive(arrays6[0]);
-                h = makeNotAllPositive(arrays6[1]);
+                double[][] arrays6 = generateArraysWithLengthRelation("h_longer", random);
+                x = makeNotAllPositive(arrays6[0], random);
+                h = makeNotAllPositive(arrays6[1], random);
                 break;
             case 7: // P2_P6: len(x) < len(h), x全正, h不全正
-                double[][] arrays7 = generateArraysWithLengthRelation("h_longer");
+                double[][] arrays7 = generateArraysWithLengthRelation("h_longer", random);
                 x = makeAllPositive(arrays7[0]);
-                h = makeNotAllPositive(arrays7[1]);
+                h = makeNotAllPositive(arrays7[1], random);
                 break;
             case 8: // P2_P7: len(x) < len(h), x不全正, h全正
-                double[][] arrays8 = generateArraysWithLengthRelation("h_longer");
-                x = makeNotAllPositive(arrays8[0]);
+                double[][] arrays8 = generateArraysWithLengthRelation("h_longer", random);
+                x = makeNotAllPositive(arrays8[0], random);
                 h = makeAllPositive(arrays8[1]);
                 break;
             case 9: // P3_P4: len(x) = len(h), 两数组均全正
-                double[][] arrays9 = generateArraysWithLengthRelation("equal");
+                double[][] arrays9 = generateArraysWithLengthRelation("equal", random);
                 x = makeAllPositive(arrays9[0]);
                 h = makeAllPositive(arrays9[1]);
                 break;
             case 10: // P3_P5: len(x) = len(h), 两数组均不全正
-                double[][] arrays10 = generateArraysWithLengthRelation("equal");
-                x = makeNotAllPositive(arrays10[0]);
-                h = makeNotAllPositive(arrays10[1]);
+                double[][] arrays10 = generateArraysWithLengthRelation("equal", random);
+                x = makeNotAllPositive(arrays10[0], random);
+                h = makeNotAllPositive(arrays10[1], random);
                 break;
             case 11: // P3_P6: len(x) = len(h), x全正, h不全正
-                double[][] arrays11 = generateArraysWithLengthRelation("equal");
+                double[][] arrays11 = generateArraysWithLengthRelation("equal", random);
                 x = makeAllPositive(arrays11[0]);
-                h = makeNotAllPositive(arrays11[1]);
+                h = makeNotAllPositive(arrays11[1], random);
                 break;
             case 12: // P3_P7: len(x) = len(h), x不全正, h全正
-                double[][] arrays12 = generateArraysWithLengthRelation("equal");
-                x = makeNotAllPositive(arrays12[0]);
+                double[][] arrays12 = generateArraysWithLengthRelation("equal", random);
+                x = makeNotAllPositive(arrays12[0], random);
                 h = makeAllPositive(arrays12[1]);
                 break;
             default:
@@ -220,26 +188,26 @@ public class phase1_partition_generator {
     /**
      * 根据长度关系生成数组对
      */
-    private double[][] generateArraysWithLengthRelation(String relation) {
+    private double[][] generateArraysWithLengthRelation(String relation, RandomGenerator random) {
         double[] x, h;
         
         switch (relation) {
             case "equal": // 长度相等
                 int length = LENGTH_MIN + random.nextInt(LENGTH_MAX - LENGTH_MIN + 1);
-                x = generateRandomArray(length);
-                h = generateRandomArray(length);
+                x = generateRandomArray(length, random);
+                h = generateRandomArray(length, random);
                 break;
             case "x_longer": // x比h长
                 int hLength = LENGTH_MIN + random.nextInt(LENGTH_MAX - LENGTH_MIN);
                 int xLength = hLength + 1 + random.nextInt(LENGTH_MAX - hLength);
-                x = generateRandomArray(xLength);
-                h = generateRandomArray(hLength);
+                x = generateRandomArray(xLength, random);
+                h = generateRandomArray(hLength, random);
                 break;
             case "h_longer": // h比x长
                 int xLen = LENGTH_MIN + random.nextInt(LENGTH_MAX - LENGTH_MIN);
                 int hLen = xLen + 1 + random.nextInt(LENGTH_MAX - xLen);
-                x = generateRandomArray(xLen);
-                h = generateRandomArray(hLen);
+                x = generateRandomArray(xLen, random);
+                h = generateRandomArray(hLen, random);
                 break;
             default:
                 throw new IllegalArgumentException("无效的长度关系: " + relation);
@@ -262,7 +230,7 @@ public class phase1_partition_generator {
     /**
      * 确保数组不全为正数（至少包含一个非正数）
      */
-    private double[] makeNotAllPositive(double[] array) {
+    private double[] makeNotAllPositive(double[] array, RandomGenerator random) {
         if (array.length == 0) {
             return array;
         }
@@ -294,7 +262,7 @@ public class phase1_partition_generator {
     /**
      * 生成指定长度的随机数组
      */
-    private double[] generateRandomArray(int length) {
+    private double[] generateRandomArray(int length, RandomGenerator random) {
         double[] array = new double[length];
         for (int i = 0; i < length; i++) {
             // 从{-1, 0, 1}中随机选择一个值
@@ -307,7 +275,14 @@ public class phase1_partition_generator {
      * 生成指定分区的测试用例
      */
     public TestCase generateTestCase(int partitionId) {
-        return generateTestCaseInPartition(partitionId);
+        return generateTestCase(partitionId, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器在指定分区中生成测试用例
+     */
+    public TestCase generateTestCase(int partitionId, RandomGenerator random) {
+        return generateTestCaseInPartition(partitionId, random);
     }
 
     /**
@@ -1,10 +1,12 @@
 package paper.pss.exp.math1_project.generation.phase1;
 
 import paper.pss.exp.math1_project.model.TestCase;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * phase1_random_generator.java
@@ -28,7 +30,7 @@ public class phase1_random_generator {
     private static final double EPSILON = 0.0001;
 
     public phase1_random_generator() {
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     }
 
     public phase1_random_generator(long seed) {
@@ -39,9 +41,16 @@ public class phase1_random_generator {
      * 生成指定数量的随机测试用例
      */
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
         for (int i = 0; i < count; i++) {
-            testCases.add(generateRandomTestCase());
+            testCases.add(generateRandomTestCase(random));
         }
         return testCases;
     }
@@ -49,9 +58,9 @@ public class phase1_random_generator {
     /**
      * 生成单个随机测试用例
      */
-    private TestCase generateRandomTestCase() {
-        double[] x = generateRandomArray();
-        double[] h = generateRandomArray();
+    private TestCase generateRandomTestCase(RandomGenerator random) {
+        double[] x = generateRandomArray(random);
+        double[] h = generateRandomArray(random);
         int partitionId = -1;
         return new TestCase(x, h, partitionId);
     }
@@ -59,7 +68,7 @@ public class phase1_random_generator {
     /**
      * 生成随机数组
      */
-    private double[] generateRandomArray() {
+    private double[] generateRandomArray(RandomGenerator random) {
         // 随机决定数组长度（1到LENGTH_MAX）
         int length = LENGTH_MIN + random.nextInt(LENGTH_MAX - LENGTH_MIN + 1);
         
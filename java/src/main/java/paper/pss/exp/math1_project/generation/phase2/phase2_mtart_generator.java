@@ -4,9 +4,12 @@ import paper.pss.exp.math1_project.model.MetamorphicGroup;
 import paper.pss.exp.math1_project.model.TestCase;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils;
 import paper.pss.exp.math1_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PartitionIndex_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * 候选结果类，用于封装候选MG和对应的分区索引
@@ -29,6 +32,7 @@ public class phase2_mtart_generator {
     private final Math1ConfigExtractor_utils configExtractor;
     private final Random random;
     private final List<MetamorphicGroup> mgDomain;
+    private final PartitionIndex_utils<MetamorphicGroup> partitionIndex; // 按源测试用例x和h的长度和排序的分区索引，构造时建立一次
     
     /**
      * 构造函数
@@ -38,8 +42,12 @@ public class phase2_mtart_generator {
      */
     public phase2_mtart_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new Math1ConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
+        this.partitionIndex = new PartitionIndex_utils<>(mgDomain, mg -> {
+            double[] features = extractFeatures(mg.getSourceTest());
+            return features[0] + features[1]; // x和h的长度和
+        });
     }
     
     /**
@@ -52,70 +60,24 @@ public class phase2_mtart_generator {
     }
     
     /**
-     * 从TestCase中提取数组特征作为特征向量
+     * 获取TestCase的特征向量（缓存在测试用例上，只读）
      * 
      * @param testCase 测试用例
      * @return 特征向量 [x_length, h_length, x_avg, h_avg, x_var, h_var]
      */
     private double[] extractFeatures(TestCase testCase) {
-        double[] x = testCase.getX();
-        double[] h = testCase.getH();
-        
-        // 计算数组长度
-        double xLength = x.length;
-        double hLength = h.length;
-        
-        // 计算数组平均值
-        double xAvg = calculateAverage(x);
-        double hAvg = calculateAverage(h);
-        
-        // 计算数组方差
-        double xVar = calculateVariance(x);
-        double hVar = calculateVariance(h);
-        
-        return new double[]{xLength, hLength, xAvg, hAvg, xVar, hVar};
+        return testCase.getFeatures();
     }
     
     /**
-     * 基于source_test的特征创建等距分区
+     * 基于源测试用例x和h的长度和创建等距分区（参考Python版本的统一分区策略）
+     * 排序索引在构造时建立，这里只需二分查找各分区的边界
      * 
-     * @param mgDomain      蜕变组域
      * @param numPartitions 分区数量
-     * @return 分区列表，每个分区包含对应的MetamorphicGroup
+     * @return 分区列表（只读视图），每个分区包含对应的MetamorphicGroup
      */
-    private List<List<MetamorphicGroup>> createPartitions(List<MetamorphicGroup> mgDomain, int numPartitions) {
-        if (mgDomain.isEmpty() || numPartitions <= 0) {
-            return new ArrayList<>();
-        }
-
-        // 获取所有source_test的数组长度和作为分区依据
-        List<Double> values = new ArrayList<>();
-        for (MetamorphicGroup mg : mgDomain) {
-            double[] features = extractFeatures(mg.getSourceTest());
-            values.add(features[0] + features[1]); // 使用x和h的长度和作为分区依据
-        }
-
-        double minVal = Collections.min(values);
-        double maxVal = Collections.max(values);
-        double step = numPartitions > 1 ? (maxVal - minVal) / numPartitions : 1.0;
-
-        // 初始化分区
-        List<List<MetamorphicGroup>> partitions = new ArrayList<>();
-        for (int i = 0; i < numPartitions; i++) {
-            partitions.add(new ArrayList<>());
-        }
-
-        // 将MG分配到对应分区
-        for (MetamorphicGroup mg : mgDomain) {
-            double[] features = extractFeatures(mg.getSourceTest());
-            double value = features[0] + features[1]; // x和h的长度和
-            int idx = (int) ((value - minVal) / step);
-            // 处理边界情况
-            idx = Math.min(idx, numPartitions - 1);
-            partitions.get(idx).add(mg);
-        }
-
-        return partitions;
+    private List<List<MetamorphicGroup>> createPartitions(int numPartitions) {
+        return partitionIndex.equalWidthPartitions(numPartitions);
     }
     
     /**
@@ -128,7 +90,7 @@ public class phase2_mtart_generator {
      */
     private CandidateResult selectCandidates(List<List<MetamorphicGroup>> partitions,
                                               Set<Integer> coveredPartitions,
-                                              int candidatesPerIter) {
+                                              int candidatesPerIter, RandomGenerator random) {
         List<MetamorphicGroup> candidates = new ArrayList<>();
         List<Integer> partitionIndices = new ArrayList<>();
 
@@ -220,6 +182,13 @@ public class phase2_mtart_generator {
      * @return 生成的蜕变组列表
      */
     public List<MetamorphicGroup> generate(int numSamples) {
+        return generate(numSamples, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int numSamples, RandomGenerator random) {
         int candidatesPerIter = 5;
         if (numSamples > mgDomain.size()) {
             throw new IllegalArgumentException("样本数超过MG域大小");
@@ -231,7 +200,7 @@ public class phase2_mtart_generator {
 
         // 统一创建分区
         int numPartitions = Math.max(1, (int) (numSamples * 1.5));
-        List<List<MetamorphicGroup>> partitions = createPartitions(mgDomain, numPartitions);
+        List<List<MetamorphicGroup>> partitions = createPartitions(numPartitions);
 
         List<MetamorphicGroup> selected = new ArrayList<>();
         List<double[][]> recentFeatures = new ArrayList<>(); // 维护最近5个MG的特征
@@ -239,7 +208,7 @@ public class phase2_mtart_generator {
 
         for (int iteration = 0; iteration < numSamples; iteration++) {
             // 选择候选集
-            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter);
+            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter, random);
             List<MetamorphicGroup> candidates = candidateResult.candidates;
             List<Integer> partitionIndices = candidateResult.partitionIndices;
 
@@ -284,40 +253,6 @@ public class phase2_mtart_generator {
         return selected;
      }
      
-    /**
-     * 计算数组的平均值
-     */
-    private double calculateAverage(double[] array) {
-        if (array.length == 0) {
-            return 0.0;
-        }
-        double sum = 0.0;
-        for (double value : array) {
-            sum += value;
-        }
-        return sum / array.length;
-    }
-    
-    /**
-     * 计算数组的方差
-     */
-    private double calculateVariance(double[] array) {
-        if (array.length == 0) {
-            return 0.0;
-        }
-        
-        double mean = calculateAverage(array);
-        double sum = 0.0;
-        
-        for (double value : array) {
-            double diff = value - mean;
-            sum += diff * diff;
-        }
-        
-        return sum / array.length;
-    }
-    
-    
     /**
      * 获取分区统计信息
      * 
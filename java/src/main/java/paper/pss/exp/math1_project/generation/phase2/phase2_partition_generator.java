@@ -4,9 +4,13 @@ import paper.pss.exp.math1_project.model.MetamorphicGroup;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils;
 import paper.pss.exp.math1_project.utils.MGDomainGenerator_utils;
 import paper.pss.exp.math1_project.utils.MRFactory_utils;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -27,9 +31,13 @@ public class phase2_partition_generator {
     // 分区大小: (partition_id, mr_id) -> weight
     private final Map<String, Double> partitionSize;
     
-    // 分区选择计数和比率
-    private final Map<String, Integer> partitionSelectedCounts;
-    private final Map<String, Double> partitionSelectedRatio;
+    // 参与分配的分区-MR组合，按 (分区ID, MR ID) 排序，下标即分配器中的单元编号
+    // 构造完成后只读（分配顺序缓存只会被整体替换为更长的序列），同一实例可被多个线程并发调用
+    private final List<String> cellKeys;
+    private final List<List<MetamorphicGroup>> cellMgs;
+    private final double[] cellWeights;
+    // 分配顺序缓存：第 i 个样本分配到的组合编号。分配规则是确定的，n 个样本的分配恰为该序列的前 n 项
+    private volatile int[] allocationOrder = new int[0];
     
     /**
      * 使用默认配置路径初始化分区生成器
@@ -48,7 +56,7 @@ public class phase2_partition_generator {
      */
     public phase2_partition_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new Math1ConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
         
         // 从配置中获取分区比率和MR类型
@@ -60,22 +68,19 @@ public class phase2_partition_generator {
         this.mrTypes = MRFactory_utils.getAllRelationIds();
         
         // 构建分区映射
-        this.partitionMgMap = new HashMap<>();        
-        // 生成分区大小
-        this.partitionSelectedCounts = new HashMap<>();
-        this.partitionSelectedRatio = new HashMap<>();
-        // 初始化分区映射
-        for (MetamorphicGroup mg : mgDomain) {
-            String key = createKey(mg.getSourceTest().getPartitionId(), mg.getMRId());
-            this.partitionMgMap.computeIfAbsent(key, k -> new ArrayList<>()).add(mg);
-        }
-        // 初始化分区选择计数和比率
-        for (String key : partitionMgMap.keySet()) {
-            this.partitionSelectedCounts.put(key, 0);
-            this.partitionSelectedRatio.put(key, 0.0);
-        }
+        // 每个组合只保存MG在域中的下标，MG在抽样时才从域中读取
+        this.partitionMgMap = ColumnarMGDomain_utils.groupByKey(mgDomain,
+                mg -> createKey(mg.getSourceTest().getPartitionId(), mg.getMRId()));
         // 生成分区大小
         this.partitionSize = generatePartitionSize();
+        // 为参与分配的组合编号，分配过程只操作数组
+        this.cellKeys = sortedCellKeys(partitionSize.keySet());
+        this.cellMgs = new ArrayList<>(cellKeys.size());
+        this.cellWeights = new double[cellKeys.size()];
+        for (int c = 0; c < cellKeys.size(); c++) {
+            cellMgs.add(partitionMgMap.get(cellKeys.get(c)));
+            cellWeights[c] = partitionSize.get(cellKeys.get(c));
+        }
     }
     
     /**
@@ -85,6 +90,17 @@ public class phase2_partition_generator {
         return partitionId + "_" + mrId;
     }
     
+    /**
+     * 按 (分区ID, MR ID) 排序组合键
+     */
+    private List<String> sortedCellKeys(Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(keys);
+        sorted.sort(Comparator
+                .comparingInt((String key) -> partitionMgMap.get(key).get(0).getSourceTest().getPartitionId())
+                .thenComparing(key -> partitionMgMap.get(key).get(0).getMRId()));
+        return sorted;
+    }
+    
     /**
      * 生成每个(partition_id, mr_id)组合的期望大小/权重
      * 对于每对，值 = partition_weight * mr_type_weight
@@ -132,82 +148,112 @@ public class phase2_partition_generator {
     }
     
     /**
-     * 找到采样率最低的分区
+     * 从指定分区-MR组合中随机选择一个MG
      * 
-     * @return 采样率最低的分区键
+     * @param cell 组合编号
+     * @param rng 随机数生成器
+     * @return 选中的MetamorphicGroup
      */
-    private String findLowestSamplingRatePartition() {
-        String selectedPartition = null;
-        double lowestRate = Double.POSITIVE_INFINITY;
-        
-        for (String key : partitionSize.keySet()) {
-            double currentRate = partitionSelectedRatio.get(key);
-            
-            if (currentRate < lowestRate) {
-                lowestRate = currentRate;
-                selectedPartition = key;
-            } else if (Math.abs(currentRate - lowestRate) < 1e-9) {
-                // 如果采样率相等，选择权重更大的分区
-                if (selectedPartition == null || partitionSize.get(key) > partitionSize.get(selectedPartition)) {
-                    selectedPartition = key;
-                }
-            }
+    private MetamorphicGroup selectMGFromCell(int cell, RandomGenerator rng) {
+        List<MetamorphicGroup> availableMGs = cellMgs.get(cell);
+        if (availableMGs == null || availableMGs.isEmpty()) {
+            throw new IllegalStateException("分区 " + cellKeys.get(cell) + " 中没有可用的MG");
         }
         
-        return selectedPartition;
+        int randomIndex = rng.nextInt(availableMGs.size());
+        return availableMGs.get(randomIndex);
     }
     
     /**
-     * 从指定分区中随机选择一个MG
+     * 生成指定数量的MetamorphicGroup样本（使用生成器自身的随机数）
      * 
-     * @param partitionKey 分区键
-     * @return 选中的MetamorphicGroup
+     * @param totalSamples 要生成的样本总数
+     * @return MetamorphicGroup列表
      */
-    private MetamorphicGroup selectMGFromPartition(String partitionKey) {
-        List<MetamorphicGroup> availableMGs = partitionMgMap.get(partitionKey);
-        if (availableMGs == null || availableMGs.isEmpty()) {
-            throw new IllegalStateException("分区 " + partitionKey + " 中没有可用的MG");
-        }
-        
-        int randomIndex = random.nextInt(availableMGs.size());
-        return availableMGs.get(randomIndex);
+    public List<MetamorphicGroup> generate(int totalSamples) {
+        return generate(totalSamples, random);
     }
     
     /**
      * 生成指定数量的MetamorphicGroup样本
+     * 分配顺序来自缓存，不修改生成器状态，可被多个线程并发调用
      * 
      * @param totalSamples 要生成的样本总数
+     * @param rng 本次调用使用的随机数生成器
      * @return MetamorphicGroup列表
      */
-    public List<MetamorphicGroup> generate(int totalSamples) {
-        // 重置选择计数和比率
-        for (String key : partitionSelectedCounts.keySet()) {
-            partitionSelectedCounts.put(key, 0);
-            partitionSelectedRatio.put(key, 0.0);
-        }
+    public List<MetamorphicGroup> generate(int totalSamples, RandomGenerator rng) {
+        int[] order = allocationOrder(totalSamples);
         
-        List<MetamorphicGroup> selectedMGs = new ArrayList<>();
+        List<MetamorphicGroup> selectedMGs = new ArrayList<>(totalSamples);
         
         for (int i = 0; i < totalSamples; i++) {
-            // 找到采样率最低的分区
-            String selectedPartitionKey = findLowestSamplingRatePartition();
-            
-            // 从该分区中选择一个MG
-            MetamorphicGroup selectedMG = selectMGFromPartition(selectedPartitionKey);
-            selectedMGs.add(selectedMG);
-            
-            // 更新选择计数
-            int currentCount = partitionSelectedCounts.get(selectedPartitionKey);
-            partitionSelectedCounts.put(selectedPartitionKey, currentCount + 1);
-            
-            // 更新采样率
-            double partitionWeight = partitionSize.get(selectedPartitionKey);
-            double newRatio = (currentCount + 1) / partitionWeight;
-            partitionSelectedRatio.put(selectedPartitionKey, newRatio);
+            // 从第 i 个样本分配到的分区中选择一个MG
+            selectedMGs.add(selectMGFromCell(order[i], rng));
         }
         
         return selectedMGs;
     }
+
+    /**
+     * 计算从初始状态开始抽取 totalSamples 个MG时，每个分区-MR组合分到的数量
+     * 与 generate 使用相同的分配顺序，但不抽取具体的MG
+     *
+     * @param totalSamples 要分配的样本总数
+     * @return 分区键 -> 分配数量（只包含分配数量大于0的组合）
+     */
+    public Map<String, Integer> allocate(int totalSamples) {
+        int[] order = allocationOrder(totalSamples);
+        int[] counts = new int[cellKeys.size()];
+        for (int i = 0; i < totalSamples; i++) {
+            counts[order[i]]++;
+        }
+        Map<String, Integer> allocation = new HashMap<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                allocation.put(cellKeys.get(c), counts[c]);
+            }
+        }
+        return allocation;
+    }
+
+    /**
+     * 预先计算前 maxSamples 个样本的分配顺序，之后不超过该数量的 generate / allocate 调用都直接读取缓存
+     *
+     * @param maxSamples 最大样本数（通常为实验的最大测试用例数量）
+     */
+    public void precomputeAllocations(int maxSamples) {
+        allocationOrder(maxSamples);
+    }
+
+    /**
+     * 获取至少包含前 totalSamples 项的分配顺序，缓存不足时重新计算更长的序列
+     */
+    private int[] allocationOrder(int totalSamples) {
+        int[] order = allocationOrder;
+        if (order.length >= totalSamples) {
+            return order;
+        }
+        synchronized (this) {
+            order = allocationOrder;
+            if (order.length < totalSamples) {
+                order = new int[Math.max(totalSamples, order.length * 2)];
+                PsalmAllocator_utils allocator = new PsalmAllocator_utils(cellWeights);
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = allocator.next();
+                }
+                allocationOrder = order;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * 获取分区-MR组合到其MG列表的映射（只读）
+     */
+    public Map<String, List<MetamorphicGroup>> getPartitionMgMap() {
+        return Collections.unmodifiableMap(partitionMgMap);
+    }
     
     /**
      * 获取分区统计信息
@@ -3,9 +3,12 @@ package paper.pss.exp.math1_project.generation.phase2;
 import paper.pss.exp.math1_project.model.MetamorphicGroup;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils;
 import paper.pss.exp.math1_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * 随机均匀抽取MetamorphicGroup (MG)的生成器
@@ -34,7 +37,7 @@ public class phase2_random_generator {
     public phase2_random_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new Math1ConfigExtractor_utils(configPath);
         this.mgDomain = mgDomain;
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     }
     
     /**
@@ -44,18 +47,15 @@ public class phase2_random_generator {
      * @return 随机抽取的MetamorphicGroup列表
      */
     public List<MetamorphicGroup> generate(int totalSamples) {
+        return generate(totalSamples, random);
+    }
 
-        List<MetamorphicGroup> sampled = new ArrayList<>();
-        List<MetamorphicGroup> availableMgs = new ArrayList<>(mgDomain);
-        
-        // 随机抽取不重复的样本
-        for (int i = 0; i < totalSamples; i++) {
-            int randomIndex = random.nextInt(availableMgs.size());
-            MetamorphicGroup selectedMg = availableMgs.remove(randomIndex);
-            sampled.add(selectedMg);
-        }
-        
-        return sampled;
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int totalSamples, RandomGenerator random) {
+        // 随机抽取不重复的样本，只读取被抽中的MG，不复制整个MG域
+        return ColumnarMGDomain_utils.sampleWithoutReplacement(mgDomain, totalSamples, random);
     }
     
     /**
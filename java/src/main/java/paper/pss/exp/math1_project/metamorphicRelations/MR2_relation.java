@@ -3,7 +3,6 @@ package paper.pss.exp.math1_project.metamorphicRelations;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import org.apache.commons.math3.util.MathArrays;
 
 import paper.pss.exp.math1_project.model.MetamorphicRelation;
@@ -23,9 +22,6 @@ public class MR2_relation implements MetamorphicRelation {
     // 浮点比较允许的误差范围
     private static final double EPSILON = 1e-5;
 
-    // 随机数生成器，用于生成h2数组
-    private static final Random random = new Random();
-
     @Override
     public String getId() {
         return "MR2";
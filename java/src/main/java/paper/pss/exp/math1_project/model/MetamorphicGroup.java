@@ -8,6 +8,8 @@ public class MetamorphicGroup {
     private final String description; // 蜕变关系描述
     private final TestCase sourceTest; // 源测试用例
     private final TestCase followupTest; // 后续测试用例
+    private int domainIndex = -1; // 在MG域中的下标，不属于MG域时为-1
+    private int sourceIndex = -1; // 源测试用例在MG域源测试用例中的下标
 
     /**
      * 创建一个包含源测试和后续测试用例的蜕变组
@@ -31,6 +33,22 @@ public class MetamorphicGroup {
         return followupTest;
     }
 
+    /**
+     * 记录该MG在MG域中的位置，由MG域生成器在构建域时调用
+     */
+    public void assignDomainIndex(int domainIndex, int sourceIndex) {
+        this.domainIndex = domainIndex;
+        this.sourceIndex = sourceIndex;
+    }
+
+    public int getDomainIndex() {
+        return domainIndex;
+    }
+
+    public int getSourceIndex() {
+        return sourceIndex;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -1,6 +1,7 @@
 package paper.pss.exp.math1_project.model;
 
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * MetamorphicRelation.java
@@ -81,4 +82,28 @@ public interface MetamorphicRelation {
      */
     List<MetamorphicGroup> createGroups(TestCase sourceTest);
 
+    /**
+     * Generates follow-up test cases, drawing any random parameters from the given generator.
+     * Relations without random parameters ignore the generator.
+     *
+     * @param sourceTest The original test case
+     * @param random     Random generator owned by the caller
+     * @return List of generated follow-up test cases
+     */
+    default List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
+        return generateFollowupTests(sourceTest);
+    }
+
+    /**
+     * Creates metamorphic groups for a given source test case, drawing any random
+     * parameters from the given generator (same seed and source test, same groups)
+     *
+     * @param sourceTest The source test case
+     * @param random     Random generator owned by the caller
+     * @return List of metamorphic groups (one for each follow-up test)
+     */
+    default List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
+        return createGroups(sourceTest);
+    }
+
 }
\ No newline at end of file
@@ -2,17 +2,33 @@ package paper.pss.exp.math1_project.model;
 
 import java.util.Arrays;
 
-public class TestCase {
+import paper.pss.exp.utils.FeatureVector;
+
+public class TestCase implements FeatureVector {
     private final double[] x; // 第一个输入数组
     private final double[] h; // 第二个输入数组
     private final int partitionId; // 分区ID
+    private volatile double[] features; // 特征向量缓存，首次访问时计算
 
     public TestCase(double[] x, double[] h, int partitionId) {
-        this.x = Arrays.copyOf(x, x.length);
-        this.h = Arrays.copyOf(h, h.length);
+        this(partitionId, Arrays.copyOf(x, x.length), Arrays.copyOf(h, h.length));
+    }
+
+    // 不复制数组的构造器，只供 wrap() 和上面的公共构造器使用
+    private TestCase(int partitionId, double[] x, double[] h) {
+        this.x = x;
+        this.h = h;
         this.partitionId = partitionId;
     }
 
+    /**
+     * 直接使用给定数组创建测试用例，不复制数组（例如从列式MG域解码时数组是新分配的）
+     * 调用方之后不得再修改这两个数组
+     */
+    public static TestCase wrap(double[] x, double[] h, int partitionId) {
+        return new TestCase(partitionId, x, h);
+    }
+
     public double[] getX() {
         return Arrays.copyOf(x, x.length);
     }
@@ -25,6 +41,51 @@ public class TestCase {
         return partitionId;
     }
 
+    /**
+     * 特征向量：[x长度, h长度, x均值, h均值, x方差, h方差]
+     * 多个线程同时首次访问时可能重复计算，但结果相同
+     */
+    @Override
+    public double[] getFeatures() {
+        double[] result = features;
+        if (result == null) {
+            result = new double[] {
+                    x.length,
+                    h.length,
+                    average(x),
+                    average(h),
+                    variance(x),
+                    variance(h)
+            };
+            features = result;
+        }
+        return result;
+    }
+
+    private static double average(double[] array) {
+        if (array.length == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (double value : array) {
+            sum += value;
+        }
+        return sum / array.length;
+    }
+
+    private static double variance(double[] array) {
+        if (array.length == 0) {
+            return 0.0;
+        }
+        double mean = average(array);
+        double sum = 0.0;
+        for (double value : array) {
+            double diff = value - mean;
+            sum += diff * diff;
+        }
+        return sum / array.length;
+    }
+
     @Override
     public String toString() {
         return String.format("Partition %d: convolve(%s, %s)",
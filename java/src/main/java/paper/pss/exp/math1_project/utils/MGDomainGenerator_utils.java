@@ -3,10 +3,15 @@ package paper.pss.exp.math1_project.utils;
 import paper.pss.exp.math1_project.model.MetamorphicGroup;
 import paper.pss.exp.math1_project.model.TestCase;
 import paper.pss.exp.math1_project.utils.Math1ConfigExtractor_utils.Partition;
-import java.util.Random;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ShardedDomainBuilder_utils;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -15,20 +20,30 @@ import java.util.stream.Collectors;
  * 该类负责构建一个大型的蜕变组域，供后续根据不同策略选择测试用例
  */
 public class MGDomainGenerator_utils {
+    // 自动计算域大小时的下限
+    private static final int DEFAULT_DOMAIN_SIZE = 5000;
+
     private final String configPath;
     private final Math1ConfigExtractor_utils configExtractor;
     private final int domainSize;
-    private final Random random;
     private final List<String> allMRTypes;
 
     /**
      * 使用默认配置和域大小初始化蜕变组域生成器
      */
     public MGDomainGenerator_utils() throws IOException {
+        this(0);
+    }
+
+    /**
+     * 初始化蜕变组域生成器
+     * 
+     * @param domainSize 域的大小(源测试用例数量)，不大于0时按 calculateDomainSize() 计算
+     */
+    public MGDomainGenerator_utils(int domainSize) throws IOException {
         this.configPath = "src/main/java/paper/pss/exp/math1_project/math1_config.json";
         this.configExtractor = new Math1ConfigExtractor_utils(configPath);
-        this.domainSize = calculateDomainSize();
-        this.random = new Random();
+        this.domainSize = domainSize > 0 ? domainSize : calculateDomainSize();
         this.allMRTypes = loadAllMRTypes();
     }
 
@@ -43,30 +58,22 @@ public class MGDomainGenerator_utils {
      * 生成测试用例
      * 简化版本的测试用例生成器
      */
-    private List<TestCase> generateTestCases(int count) {
-        List<TestCase> testCases = new ArrayList<>();
-        List<Partition> partitions = configExtractor.getPartitions();
+    private TestCase generateTestCase(List<Partition> partitions, RandomGenerator random) {
+        // 随机选择一个分区
+        int partitionIndex = random.nextInt(partitions.size());
+        Partition partition = partitions.get(partitionIndex);
         
-        for (int i = 0; i < count; i++) {
-            // 随机选择一个分区
-            int partitionIndex = random.nextInt(partitions.size());
-            Partition partition = partitions.get(partitionIndex);
-            
-            // 生成随机数组
-            double[] x = generateRandomArray();
-            double[] h = generateRandomArray();
-            
-            TestCase testCase = new TestCase(x, h, partition.getId());
-            testCases.add(testCase);
-        }
+        // 生成随机数组
+        double[] x = generateRandomArray(random);
+        double[] h = generateRandomArray(random);
         
-        return testCases;
+        return new TestCase(x, h, partition.getId());
     }
 
     /**
      * 生成随机数组
      */
-    private double[] generateRandomArray() {
+    private double[] generateRandomArray(RandomGenerator random) {
         int length = 1 + random.nextInt(10); // 长度1-10
         double[] array = new double[length];
         double[] allowedValues = {-1.0, 0.0, 1.0};
@@ -84,18 +91,132 @@ public class MGDomainGenerator_utils {
      * @return 生成的蜕变组域
      */
     public List<MetamorphicGroup> generateDomain() {
-        // 1. 生成源测试用例
-        List<TestCase> sourceTests = generateTestCases(domainSize);
+        return generateDomain(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 使用指定种子生成蜕变组域
+     * 源测试用例按固定大小分片并行生成并展开为蜕变组，每个分片使用从种子 split 出的独立随机数流，
+     * 分片结果按源测试用例顺序合并，合并结果与线程数量无关
+     * 
+     * @param seed 根种子
+     * @return 生成的蜕变组域
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> generateDomain(long seed) {
+        List<Partition> partitions = configExtractor.getPartitions();
+
+        // 1. 分片并行生成源测试用例，并为每个源测试用例应用所有适用的蜕变关系
+        List<List<MetamorphicGroup>> groupsBySource = ShardedDomainBuilder_utils.build(domainSize, seed,
+                (from, to, rng) -> {
+                    List<List<MetamorphicGroup>> groups = new ArrayList<>(to - from);
+                    for (int sourceIndex = from; sourceIndex < to; sourceIndex++) {
+                        groups.add(MRFactory_utils.generateAllGroups(generateTestCase(partitions, rng), rng));
+                    }
+                    return groups;
+                });
+
+        // 2. 按源测试用例顺序合并为列式存储的MG域，同一源测试用例的MG在域中连续存放
+        return new ColumnarMGDomain_utils<>(groupsBySource, MetamorphicGroup.class, new DomainLayout());
+    }
+
+    /**
+     * 读取MG域快照，只有快照由当前配置文件、指定种子和当前域大小生成时才会被复用
+     * 
+     * @param snapshotFile 快照文件
+     * @param seed         根种子
+     * @return 快照中的蜕变组域，快照不存在或不匹配时为 null
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> loadDomain(Path snapshotFile, long seed)
+            throws IOException {
+        ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain = ColumnarMGDomain_utils.loadSnapshot(snapshotFile,
+                MetamorphicGroup.class, new DomainLayout(), seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+        return domain != null && domain.getSourceCount() == domainSize ? domain : null;
+    }
 
-        // 2. 为每个源测试用例应用所有适用的蜕变关系
-        List<MetamorphicGroup> mgDomain = new ArrayList<>();
+    /**
+     * 将蜕变组域保存为快照，供同一项目的其他运行复用
+     * 
+     * @param domain       generateDomain(seed) 生成的蜕变组域
+     * @param snapshotFile 快照文件
+     * @param seed         生成该域的根种子
+     */
+    public void saveDomain(ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain, Path snapshotFile, long seed)
+            throws IOException {
+        domain.writeSnapshot(snapshotFile, seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+    }
 
-        for (TestCase sourceTest : sourceTests) {
-            List<MetamorphicGroup> mgs = MRFactory_utils.generateAllGroups(sourceTest);
-            mgDomain.addAll(mgs);
+    /**
+     * MG域的列式存储结构：后续测试用例编码为 [分区ID, x长度, x各元素, h各元素]（double 按位存放），
+     * 视图创建时记录MG在域中的位置
+     */
+    private static class DomainLayout implements ColumnarMGDomain_utils.Layout<MetamorphicGroup, TestCase> {
+        @Override
+        public String mrId(MetamorphicGroup group) {
+            return group.getMRId();
         }
 
-        return mgDomain;
+        @Override
+        public String description(MetamorphicGroup group) {
+            return group.getDescription();
+        }
+
+        @Override
+        public TestCase sourceTest(MetamorphicGroup group) {
+            return group.getSourceTest();
+        }
+
+        @Override
+        public TestCase followupTest(MetamorphicGroup group) {
+            return group.getFollowupTest();
+        }
+
+        @Override
+        public int domainIndex(MetamorphicGroup group) {
+            return group.getDomainIndex();
+        }
+
+        @Override
+        public int encodedLength(TestCase test) {
+            double[] x = test.getX();
+            double[] h = test.getH();
+            return 2 + x.length + h.length;
+        }
+
+        @Override
+        public void encode(TestCase test, long[] out, int offset) {
+            double[] x = test.getX();
+            double[] h = test.getH();
+            out[offset] = test.getPartitionId();
+            out[offset + 1] = x.length;
+            for (int i = 0; i < x.length; i++) {
+                out[offset + 2 + i] = Double.doubleToRawLongBits(x[i]);
+            }
+            for (int i = 0; i < h.length; i++) {
+                out[offset + 2 + x.length + i] = Double.doubleToRawLongBits(h[i]);
+            }
+        }
+
+        @Override
+        public TestCase decode(long[] in, int offset, int length) {
+            int xLength = (int) in[offset + 1];
+            double[] x = new double[xLength];
+            double[] h = new double[length - 2 - xLength];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = Double.longBitsToDouble(in[offset + 2 + i]);
+            }
+            for (int i = 0; i < h.length; i++) {
+                h[i] = Double.longBitsToDouble(in[offset + 2 + xLength + i]);
+            }
+            return TestCase.wrap(x, h, (int) in[offset]);
+        }
+
+        @Override
+        public MetamorphicGroup view(String mrId, String description, TestCase sourceTest, TestCase followupTest,
+                int domainIndex, int sourceIndex) {
+            MetamorphicGroup group = new MetamorphicGroup(mrId, description, sourceTest, followupTest);
+            group.assignDomainIndex(domainIndex, sourceIndex);
+            return group;
+        }
     }
 
     /**
@@ -120,8 +241,8 @@ public class MGDomainGenerator_utils {
         // 推荐域大小（每类最少minSamplesPerCategory，考虑安全系数1.5）
         int suggestedSize = (int) (minSamplesPerCategory * totalCategories * 1.5);
         
-        // 最小5000，最大5000（根据math1项目的特点调整）
-        return Math.min(Math.max(suggestedSize, 5000), 5000);
+        // 不少于默认域大小，不设上限；需要更大的域时通过构造函数指定域大小
+        return Math.max(suggestedSize, DEFAULT_DOMAIN_SIZE);
     }
 
     /**
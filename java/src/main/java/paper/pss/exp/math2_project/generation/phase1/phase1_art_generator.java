@@ -1,9 +1,12 @@
 package paper.pss.exp.math2_project.generation.phase1;
 
 import paper.pss.exp.math2_project.model.TestCase;
+import paper.pss.exp.utils.ArtIndex_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * ART (Adaptive Random Testing) 生成器
@@ -12,11 +15,13 @@ import java.util.Random;
  */
 public class phase1_art_generator {
     
-    private static final Random random = new Random(System.currentTimeMillis());
+    private final Random random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
     private static final long MAX_MAGNITUDE = 1000L;
     private static final long MIN_MAGNITUDE = -1000L;
     private static final long MAX_SIGN = 1000L;
     private static final long MIN_SIGN = -1000L;
+    // 特征向量 [magnitude, sign] 各维度在欧几里得距离中的下界权重，用于最近邻索引剪枝
+    private static final double[] FEATURE_WEIGHTS = { 1.0, 1.0 };
     private final int candidateNum;
     
     public phase1_art_generator() {
@@ -34,42 +39,50 @@ public class phase1_art_generator {
      * @return 生成的测试用例列表
      */
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
+        // 已选测试用例的特征向量索引，用最近邻查询代替与所有已有用例逐一比较
+        ArtIndex_utils index = new ArtIndex_utils(FEATURE_WEIGHTS, this::featureDistance);
         
         // 第一步：生成第一个随机测试用例
-        long firstMagnitude = generateRandomLong(MIN_MAGNITUDE, MAX_MAGNITUDE);
-        long firstSign = generateRandomLong(MIN_SIGN, MAX_SIGN);
+        long firstMagnitude = generateRandomLong(MIN_MAGNITUDE, MAX_MAGNITUDE, random);
+        long firstSign = generateRandomLong(MIN_SIGN, MAX_SIGN, random);
         testCases.add(new TestCase(firstMagnitude, firstSign, -1));
+        index.add(features(testCases.get(0)));
         
         // 第二步：使用ART策略生成剩余的测试用例
         while (testCases.size() < count) {
             TestCase bestCandidate = null;
+            double[] bestFeatures = null;
             double bestMinDist = -1;
             
             // 生成候选测试用例并选择距离最远的
             for (int i = 0; i < candidateNum; i++) {
-                long magnitude = generateRandomLong(MIN_MAGNITUDE, MAX_MAGNITUDE);
-                long sign = generateRandomLong(MIN_SIGN, MAX_SIGN);
+                long magnitude = generateRandomLong(MIN_MAGNITUDE, MAX_MAGNITUDE, random);
+                long sign = generateRandomLong(MIN_SIGN, MAX_SIGN, random);
                 TestCase candidate = new TestCase(magnitude, sign, -1);
+                double[] candidateFeatures = features(candidate);
                 
                 // 计算候选用例与已有用例的最小距离
-                double minDist = Double.MAX_VALUE;
-                for (TestCase existing : testCases) {
-                    double dist = distance(candidate, existing);
-                    if (dist < minDist) {
-                        minDist = dist;
-                    }
-                }
+                double minDist = index.nearestDistance(candidateFeatures);
                 
                 // 选择最小距离最大的候选用例
                 if (minDist > bestMinDist) {
                     bestMinDist = minDist;
                     bestCandidate = candidate;
+                    bestFeatures = candidateFeatures;
                 }
             }
             
             if (bestCandidate != null) {
                 testCases.add(bestCandidate);
+                index.add(bestFeatures);
             }
         }
         
@@ -77,15 +90,25 @@ public class phase1_art_generator {
     }
     
     /**
-     * 计算两个测试用例之间的欧几里得距离
+     * 测试用例的特征向量: [magnitude, sign]（缓存在测试用例上）
+     * 
+     * @param testCase 测试用例
+     * @return 特征向量
+     */
+    private double[] features(TestCase testCase) {
+        return testCase.getFeatures();
+    }
+    
+    /**
+     * 计算两个测试用例特征向量之间的欧几里得距离
      * 
-     * @param a 测试用例A
-     * @param b 测试用例B
+     * @param a 测试用例A的特征向量
+     * @param b 测试用例B的特征向量
      * @return 两个测试用例之间的距离
      */
-    private double distance(TestCase a, TestCase b) {
-        double magnitudeDiff = a.getMagnitude() - b.getMagnitude();
-        double signDiff = a.getSign() - b.getSign();
+    private double featureDistance(double[] a, double[] b) {
+        double magnitudeDiff = a[0] - b[0];
+        double signDiff = a[1] - b[1];
         return Math.sqrt(magnitudeDiff * magnitudeDiff + signDiff * signDiff);
     }
     
@@ -96,7 +119,7 @@ public class phase1_art_generator {
      * @param max 最大值
      * @return 随机长整数
      */
-    private long generateRandomLong(long min, long max) {
+    private long generateRandomLong(long min, long max, RandomGenerator random) {
         return min + (long) (random.nextDouble() * (max - min + 1));
     }
     
@@ -3,9 +3,12 @@ package paper.pss.exp.math2_project.generation.phase1;
 import paper.pss.exp.math2_project.model.TestCase;
 import paper.pss.exp.math2_project.utils.math2ConfigExtractor_utils;
 import paper.pss.exp.math2_project.utils.math2ConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PsalmAllocator_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
@@ -24,8 +27,8 @@ public class phase1_partition_generator {
     private final math2ConfigExtractor_utils configExtractor;
     private final List<Partition> partitions;
     private final List<Double> partitionWeights;
-    private final Map<Integer, Integer> selectedCounts;
-    private final Random random;
+    private final PsalmAllocator_utils allocator; // 各分区的分配状态，单元编号为分区在配置中的下标
+    private final RandomGenerator random;
 
     /**
      * 使用默认配置文件路径创建生成器
@@ -41,18 +44,27 @@ public class phase1_partition_generator {
      * @throws IOException 如果配置文件读取失败
      */
     public phase1_partition_generator(String configPath) throws IOException {
+        this(configPath, new Random(ExperimentSeed_utils.DEFAULT_SEED));
+    }
+
+    /**
+     * 使用指定配置文件路径和随机数生成器创建生成器
+     * 分片并行构建MG域时，每个分片使用各自独立的随机数流
+     *
+     * @param configPath 配置文件路径
+     * @param random 生成测试用例输入使用的随机数生成器
+     * @throws IOException 如果配置文件读取失败
+     */
+    public phase1_partition_generator(String configPath, RandomGenerator random) throws IOException {
         this.configExtractor = new math2ConfigExtractor_utils(configPath);
         this.partitions = configExtractor.getPartitions();
         this.partitionWeights = partitions.stream()
                 .map(Partition::getWeight)
                 .collect(Collectors.toList());
-        this.selectedCounts = new HashMap<>();
-        this.random = new Random();
-        
-        // 初始化分区选择计数
-        for (Partition partition : partitions) {
-            selectedCounts.put(partition.getId(), 0);
-        }
+        this.allocator = new PsalmAllocator_utils(partitions.stream()
+                .mapToDouble(partition -> partition.getWeight())
+                .toArray());
+        this.random = random;
         
         validateConfig();
     }
@@ -85,7 +97,14 @@ public class phase1_partition_generator {
      * @return 生成的测试用例列表
      */
     public List<TestCase> generate(int count) {
-        return allocateTestCases(count);
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
+        return allocateTestCases(count, random);
     }
 
     /**
@@ -94,63 +113,32 @@ public class phase1_partition_generator {
      * @param count 总测试用例数量
      * @return 分配的测试用例列表
      */
-    private List<TestCase> allocateTestCases(int count) {
-        List<TestCase> testCases = new ArrayList<>();
-        
-        // 重置选择计数
-        for (Integer partitionId : selectedCounts.keySet()) {
-            selectedCounts.put(partitionId, 0);
-        }
-
-        // 使用最大最小算法分配测试用例
-        for (int i = 0; i < count; i++) {
-            // 计算每个分区的当前采样率
-            Map<Integer, Double> samplingRates = new HashMap<>();
-            for (Partition partition : partitions) {
-                int partitionId = partition.getId();
-                double weight = partition.getWeight();
-                int selected = selectedCounts.get(partitionId);
-                double samplingRate = weight > 0 ? (double) selected / weight : Double.MAX_VALUE;
-                samplingRates.put(partitionId, samplingRate);
-            }
+    private List<TestCase> allocateTestCases(int count, RandomGenerator random) {
+        int[] partitionOrder = allocatePartitions(count);
 
-            // 选择采样率最低的分区
-            int selectedPartitionId = findLowestSamplingRatePartition(samplingRates);
-            
-            // 在选定分区中生成测试用例
-            TestCase testCase = generateTestCaseInPartition(selectedPartitionId);
-            testCases.add(testCase);
-            
-            // 更新选择计数
-            selectedCounts.put(selectedPartitionId, selectedCounts.get(selectedPartitionId) + 1);
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int partitionId : partitionOrder) {
+            testCases.add(generateTestCaseInPartition(partitionId, random));
         }
-        
         return testCases;
     }
 
     /**
-     * 找到采样率最低的分区
+     * 按最大最小算法依次确定 count 个测试用例所属的分区
      *
-     * @param samplingRates 各分区的采样率
-     * @return 采样率最低的分区ID
+     * @param count 测试用例数量
+     * @return 第 i 个元素为第 i 个测试用例的分区ID
      */
-    private int findLowestSamplingRatePartition(Map<Integer, Double> samplingRates) {
-        double minSamplingRate = Double.MAX_VALUE;
-        List<Integer> candidatePartitions = new ArrayList<>();
-        
-        for (Map.Entry<Integer, Double> entry : samplingRates.entrySet()) {
-            double rate = entry.getValue();
-            if (rate < minSamplingRate) {
-                minSamplingRate = rate;
-                candidatePartitions.clear();
-                candidatePartitions.add(entry.getKey());
-            } else if (rate == minSamplingRate) {
-                candidatePartitions.add(entry.getKey());
-            }
+    public int[] allocatePartitions(int count) {
+        // 重置选择计数
+        allocator.reset();
+
+        int[] partitionOrder = new int[count];
+        for (int i = 0; i < count; i++) {
+            // 选择采样率最低的分区，并更新其计数和采样率
+            partitionOrder[i] = partitions.get(allocator.next()).getId();
         }
-        
-        // 如果有多个分区具有相同的最低采样率，随机选择一个
-        return candidatePartitions.get(random.nextInt(candidatePartitions.size()));
+        return partitionOrder;
     }
 
     /**
@@ -159,9 +147,9 @@ public class phase1_partition_generator {
      * @param partitionId 分区ID
      * @return 生成的测试用例
      */
-    private TestCase generateTestCaseInPartition(int partitionId) {
-        long magnitude = generateMagnitudeForPartition(partitionId);
-        long sign = generateSignForPartition(partitionId);
+    private TestCase generateTestCaseInPartition(int partitionId, RandomGenerator random) {
+        long magnitude = generateMagnitudeForPartition(partitionId, random);
+        long sign = generateSignForPartition(partitionId, random);
         return new TestCase(magnitude, sign, partitionId);
     }
 
@@ -171,14 +159,14 @@ public class phase1_partition_generator {
      * @param partitionId 分区ID (1-4)
      * @return 生成的magnitude值
      */
-    private long generateMagnitudeForPartition(int partitionId) {
+    private long generateMagnitudeForPartition(int partitionId, RandomGenerator random) {
         switch (partitionId) {
             case 1: // magnitude > 0, sign > 0
             case 2: // magnitude > 0, sign <= 0
-                return generatePositiveLong();
+                return generatePositiveLong(random);
             case 3: // magnitude <= 0, sign > 0
             case 4: // magnitude <= 0, sign <= 0
-                return generateNonPositiveLong();
+                return generateNonPositiveLong(random);
             default:
                 throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
@@ -190,14 +178,14 @@ public class phase1_partition_generator {
      * @param partitionId 分区ID (1-4)
      * @return 生成的sign值
      */
-    private long generateSignForPartition(int partitionId) {
+    private long generateSignForPartition(int partitionId, RandomGenerator random) {
         switch (partitionId) {
             case 1: // magnitude > 0, sign > 0
             case 3: // magnitude <= 0, sign > 0
-                return generatePositiveLong();
+                return generatePositiveLong(random);
             case 2: // magnitude > 0, sign <= 0
             case 4: // magnitude <= 0, sign <= 0
-                return generateNonPositiveLong();
+                return generateNonPositiveLong(random);
             default:
                 throw new IllegalArgumentException("无效的分区ID: " + partitionId);
         }
@@ -208,7 +196,7 @@ public class phase1_partition_generator {
      *
      * @return 正数long值
      */
-    private long generatePositiveLong() {
+    private long generatePositiveLong(RandomGenerator random) {
         // 使用默认正数范围
         long min = 1L;
         long max = 1000L;
@@ -225,7 +213,7 @@ public class phase1_partition_generator {
      *
      * @return 非正数long值
      */
-    private long generateNonPositiveLong() {
+    private long generateNonPositiveLong(RandomGenerator random) {
         // 使用默认非正数范围
         long min = -1000L;
         long max = 0L;
@@ -244,7 +232,14 @@ public class phase1_partition_generator {
      * @return 生成的测试用例
      */
     public TestCase generateTestCase(int partitionId) {
-        return generateTestCaseInPartition(partitionId);
+        return generateTestCase(partitionId, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器在指定分区中生成测试用例
+     */
+    public TestCase generateTestCase(int partitionId, RandomGenerator random) {
+        return generateTestCaseInPartition(partitionId, random);
     }
 
     /**
@@ -3,9 +3,11 @@ package paper.pss.exp.math2_project.generation.phase1;
 import paper.pss.exp.math2_project.model.TestCase;
 import paper.pss.exp.math2_project.utils.math2ConfigExtractor_utils;
 import paper.pss.exp.math2_project.utils.math2ConfigExtractor_utils.Partition;
+import paper.pss.exp.utils.ExperimentSeed_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * phase1_random_generator.java
@@ -39,7 +41,7 @@ public class phase1_random_generator {
     public phase1_random_generator(String configPath) throws IOException {
         this.configExtractor = new math2ConfigExtractor_utils(configPath);
         this.partitions = configExtractor.getPartitions();
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         
         validateConfig();
     }
@@ -84,10 +86,17 @@ public class phase1_random_generator {
      * @return 生成的测试用例列表
      */
     public List<TestCase> generate(int count) {
+        return generate(count, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<TestCase> generate(int count, RandomGenerator random) {
         List<TestCase> testCases = new ArrayList<>();
         
         for (int i = 0; i < count; i++) {
-            TestCase testCase = generateRandomTestCase();
+            TestCase testCase = generateRandomTestCase(random);
             testCases.add(testCase);
         }
         
@@ -100,8 +109,15 @@ public class phase1_random_generator {
      * @return 生成的测试用例
      */
     public TestCase generateRandomTestCase() {
-        long magnitude = generateRandomLong();
-        long sign = generateRandomLong();
+        return generateRandomTestCase(random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成单个随机测试用例
+     */
+    public TestCase generateRandomTestCase(RandomGenerator random) {
+        long magnitude = generateRandomLong(random);
+        long sign = generateRandomLong(random);
         int partitionId = -1;
         
         return new TestCase(magnitude, sign, partitionId);
@@ -112,7 +128,7 @@ public class phase1_random_generator {
      *
      * @return 随机long值
      */
-    private long generateRandomLong() {
+    private long generateRandomLong(RandomGenerator random) {
         // 使用默认范围生成随机值
         long range = DEFAULT_MAX_VALUE - DEFAULT_MIN_VALUE + 1;
         return DEFAULT_MIN_VALUE + (long) (random.nextDouble() * range);
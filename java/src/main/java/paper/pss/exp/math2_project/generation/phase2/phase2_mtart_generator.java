@@ -4,9 +4,12 @@ import paper.pss.exp.math2_project.model.MetamorphicGroup;
 import paper.pss.exp.math2_project.model.TestCase;
 import paper.pss.exp.math2_project.utils.math2ConfigExtractor_utils;
 import paper.pss.exp.math2_project.utils.MGDomainGenerator_utils;
+import paper.pss.exp.utils.ExperimentSeed_utils;
+import paper.pss.exp.utils.PartitionIndex_utils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * MT-ART生成器，基于论文策略1（优先平均距离+内部距离）实现，包含分区逻辑和全点对距离计算
@@ -15,6 +18,7 @@ public class phase2_mtart_generator {
     private final math2ConfigExtractor_utils configExtractor;
     private final Random random;
     private final List<MetamorphicGroup> mgDomain;
+    private final PartitionIndex_utils<MetamorphicGroup> partitionIndex; // 按源测试用例的magnitude排序的分区索引，构造时建立一次
 
     /**
      * 构造函数
@@ -24,8 +28,9 @@ public class phase2_mtart_generator {
      */
     public phase2_mtart_generator(String configPath, List<MetamorphicGroup> mgDomain) throws IOException {
         this.configExtractor = new math2ConfigExtractor_utils(configPath);
-        this.random = new Random();
+        this.random = new Random(ExperimentSeed_utils.DEFAULT_SEED);
         this.mgDomain = mgDomain;
+        this.partitionIndex = new PartitionIndex_utils<>(mgDomain, mg -> mg.getSourceTest().getMagnitude());
     }
 
     /**
@@ -38,13 +43,13 @@ public class phase2_mtart_generator {
     }
 
     /**
-     * 从TestCase中提取数值（适配math2项目的双参数结构）
+     * 从TestCase中提取数值（适配math2项目的双参数结构，缓存在测试用例上，只读）
      * 
      * @param testCase 测试用例
      * @return 数值数组 [magnitude, sign]
      */
     private double[] extractValues(TestCase testCase) {
-        return new double[]{(double) testCase.getMagnitude(), (double) testCase.getSign()};
+        return testCase.getFeatures();
     }
 
     /**
@@ -64,43 +69,14 @@ public class phase2_mtart_generator {
     }
 
     /**
-     * 基于source_test值创建等距分区（参考Python版本的统一分区策略）
+     * 基于源测试用例的magnitude创建等距分区（参考Python版本的统一分区策略）
+     * 排序索引在构造时建立，这里只需二分查找各分区的边界
      * 
-     * @param mgDomain      蜕变组域
      * @param numPartitions 分区数量
-     * @return 分区列表，每个分区包含对应的MetamorphicGroup
+     * @return 分区列表（只读视图），每个分区包含对应的MetamorphicGroup
      */
-    private List<List<MetamorphicGroup>> createPartitions(List<MetamorphicGroup> mgDomain, int numPartitions) {
-        if (mgDomain.isEmpty() || numPartitions <= 0) {
-            return new ArrayList<>();
-        }
-
-        // 获取所有source_test的magnitude值用于分区
-        List<Double> magnitudes = new ArrayList<>();
-        for (MetamorphicGroup mg : mgDomain) {
-            magnitudes.add((double) mg.getSourceTest().getMagnitude());
-        }
-
-        double minVal = Collections.min(magnitudes);
-        double maxVal = Collections.max(magnitudes);
-        double step = numPartitions > 1 ? (maxVal - minVal) / numPartitions : 1.0;
-
-        // 初始化分区
-        List<List<MetamorphicGroup>> partitions = new ArrayList<>();
-        for (int i = 0; i < numPartitions; i++) {
-            partitions.add(new ArrayList<>());
-        }
-
-        // 将MG分配到对应分区
-        for (MetamorphicGroup mg : mgDomain) {
-            double magnitude = mg.getSourceTest().getMagnitude();
-            int idx = (int) ((magnitude - minVal) / step);
-            // 处理边界情况
-            idx = Math.min(idx, numPartitions - 1);
-            partitions.get(idx).add(mg);
-        }
-
-        return partitions;
+    private List<List<MetamorphicGroup>> createPartitions(int numPartitions) {
+        return partitionIndex.equalWidthPartitions(numPartitions);
     }
 
     /**
@@ -113,7 +89,7 @@ public class phase2_mtart_generator {
      */
     private CandidateResult selectCandidates(List<List<MetamorphicGroup>> partitions,
                                               Set<Integer> coveredPartitions,
-                                              int candidatesPerIter) {
+                                              int candidatesPerIter, RandomGenerator random) {
         List<MetamorphicGroup> candidates = new ArrayList<>();
         List<Integer> partitionIndices = new ArrayList<>();
 
@@ -184,6 +160,13 @@ public class phase2_mtart_generator {
      * @return 生成的蜕变组列表
      */
     public List<MetamorphicGroup> generate(int numSamples) {
+        return generate(numSamples, random);
+    }
+
+    /**
+     * 使用调用方提供的随机数生成器生成，随机数流相同时生成结果相同
+     */
+    public List<MetamorphicGroup> generate(int numSamples, RandomGenerator random) {
         int candidatesPerIter = 5;
         if (numSamples > mgDomain.size()) {
             throw new IllegalArgumentException("样本数超过MG域大小");
@@ -195,7 +178,7 @@ public class phase2_mtart_generator {
 
         // 统一创建分区（参考Python版本：num_partitions = max(1, int(num_samples * 1.5))）
         int numPartitions = Math.max(1, (int) (numSamples * 1.5));
-        List<List<MetamorphicGroup>> partitions = createPartitions(mgDomain, numPartitions);
+        List<List<MetamorphicGroup>> partitions = createPartitions(numPartitions);
 
         List<MetamorphicGroup> selected = new ArrayList<>();
         List<double[]> recentCoords = new ArrayList<>(); // 维护最近5个坐标
@@ -203,7 +186,7 @@ public class phase2_mtart_generator {
 
         for (int iteration = 0; iteration < numSamples; iteration++) {
             // 选择候选集
-            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter);
+            CandidateResult candidateResult = selectCandidates(partitions, coveredPartitions, candidatesPerIter, random);
             List<MetamorphicGroup> candidates = candidateResult.candidates;
             List<Integer> partitionIndices = candidateResult.partitionIndices;
 
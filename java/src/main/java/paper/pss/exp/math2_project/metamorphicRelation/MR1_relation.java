@@ -2,7 +2,8 @@ package paper.pss.exp.math2_project.metamorphicRelation;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 import paper.pss.exp.math2_project.model.MetamorphicRelation;
 import paper.pss.exp.math2_project.model.MetamorphicGroup;
@@ -18,8 +19,6 @@ import paper.pss.exp.math2_project.model.TestCase;
  */
 public class MR1_relation implements MetamorphicRelation {
 
-    // Random number generator for generating non-zero positive coefficient k
-    private static final Random random = new Random();
 
     // Range for generating non-zero positive coefficient k
     private static final double MIN_K = 1.0;
@@ -38,6 +37,11 @@ public class MR1_relation implements MetamorphicRelation {
 
     @Override
     public List<TestCase> generateFollowupTests(TestCase sourceTest) {
+        return generateFollowupTests(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<TestCase> generateFollowupTests(TestCase sourceTest, RandomGenerator random) {
         List<TestCase> followupTests = new ArrayList<>();
 
         // Return empty list if source test case is not available
@@ -109,10 +113,15 @@ public class MR1_relation implements MetamorphicRelation {
 
     @Override
     public List<MetamorphicGroup> createGroups(TestCase sourceTest) {
+        return createGroups(sourceTest, ThreadLocalRandom.current());
+    }
+
+    @Override
+    public List<MetamorphicGroup> createGroups(TestCase sourceTest, RandomGenerator random) {
         List<MetamorphicGroup> groups = new ArrayList<>();
 
         // Generate follow-up test cases
-        List<TestCase> followupTests = generateFollowupTests(sourceTest);
+        List<TestCase> followupTests = generateFollowupTests(sourceTest, random);
 
         // Create a metamorphic group for each follow-up test
         for (TestCase followupTest : followupTests) {
@@ -1,15 +1,18 @@
 package paper.pss.exp.math2_project.model;
 
+import paper.pss.exp.utils.FeatureVector;
+
 /**
  * TestCase.java
  * 
  * This class represents a test case for the copySign function.
  * Each test case contains the input parameters (magnitude and sign) and a partition ID.
  */
-public class TestCase {
+public class TestCase implements FeatureVector {
     private final long magnitude; // First input parameter
     private final long sign; // Second input parameter
     private final int partitionId; // Partition ID for test organization
+    private volatile double[] features; // Cached feature vector, computed on first access
 
     /**
      * Creates a new test case with the specified parameters
@@ -51,6 +54,22 @@ public class TestCase {
         return partitionId;
     }
 
+    /**
+     * Gets the feature vector [magnitude, sign], computed once and cached.
+     * The returned array is shared and must not be modified.
+     * 
+     * @return The feature vector
+     */
+    @Override
+    public double[] getFeatures() {
+        double[] result = features;
+        if (result == null) {
+            result = new double[] { magnitude, sign };
+            features = result;
+        }
+        return result;
+    }
+
     /**
      * Returns a string representation of the test case
      * 
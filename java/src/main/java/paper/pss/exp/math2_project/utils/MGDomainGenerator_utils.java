@@ -4,9 +4,14 @@ import paper.pss.exp.math2_project.model.MetamorphicGroup;
 import paper.pss.exp.math2_project.model.TestCase;
 import paper.pss.exp.math2_project.generation.phase1.phase1_partition_generator;
 import paper.pss.exp.math2_project.model.MetamorphicRelation;
+import paper.pss.exp.utils.ColumnarMGDomain_utils;
+import paper.pss.exp.utils.ShardedDomainBuilder_utils;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -14,6 +19,9 @@ import java.util.stream.Collectors;
  * 基于jackson_project的MGDomainGenerator实现
  */
 public class MGDomainGenerator_utils {
+    // 自动计算域大小时的下限
+    private static final int DEFAULT_DOMAIN_SIZE = 5000;
+
     private String configPath;
     private math2ConfigExtractor_utils configExtractor;
     private int domainSize;
@@ -24,13 +32,13 @@ public class MGDomainGenerator_utils {
      * 默认构造函数
      */
     public MGDomainGenerator_utils() throws IOException {
-        this(1000);
+        this(0);
     }
 
     /**
      * 初始化蜕变组域生成器
      * 
-     * @param domainSize 域的大小(源测试用例数量)
+     * @param domainSize 域的大小(源测试用例数量)，不大于0时按 calculateDomainSize() 计算
      */
     public MGDomainGenerator_utils(int domainSize) throws IOException {
         this("src/main/java/paper/pss/exp/math2_project/math2_config.json", domainSize);
@@ -40,12 +48,12 @@ public class MGDomainGenerator_utils {
      * 初始化蜕变组域生成器
      * 
      * @param configPath 配置文件路径
-     * @param domainSize 域的大小(源测试用例数量)
+     * @param domainSize 域的大小(源测试用例数量)，不大于0时按 calculateDomainSize() 计算
      */
     public MGDomainGenerator_utils(String configPath, int domainSize) throws IOException {
         this.configPath = configPath;
         this.configExtractor = new math2ConfigExtractor_utils(configPath);
-        this.domainSize = calculateDomainSize();
+        this.domainSize = domainSize > 0 ? domainSize : calculateDomainSize();
         this.partitionGenerator = new phase1_partition_generator(configPath);
         this.allMRTypes = loadAllMRTypes();
     }
@@ -65,18 +73,117 @@ public class MGDomainGenerator_utils {
      * @return 生成的蜕变组域
      */
     public List<MetamorphicGroup> generateDomain() {
-        // 1. 生成源测试用例
-        List<TestCase> sourceTests = partitionGenerator.generate(domainSize);
+        return generateDomain(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * 使用指定种子生成蜕变组域
+     * 各源测试用例所属的分区由最大最小算法一次性确定，源测试用例按固定大小分片并行生成并展开为蜕变组，
+     * 每个分片使用从种子 split 出的独立随机数流，分片结果按源测试用例顺序合并，合并结果与线程数量无关
+     * 
+     * @param seed 根种子
+     * @return 生成的蜕变组域
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> generateDomain(long seed) {
+        // 1. 确定每个源测试用例所属的分区
+        int[] partitionOrder = partitionGenerator.allocatePartitions(domainSize);
+
+        // 2. 分片并行生成源测试用例，并为每个源测试用例应用所有适用的蜕变关系
+        List<List<MetamorphicGroup>> groupsBySource = ShardedDomainBuilder_utils.build(domainSize, seed,
+                (from, to, rng) -> {
+                    phase1_partition_generator shardGenerator = new phase1_partition_generator(configPath, rng);
+                    List<List<MetamorphicGroup>> groups = new ArrayList<>(to - from);
+                    for (int sourceIndex = from; sourceIndex < to; sourceIndex++) {
+                        TestCase sourceTest = shardGenerator.generateTestCase(partitionOrder[sourceIndex]);
+                        groups.add(MRFactory_utils.generateAllGroups(sourceTest, rng));
+                    }
+                    return groups;
+                });
+
+        // 3. 按源测试用例顺序合并为列式存储的MG域，同一源测试用例的MG在域中连续存放
+        return new ColumnarMGDomain_utils<>(groupsBySource, MetamorphicGroup.class, new DomainLayout());
+    }
+
+    /**
+     * 读取MG域快照，只有快照由当前配置文件、指定种子和当前域大小生成时才会被复用
+     * 
+     * @param snapshotFile 快照文件
+     * @param seed         根种子
+     * @return 快照中的蜕变组域，快照不存在或不匹配时为 null
+     */
+    public ColumnarMGDomain_utils<MetamorphicGroup, TestCase> loadDomain(Path snapshotFile, long seed)
+            throws IOException {
+        ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain = ColumnarMGDomain_utils.loadSnapshot(snapshotFile,
+                MetamorphicGroup.class, new DomainLayout(), seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+        return domain != null && domain.getSourceCount() == domainSize ? domain : null;
+    }
+
+    /**
+     * 将蜕变组域保存为快照，供同一项目的其他运行复用
+     * 
+     * @param domain       generateDomain(seed) 生成的蜕变组域
+     * @param snapshotFile 快照文件
+     * @param seed         生成该域的根种子
+     */
+    public void saveDomain(ColumnarMGDomain_utils<MetamorphicGroup, TestCase> domain, Path snapshotFile, long seed)
+            throws IOException {
+        domain.writeSnapshot(snapshotFile, seed, ColumnarMGDomain_utils.configHash(Paths.get(configPath)));
+    }
+
+    /**
+     * MG域的列式存储结构：后续测试用例编码为 [magnitude, sign, 分区ID]，
+     * 视图创建时记录MG在域中的位置
+     */
+    private static class DomainLayout implements ColumnarMGDomain_utils.Layout<MetamorphicGroup, TestCase> {
+        @Override
+        public String mrId(MetamorphicGroup group) {
+            return group.getMRId();
+        }
+
+        @Override
+        public String description(MetamorphicGroup group) {
+            return group.getDescription();
+        }
+
+        @Override
+        public TestCase sourceTest(MetamorphicGroup group) {
+            return group.getSourceTest();
+        }
 
-        // 2. 为每个源测试用例应用所有适用的蜕变关系
-        List<MetamorphicGroup> mgDomain = new ArrayList<>();
+        @Override
+        public TestCase followupTest(MetamorphicGroup group) {
+            return group.getFollowupTest();
+        }
 
-        for (TestCase sourceTest : sourceTests) {
-            List<MetamorphicGroup> mgs = MRFactory_utils.generateAllGroups(sourceTest);
-            mgDomain.addAll(mgs);
+        @Override
+        public int domainIndex(MetamorphicGroup group) {
+            return group.getDomainIndex();
         }
 
-        return mgDomain;
+        @Override
+        public int encodedLength(TestCase test) {
+            return 3;
+        }
+
+        @Override
+        public void encode(TestCase test, long[] out, int offset) {
+            out[offset] = test.getMagnitude();
+            out[offset + 1] = test.getSign();
+            out[offset + 2] = test.getPartitionId();
+        }
+
+        @Override
+        public TestCase decode(long[] in, int offset, int length) {
+            return new TestCase(in[offset], in[offset + 1], (int) in[offset + 2]);
+        }
+
+        @Override
+        public MetamorphicGroup view(String mrId, String description, TestCase sourceTest, TestCase followupTest,
+                int domainIndex, int sourceIndex) {
+            MetamorphicGroup group = new MetamorphicGroup(mrId, description, sourceTest, followupTest);
+            group.assignDomainIndex(domainIndex, sourceIndex);
+            return group;
+        }
     }
 
     /**
@@ -99,8 +206,8 @@ public class MGDomainGenerator_utils {
         // 推荐域大小（每类最少minSamplesPerCategory，考虑安全系数1.5）
         int suggestedSize = (int) (minSamplesPerCategory * totalCategories * 1.5);
         
-        // 最小1000，最大3000
-        return Math.min(Math.max(suggestedSize, 5000), 5000);
+        // 不少于默认域大小，不设上限；需要更大的域时通过构造函数指定域大小
+        return Math.max(suggestedSize, DEFAULT_DOMAIN_SIZE);
     }
 
     /**
@@ -0,0 +1,78 @@
+package paper.pss.exp.math2_project.utils;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import paper.pss.exp.math2_project.model.MetamorphicGroup;
+import paper.pss.exp.math2_project.model.TestCase;
+
+/**
+ * 突变体输出缓存
+ *
+ * MG域在实验过程中固定不变，且突变体是确定性的，因此同一突变体在同一测试用例上的输出
+ * 只需计算一次。该类按 MG 在域中的下标保存某个突变体的全部输出：
+ * 源测试用例按 sourceIndex 存放（同一源测试用例的多个MG共享），后续测试用例按 domainIndex 存放。
+ * 填充完成后只读，可以在所有策略和工作线程之间共享。
+ */
+public class MutantOutputCache_utils {
+    private final List<MetamorphicGroup> mgDomain;
+    private final int[] sourceOutputs;
+    private final int[] followupOutputs;
+
+    /**
+     * 为给定的MG域创建一个空的输出缓存
+     *
+     * @param mgDomain 由MG域生成器构建的MG域
+     */
+    public MutantOutputCache_utils(List<MetamorphicGroup> mgDomain) {
+        this.mgDomain = mgDomain;
+        int sourceCount = 0;
+        for (MetamorphicGroup mg : mgDomain) {
+            sourceCount = Math.max(sourceCount, mg.getSourceIndex() + 1);
+        }
+        this.sourceOutputs = new int[sourceCount];
+        this.followupOutputs = new int[mgDomain.size()];
+    }
+
+    /**
+     * 执行突变体并填充 [from, to) 范围内的MG输出；不同范围可以由不同线程并行填充
+     *
+     * @param from     起始下标（包含）
+     * @param to       结束下标（不包含）
+     * @param executor 在单个测试用例上执行突变体的函数
+     */
+    public void fill(int from, int to, ToIntFunction<TestCase> executor) {
+        // MG域的 get 每次都会生成视图，记录上一个MG的源测试用例下标，避免重复读取
+        int previousSource = from > 0 ? mgDomain.get(from - 1).getSourceIndex() : -1;
+        for (int i = from; i < to; i++) {
+            MetamorphicGroup mg = mgDomain.get(i);
+            followupOutputs[i] = executor.applyAsInt(mg.getFollowupTest());
+            // 同一源测试用例的MG在域中连续存放，只由第一个MG负责计算源测试用例的输出
+            if (mg.getSourceIndex() != previousSource) {
+                sourceOutputs[mg.getSourceIndex()] = executor.applyAsInt(mg.getSourceTest());
+            }
+            previousSource = mg.getSourceIndex();
+        }
+    }
+
+    /**
+     * 判断给定的MG是否属于缓存对应的MG域
+     */
+    public boolean isCached(MetamorphicGroup mg) {
+        int index = mg.getDomainIndex();
+        // MG域的 get 每次返回新的视图，需通过 contains 判断归属（列式MG域为 O(1)）
+        return index >= 0 && index < followupOutputs.length && mgDomain.contains(mg);
+    }
+
+    public int getSourceOutput(MetamorphicGroup mg) {
+        return sourceOutputs[mg.getSourceIndex()];
+    }
+
+    public int getFollowupOutput(MetamorphicGroup mg) {
+        return followupOutputs[mg.getDomainIndex()];
+    }
+
+    public int size() {
+        return followupOutputs.length;
+    }
+}
@@ -0,0 +1,151 @@
+package paper.pss.exp.utils;
+
+import java.util.Arrays;
+
+/**
+ * ART 最近邻索引（k-d 树）
+ * ART 每一步都要求候选用例到所有已选用例的最小距离，逐一比较时生成 n 个用例的总代价为 O(n²)。
+ * 该索引保存已选用例的特征向量，最近邻查询只访问可能更近的子树，使大规模（数千个）ART 用例集的生成
+ * 不再随规模平方增长。
+ *
+ * 距离函数由各生成器提供，以保持与原有距离定义完全一致；剪枝所需的下界由 axisWeights 给出：
+ * 对任意特征向量 a、b 和任意维度 k，必须满足 distance(a, b) >= axisWeights[k] * |a[k] - b[k]|。
+ * 例如 "坐标欧氏距离 + 0.1 × 宽度差" 的权重为 {1, 1, 0.1}。
+ */
+public class ArtIndex_utils {
+
+    /**
+     * 特征向量之间的距离
+     */
+    @FunctionalInterface
+    public interface FeatureDistance {
+        double apply(double[] a, double[] b);
+    }
+
+    // 下界放宽系数，避免各生成器的距离计算（如 float 运算）的舍入误差导致错误剪枝
+    private static final double BOUND_SLACK = 1.0 - 1e-9;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double[] axisWeights;
+    private final FeatureDistance distance;
+    private final int dimensions;
+
+    // 节点按插入顺序存放：特征向量、划分维度、左右子节点（-1 表示空）
+    private double[][] points = new double[INITIAL_CAPACITY][];
+    private int[] axes = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // 查询时复用的显式栈，避免退化的树导致递归过深
+    private int[] stackNodes = new int[INITIAL_CAPACITY];
+    private double[] stackBounds = new double[INITIAL_CAPACITY];
+
+    /**
+     * @param axisWeights 每个维度的下界权重，长度即特征维度
+     * @param distance    特征向量之间的距离
+     */
+    public ArtIndex_utils(double[] axisWeights, FeatureDistance distance) {
+        this.axisWeights = axisWeights.clone();
+        this.distance = distance;
+        this.dimensions = axisWeights.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 加入一个已选用例的特征向量
+     */
+    public void add(double[] feature) {
+        ensureCapacity(size + 1);
+        int node = size++;
+        points[node] = feature;
+        left[node] = -1;
+        right[node] = -1;
+        if (node == 0) {
+            axes[node] = 0;
+            return;
+        }
+        int current = 0;
+        while (true) {
+            int axis = axes[current];
+            boolean goLeft = feature[axis] < points[current][axis];
+            int next = goLeft ? left[current] : right[current];
+            if (next < 0) {
+                if (goLeft) {
+                    left[current] = node;
+                } else {
+                    right[current] = node;
+                }
+                axes[node] = (axis + 1) % dimensions;
+                return;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * 查询到已选用例的最小距离，索引为空时返回 Double.MAX_VALUE
+     */
+    public double nearestDistance(double[] query) {
+        double best = Double.MAX_VALUE;
+        if (size == 0) {
+            return best;
+        }
+        int top = 0;
+        stackNodes[top] = 0;
+        stackBounds[top] = 0.0;
+        top++;
+        while (top > 0) {
+            top--;
+            int node = stackNodes[top];
+            double bound = stackBounds[top];
+            if (bound * BOUND_SLACK >= best) {
+                continue;
+            }
+            double dist = distance.apply(query, points[node]);
+            if (dist < best) {
+                best = dist;
+            }
+            int axis = axes[node];
+            double diff = query[axis] - points[node][axis];
+            int near = diff < 0 ? left[node] : right[node];
+            int far = diff < 0 ? right[node] : left[node];
+            ensureStackCapacity(top + 2);
+            // 先压入远侧子树，近侧子树先出栈，尽早缩小当前最小距离
+            if (far >= 0) {
+                stackNodes[top] = far;
+                stackBounds[top] = Math.max(bound, axisWeights[axis] * Math.abs(diff));
+                top++;
+            }
+            if (near >= 0) {
+                stackNodes[top] = near;
+                stackBounds[top] = bound;
+                top++;
+            }
+        }
+        return best;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= points.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, points.length * 2);
+        points = Arrays.copyOf(points, newCapacity);
+        axes = Arrays.copyOf(axes, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+    }
+
+    private void ensureStackCapacity(int capacity) {
+        if (capacity <= stackNodes.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, stackNodes.length * 2);
+        stackNodes = Arrays.copyOf(stackNodes, newCapacity);
+        stackBounds = Arrays.copyOf(stackBounds, newCapacity);
+    }
+}
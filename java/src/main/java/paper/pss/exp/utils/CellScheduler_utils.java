@@ -0,0 +1,76 @@
+package paper.pss.exp.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 细粒度实验单元调度工具
+ * 将实验拆分为若干个独立的单元（例如 突变体 × 测试用例数量 × 外层迭代），
+ * 在 work-stealing 的 ForkJoinPool 上执行。
+ * 相比每个突变体一个任务，单元数量远多于线程数，少量耗时较长的突变体不会再
+ * 让其余核心空闲等待。
+ */
+public class CellScheduler_utils {
+
+    /**
+     * 单个实验单元的执行逻辑，cell 为 [0, cellCount) 内的单元编号
+     */
+    @FunctionalInterface
+    public interface CellBody {
+        void run(int cell) throws Exception;
+    }
+
+    /**
+     * 单元执行失败时的回调，失败不会中断其他单元
+     */
+    @FunctionalInterface
+    public interface CellErrorHandler {
+        void onError(int cell, Exception e);
+    }
+
+    /**
+     * 在给定线程池上执行全部单元，所有单元结束后返回
+     *
+     * @param pool         执行单元的线程池
+     * @param cellCount    单元总数
+     * @param body         单元执行逻辑
+     * @param errorHandler 单元异常回调
+     */
+    public static void runCells(ForkJoinPool pool, int cellCount, CellBody body, CellErrorHandler errorHandler) {
+        if (cellCount <= 0) {
+            return;
+        }
+        pool.invoke(new CellRange(0, cellCount, body, errorHandler));
+    }
+
+    // 按区间二分拆分的任务：每个叶子只执行一个单元，空闲线程可从其他线程的队列尾部窃取剩余区间
+    private static class CellRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final transient CellBody body;
+        private final transient CellErrorHandler errorHandler;
+
+        CellRange(int from, int to, CellBody body, CellErrorHandler errorHandler) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+            this.errorHandler = errorHandler;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    body.run(from);
+                } catch (Exception e) {
+                    errorHandler.onError(from, e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CellRange(from, mid, body, errorHandler), new CellRange(mid, to, body, errorHandler));
+        }
+    }
+}
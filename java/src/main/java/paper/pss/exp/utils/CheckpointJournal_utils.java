@@ -0,0 +1,171 @@
+package paper.pss.exp.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 实验断点日志
+ * 长时间运行的实验每完成一个 (突变体, 测试用例数量) 的全部外层迭代，就向只追加的 JSONL 文件写入一行，
+ * 进程崩溃后以续跑模式重新运行时可跳过已完成的部分，只补算缺失的结果。
+ *
+ * 文件第一行记录实验配置，续跑时配置不一致的日志会被丢弃；崩溃时写了一半的最后一行会被忽略。
+ */
+public class CheckpointJournal_utils implements Closeable {
+
+    /**
+     * 日志中的一条完成记录
+     */
+    public static class Entry {
+        public final String mutant;
+        public final int testCasesNum;
+        public final List<Double> pMeasures;
+        public final List<Integer> trials;
+
+        public Entry(String mutant, int testCasesNum, List<Double> pMeasures, List<Integer> trials) {
+            this.mutant = mutant;
+            this.testCasesNum = testCasesNum;
+            this.pMeasures = pMeasures;
+            this.trials = trials;
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path file;
+    // 突变体 + 测试用例数量 -> 已完成的记录（同一键出现多次时以最后一次为准）
+    private final Map<String, Entry> completed = new LinkedHashMap<>();
+    private BufferedWriter writer;
+
+    private CheckpointJournal_utils(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开断点日志
+     *
+     * @param file   日志文件
+     * @param config 实验配置，续跑时必须与日志中记录的配置完全一致
+     * @param resume 是否续跑；为 false 时清空已有日志
+     * @return 断点日志
+     */
+    public static CheckpointJournal_utils open(Path file, Map<String, Object> config, boolean resume)
+            throws IOException {
+        CheckpointJournal_utils journal = new CheckpointJournal_utils(file);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        JsonNode expected = journal.mapper.valueToTree(config);
+        if (resume && Files.exists(file)) {
+            journal.read(expected);
+        }
+
+        // 重写一份只包含有效记录的日志后再追加，避免新记录接在崩溃时写了一半的行后面
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("config", config);
+            out.write(journal.mapper.writeValueAsString(header));
+            out.newLine();
+            for (Entry entry : journal.completed.values()) {
+                out.write(journal.mapper.writeValueAsString(toJson(entry)));
+                out.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        return journal;
+    }
+
+    private void read(JsonNode expectedConfig) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+            JsonNode header;
+            try {
+                header = mapper.readTree(line);
+            } catch (IOException e) {
+                return;
+            }
+            if (!expectedConfig.equals(header.path("config"))) {
+                // 实验配置已改变，旧的结果不能复用
+                return;
+            }
+            while ((line = reader.readLine()) != null) {
+                JsonNode node;
+                try {
+                    node = mapper.readTree(line);
+                } catch (IOException e) {
+                    // 崩溃时未写完的行
+                    continue;
+                }
+                if (node == null || !node.hasNonNull("mutant") || !node.has("pMeasures")) {
+                    continue;
+                }
+                List<Double> pMeasures = new ArrayList<>();
+                for (JsonNode value : node.path("pMeasures")) {
+                    pMeasures.add(value.asDouble());
+                }
+                List<Integer> trials = new ArrayList<>();
+                for (JsonNode value : node.path("trials")) {
+                    trials.add(value.asInt());
+                }
+                Entry entry = new Entry(node.path("mutant").asText(), node.path("testCasesNum").asInt(), pMeasures,
+                        trials);
+                completed.put(key(entry.mutant, entry.testCasesNum), entry);
+            }
+        }
+    }
+
+    private static Map<String, Object> toJson(Entry entry) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("mutant", entry.mutant);
+        json.put("testCasesNum", entry.testCasesNum);
+        json.put("pMeasures", entry.pMeasures);
+        json.put("trials", entry.trials);
+        return json;
+    }
+
+    private static String key(String mutant, int testCasesNum) {
+        return mutant + "#" + testCasesNum;
+    }
+
+    /**
+     * 续跑时从日志中恢复的已完成记录
+     */
+    public List<Entry> getCompleted() {
+        return new ArrayList<>(completed.values());
+    }
+
+    /**
+     * 追加一条完成记录并立即刷新到磁盘，可被多个工作线程并发调用
+     */
+    public synchronized void append(String mutant, int testCasesNum, List<Double> pMeasures, List<Integer> trials)
+            throws IOException {
+        Entry entry = new Entry(mutant, testCasesNum, pMeasures, trials);
+        writer.write(mapper.writeValueAsString(toJson(entry)));
+        writer.newLine();
+        writer.flush();
+        completed.put(key(mutant, testCasesNum), entry);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
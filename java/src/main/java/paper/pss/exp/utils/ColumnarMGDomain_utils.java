@@ -0,0 +1,578 @@
+package paper.pss.exp.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * 列式存储的MG域
+ * 逐个对象保存的MG域中，每个MG都有独立的 MetamorphicGroup 对象和后续测试用例对象，对象头、引用和
+ * 包装类型（数组、Date、Line2D 等）占据了大部分堆空间，域规模达到百万级时无法放入内存。
+ *
+ * 该类按列保存MG域：MR编号（byte）、源测试用例下标（int）、后续测试用例的编码（打包在同一个 long 数组中，
+ * 通过偏移量定位）。源测试用例被同一源的所有MG共享，仍以对象形式保存，其特征向量缓存得以保留。
+ * get(i) 返回按需解码的 MG 视图（flyweight），视图不被缓存，同一下标两次 get 得到的是不同对象，
+ * 判断某个MG是否属于该域应使用 contains，而不是比较对象引用。
+ *
+ * 持有整个域的派生结构（分区映射、排序索引等）应使用 indexView / groupByKey 保存下标，而不是复制视图。
+ *
+ * 域可以保存为带版本号的二进制快照（writeSnapshot），快照记录生成域的种子和配置文件摘要，
+ * 各列原样写入文件；loadSnapshot 通过 FileChannel.map 映射各列，只解码源测试用例，
+ * 因此同一项目的多次运行可以几乎零开销地复用同一个域，且内容完全一致。
+ */
+public class ColumnarMGDomain_utils<G, T> extends AbstractList<G> implements RandomAccess {
+
+    /**
+     * 各项目的MG与测试用例结构：如何读取MG的字段、如何编解码测试用例、如何创建视图
+     */
+    public interface Layout<G, T> {
+        String mrId(G group);
+
+        String description(G group);
+
+        T sourceTest(G group);
+
+        T followupTest(G group);
+
+        int domainIndex(G group);
+
+        /**
+         * 测试用例编码后占用的 long 数量
+         */
+        int encodedLength(T test);
+
+        void encode(T test, long[] out, int offset);
+
+        T decode(long[] in, int offset, int length);
+
+        /**
+         * 创建MG视图，并记录其在域中的位置
+         */
+        G view(String mrId, String description, T sourceTest, T followupTest, int domainIndex, int sourceIndex);
+    }
+
+    // 快照文件的魔数和格式版本，格式变化时递增版本号，旧快照随之失效
+    private static final byte[] SNAPSHOT_MAGIC = "PSALMMGD".getBytes(StandardCharsets.US_ASCII);
+    private static final int SNAPSHOT_VERSION = 1;
+    // 魔数、版本号、头部长度
+    private static final int SNAPSHOT_PREAMBLE_LENGTH = 16;
+    private static final int SNAPSHOT_CHUNK_BYTES = 1 << 20;
+
+    private final Class<G> groupType;
+    private final Layout<G, T> layout;
+
+    // MR字典：mrIndex 列中的编号对应的 MR ID 和描述
+    private final String[] mrIds;
+    private final String[] descriptions;
+    // 源测试用例，下标为源测试用例编号；没有任何MG的源测试用例为 null
+    private final Object[] sources;
+
+    // 各列：内存中构建时包装基本类型数组，从快照加载时为文件的内存映射
+    private final int size;
+    private final ByteBuffer mrIndex;
+    private final IntBuffer sourceIndex;
+    // 第 i 个MG的后续测试用例编码位于 payload[payloadOffsets[i], payloadOffsets[i + 1])
+    private final IntBuffer payloadOffsets;
+    private final LongBuffer payload;
+
+    /**
+     * @param groupsBySource 第 s 个元素为第 s 个源测试用例的全部MG（同一列表中的MG必须共享同一个源测试用例对象）
+     * @param groupType      MG类型
+     * @param layout         MG与测试用例结构
+     */
+    public ColumnarMGDomain_utils(List<List<G>> groupsBySource, Class<G> groupType, Layout<G, T> layout) {
+        this.groupType = groupType;
+        this.layout = layout;
+
+        int size = 0;
+        long payloadLength = 0;
+        for (List<G> groups : groupsBySource) {
+            size += groups.size();
+            for (G group : groups) {
+                payloadLength += layout.encodedLength(layout.followupTest(group));
+            }
+        }
+        if (payloadLength > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("MG域过大，后续测试用例编码长度超出上限: " + payloadLength);
+        }
+
+        this.sources = new Object[groupsBySource.size()];
+        byte[] mrIndex = new byte[size];
+        int[] sourceIndex = new int[size];
+        int[] payloadOffsets = new int[size + 1];
+        long[] payload = new long[(int) payloadLength];
+
+        Map<String, Integer> mrDictionary = new HashMap<>();
+        List<String[]> mrEntries = new ArrayList<>();
+        int index = 0;
+        int offset = 0;
+        for (int s = 0; s < groupsBySource.size(); s++) {
+            for (G group : groupsBySource.get(s)) {
+                T source = layout.sourceTest(group);
+                if (sources[s] == null) {
+                    sources[s] = source;
+                } else if (sources[s] != source) {
+                    throw new IllegalArgumentException("源测试用例 " + s + " 的MG没有共享同一个源测试用例对象");
+                }
+
+                String mrId = layout.mrId(group);
+                String description = layout.description(group);
+                Integer mr = mrDictionary.get(mrId + "\u0000" + description);
+                if (mr == null) {
+                    mr = mrEntries.size();
+                    if (mr > Byte.MAX_VALUE) {
+                        throw new IllegalArgumentException("MR数量超过列式存储上限: " + (mr + 1));
+                    }
+                    mrDictionary.put(mrId + "\u0000" + description, mr);
+                    mrEntries.add(new String[] {mrId, description});
+                }
+
+                T followup = layout.followupTest(group);
+                int length = layout.encodedLength(followup);
+                layout.encode(followup, payload, offset);
+
+                mrIndex[index] = (byte) (int) mr;
+                sourceIndex[index] = s;
+                payloadOffsets[index] = offset;
+                offset += length;
+                index++;
+            }
+        }
+        payloadOffsets[size] = offset;
+
+        this.size = size;
+        this.mrIndex = ByteBuffer.wrap(mrIndex);
+        this.sourceIndex = IntBuffer.wrap(sourceIndex);
+        this.payloadOffsets = IntBuffer.wrap(payloadOffsets);
+        this.payload = LongBuffer.wrap(payload);
+
+        this.mrIds = new String[mrEntries.size()];
+        this.descriptions = new String[mrEntries.size()];
+        for (int m = 0; m < mrEntries.size(); m++) {
+            mrIds[m] = mrEntries.get(m)[0];
+            descriptions[m] = mrEntries.get(m)[1];
+        }
+    }
+
+    private ColumnarMGDomain_utils(Class<G> groupType, Layout<G, T> layout, String[] mrIds, String[] descriptions,
+            Object[] sources, int size, ByteBuffer mrIndex, IntBuffer sourceIndex, IntBuffer payloadOffsets,
+            LongBuffer payload) {
+        this.groupType = groupType;
+        this.layout = layout;
+        this.mrIds = mrIds;
+        this.descriptions = descriptions;
+        this.sources = sources;
+        this.size = size;
+        this.mrIndex = mrIndex;
+        this.sourceIndex = sourceIndex;
+        this.payloadOffsets = payloadOffsets;
+        this.payload = payload;
+    }
+
+    @Override
+    public G get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int mr = mrIndex.get(index);
+        int source = sourceIndex.get(index);
+        int from = payloadOffsets.get(index);
+        int length = payloadOffsets.get(index + 1) - from;
+        T followup;
+        if (payload.hasArray()) {
+            followup = layout.decode(payload.array(), payload.arrayOffset() + from, length);
+        } else {
+            // 内存映射的列：先把该MG的编码复制到临时数组
+            long[] encoded = new long[length];
+            payload.get(from, encoded);
+            followup = layout.decode(encoded, 0, length);
+        }
+        return layout.view(mrIds[mr], descriptions[mr], getSource(source), followup, index, source);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 判断MG是否为该域的视图：下标有效，且与该下标共享同一个源测试用例对象、同一个MR（O(1)）
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!groupType.isInstance(o)) {
+            return false;
+        }
+        G group = groupType.cast(o);
+        int index = layout.domainIndex(group);
+        return index >= 0 && index < size
+                && layout.sourceTest(group) == sources[sourceIndex.get(index)]
+                && mrIds[mrIndex.get(index)].equals(layout.mrId(group));
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return contains(o) ? layout.domainIndex(groupType.cast(o)) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * 获取源测试用例（共享对象）
+     */
+    @SuppressWarnings("unchecked")
+    public T getSource(int sourceIndex) {
+        return (T) sources[sourceIndex];
+    }
+
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    /**
+     * 计算配置文件的SHA-256摘要，用于判断快照是否由当前配置生成
+     */
+    public static String configHash(Path configFile) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest(Files.readAllBytes(configFile))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 将域保存为二进制快照（先写入临时文件再原子替换）
+     * 文件格式（大端序）：
+     * "PSALMMGD" | 版本号 | 头部长度 | 头部 | mrIndex 列 | sourceIndex 列 | payloadOffsets 列 | payload 列，
+     * 头部包含种子、配置文件摘要、结构名称、MG数量、源测试用例数量、payload 长度、MR字典和编码后的源测试用例，
+     * 各列按元素大小对齐
+     *
+     * @param file       快照文件
+     * @param seed       生成该域的种子
+     * @param configHash 生成该域的配置文件摘要
+     */
+    @SuppressWarnings("unchecked")
+    public void writeSnapshot(Path file, long seed, String configHash) throws IOException {
+        int payloadLength = payloadOffsets.get(size);
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeLong(seed);
+        header.writeUTF(configHash);
+        header.writeUTF(layout.getClass().getName());
+        header.writeInt(size);
+        header.writeInt(sources.length);
+        header.writeInt(payloadLength);
+        header.writeInt(mrIds.length);
+        for (int m = 0; m < mrIds.length; m++) {
+            header.writeUTF(mrIds[m]);
+            header.writeUTF(descriptions[m]);
+        }
+        for (Object source : sources) {
+            if (source == null) {
+                header.writeInt(-1);
+                continue;
+            }
+            T test = (T) source;
+            long[] encoded = new long[layout.encodedLength(test)];
+            layout.encode(test, encoded, 0);
+            header.writeInt(encoded.length);
+            for (long value : encoded) {
+                header.writeLong(value);
+            }
+        }
+        header.flush();
+        byte[] headerArray = headerBytes.toByteArray();
+        SnapshotSections sections = new SnapshotSections(headerArray.length, size, payloadLength);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer preamble = ByteBuffer.allocate(SNAPSHOT_PREAMBLE_LENGTH);
+            preamble.put(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(headerArray.length).flip();
+            writeFully(channel, preamble, 0);
+            writeFully(channel, ByteBuffer.wrap(headerArray), SNAPSHOT_PREAMBLE_LENGTH);
+            writeFully(channel, mrIndex.duplicate().position(0).limit(size), sections.mrIndex);
+            writeInts(channel, sourceIndex, size, sections.sourceIndex);
+            writeInts(channel, payloadOffsets, size + 1, sections.payloadOffsets);
+            writeLongs(channel, payload, payloadLength, sections.payload);
+            // payload 为空时末尾的对齐填充没有被写入
+            if (channel.size() < sections.end) {
+                writeFully(channel, ByteBuffer.allocate((int) (sections.end - channel.size())), channel.size());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读取二进制快照，各列以只读内存映射的形式加载，只有源测试用例被解码为对象
+     * 文件不存在，或快照的格式版本、种子、配置文件摘要、结构与当前不一致时返回 null
+     *
+     * @param file       快照文件
+     * @param groupType  MG类型
+     * @param layout     MG与测试用例结构
+     * @param seed       期望的种子
+     * @param configHash 期望的配置文件摘要
+     * @return 快照中的MG域，不可复用时为 null
+     */
+    public static <G, T> ColumnarMGDomain_utils<G, T> loadSnapshot(Path file, Class<G> groupType, Layout<G, T> layout,
+            long seed, String configHash) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < SNAPSHOT_PREAMBLE_LENGTH) {
+                return null;
+            }
+            ByteBuffer preamble = ByteBuffer.allocate(SNAPSHOT_PREAMBLE_LENGTH);
+            readFully(channel, preamble, 0);
+            byte[] magic = new byte[SNAPSHOT_MAGIC.length];
+            preamble.get(magic);
+            if (!Arrays.equals(magic, SNAPSHOT_MAGIC) || preamble.getInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            int headerLength = preamble.getInt();
+            if (headerLength < 0 || SNAPSHOT_PREAMBLE_LENGTH + (long) headerLength > fileSize) {
+                return null;
+            }
+            ByteBuffer headerBuffer = ByteBuffer.allocate(headerLength);
+            readFully(channel, headerBuffer, SNAPSHOT_PREAMBLE_LENGTH);
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(headerBuffer.array()));
+            if (header.readLong() != seed || !header.readUTF().equals(configHash)
+                    || !header.readUTF().equals(layout.getClass().getName())) {
+                return null;
+            }
+            int size = header.readInt();
+            int sourceCount = header.readInt();
+            int payloadLength = header.readInt();
+            int mrCount = header.readInt();
+            String[] mrIds = new String[mrCount];
+            String[] descriptions = new String[mrCount];
+            for (int m = 0; m < mrCount; m++) {
+                mrIds[m] = header.readUTF();
+                descriptions[m] = header.readUTF();
+            }
+            Object[] sources = new Object[sourceCount];
+            for (int s = 0; s < sourceCount; s++) {
+                int length = header.readInt();
+                if (length < 0) {
+                    continue;
+                }
+                long[] encoded = new long[length];
+                for (int i = 0; i < length; i++) {
+                    encoded[i] = header.readLong();
+                }
+                sources[s] = layout.decode(encoded, 0, length);
+            }
+
+            SnapshotSections sections = new SnapshotSections(headerLength, size, payloadLength);
+            if (sections.end != fileSize) {
+                return null;
+            }
+            ByteBuffer mrIndex = channel.map(FileChannel.MapMode.READ_ONLY, sections.mrIndex, size);
+            IntBuffer sourceIndex = channel.map(FileChannel.MapMode.READ_ONLY, sections.sourceIndex, 4L * size)
+                    .asIntBuffer();
+            IntBuffer payloadOffsets = channel
+                    .map(FileChannel.MapMode.READ_ONLY, sections.payloadOffsets, 4L * (size + 1)).asIntBuffer();
+            LongBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, sections.payload, 8L * payloadLength)
+                    .asLongBuffer();
+            return new ColumnarMGDomain_utils<>(groupType, layout, mrIds, descriptions, sources, size, mrIndex,
+                    sourceIndex, payloadOffsets, payload);
+        }
+    }
+
+    /**
+     * 快照文件中各列的起始位置
+     */
+    private static class SnapshotSections {
+        final long mrIndex;
+        final long sourceIndex;
+        final long payloadOffsets;
+        final long payload;
+        final long end;
+
+        SnapshotSections(int headerLength, int size, int payloadLength) throws IOException {
+            if (8L * payloadLength > Integer.MAX_VALUE) {
+                throw new IOException("MG域过大，payload 列超出单次内存映射的上限: " + payloadLength);
+            }
+            mrIndex = align(SNAPSHOT_PREAMBLE_LENGTH + (long) headerLength, 8);
+            sourceIndex = align(mrIndex + size, 4);
+            payloadOffsets = sourceIndex + 4L * size;
+            payload = align(payloadOffsets + 4L * (size + 1), 8);
+            end = payload + 8L * payloadLength;
+        }
+
+        private static long align(long position, int alignment) {
+            return (position + alignment - 1) / alignment * alignment;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, IntBuffer column, int count, long position)
+            throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_CHUNK_BYTES);
+        int i = 0;
+        while (i < count) {
+            chunk.clear();
+            while (i < count && chunk.remaining() >= Integer.BYTES) {
+                chunk.putInt(column.get(i++));
+            }
+            chunk.flip();
+            position += writeFully(channel, chunk, position);
+        }
+    }
+
+    private static void writeLongs(FileChannel channel, LongBuffer column, int count, long position)
+            throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_CHUNK_BYTES);
+        int i = 0;
+        while (i < count) {
+            chunk.clear();
+            while (i < count && chunk.remaining() >= Long.BYTES) {
+                chunk.putLong(column.get(i++));
+            }
+            chunk.flip();
+            position += writeFully(channel, chunk, position);
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + read);
+            if (n < 0) {
+                throw new IOException("快照文件意外结束");
+            }
+            read += n;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * 由下标数组定义的只读子列表，元素在访问时才从底层列表读取
+     *
+     * @param items   底层列表（通常为MG域）
+     * @param indices 子列表中第 k 个元素在底层列表中的下标
+     */
+    public static <E> List<E> indexView(List<E> items, int[] indices) {
+        return new IndexView<>(items, indices);
+    }
+
+    /**
+     * 按键对列表元素分组，每组以下标视图的形式保存，组内保持原有顺序
+     *
+     * @param items 待分组的元素（通常为MG域）
+     * @param key   分组键
+     * @return 键 -> 该键下所有元素的只读视图
+     */
+    public static <E> Map<String, List<E>> groupByKey(List<E> items, Function<E, String> key) {
+        Map<String, int[]> indices = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String k = key.apply(items.get(i));
+            int count = counts.getOrDefault(k, 0);
+            int[] bucket = indices.get(k);
+            if (bucket == null || bucket.length == count) {
+                bucket = bucket == null ? new int[8] : Arrays.copyOf(bucket, bucket.length * 2);
+                indices.put(k, bucket);
+            }
+            bucket[count] = i;
+            counts.put(k, count + 1);
+        }
+        Map<String, List<E>> groups = new HashMap<>();
+        for (Map.Entry<String, int[]> entry : indices.entrySet()) {
+            int[] bucket = Arrays.copyOf(entry.getValue(), counts.get(entry.getKey()));
+            groups.put(entry.getKey(), indexView(items, bucket));
+        }
+        return groups;
+    }
+
+    /**
+     * 从列表中不放回地均匀抽取 count 个元素（随机顺序），只访问被抽中的元素
+     * 使用只记录被交换位置的 Fisher-Yates 洗牌，代价为 O(count)，与列表大小无关
+     *
+     * @param items 待抽样的元素（通常为MG域）
+     * @param count 抽取数量
+     * @param rng   随机数生成器
+     * @return 抽中的元素
+     */
+    public static <E> List<E> sampleWithoutReplacement(List<E> items, int count, RandomGenerator rng) {
+        int size = items.size();
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("样本数量 " + count + " 超出范围 [0, " + size + "]");
+        }
+        Map<Integer, Integer> swapped = new HashMap<>();
+        int[] picked = new int[count];
+        for (int i = 0; i < count; i++) {
+            int j = i + rng.nextInt(size - i);
+            int valueAtJ = swapped.getOrDefault(j, j);
+            int valueAtI = swapped.getOrDefault(i, i);
+            swapped.put(j, valueAtI);
+            picked[i] = valueAtJ;
+        }
+        List<E> sampled = new ArrayList<>(count);
+        for (int index : picked) {
+            sampled.add(items.get(index));
+        }
+        return sampled;
+    }
+
+    private static class IndexView<E> extends AbstractList<E> implements RandomAccess {
+        private final List<E> items;
+        private final int[] indices;
+
+        IndexView(List<E> items, int[] indices) {
+            this.items = items;
+            this.indices = indices;
+        }
+
+        @Override
+        public E get(int index) {
+            return items.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package paper.pss.exp.utils;
+
+/**
+ * P-measure 精确计算工具
+ * 在已知每个MG是否揭示突变体（违反位图）时，random 与 partition 策略的检测概率有闭式解，
+ * 无需进行 internalIteration 次蒙特卡洛模拟：
+ * - random（从MG域中不放回地均匀抽取 n 个MG）: 1 - Π_{i=0}^{n-1} (N - k - i) / (N - i)
+ * - partition（每个分区-MR组合分配 n_c 个，组合内有放回地均匀抽取）: 1 - Π_c (1 - k_c / m_c)^{n_c}
+ */
+public class ExactPMeasure_utils {
+
+    /**
+     * 不放回均匀抽样的检测概率（超几何分布）
+     *
+     * @param domainSize    MG域大小 N
+     * @param violatedCount 违反蜕变关系的MG数量 k
+     * @param samples       抽取的MG数量 n
+     * @return 至少抽到一个违反MG的概率
+     */
+    public static double randomWithoutReplacement(int domainSize, int violatedCount, int samples) {
+        if (violatedCount <= 0 || samples <= 0) {
+            return 0.0;
+        }
+        double missProbability = 1.0;
+        for (int i = 0; i < samples; i++) {
+            int remaining = domainSize - violatedCount - i;
+            if (remaining <= 0) {
+                // 未违反的MG已被抽完，必然抽到违反MG
+                return 1.0;
+            }
+            missProbability *= (double) remaining / (domainSize - i);
+        }
+        return 1.0 - missProbability;
+    }
+
+    /**
+     * 分区内有放回均匀抽样的检测概率
+     *
+     * @param cellSizes     每个组合中的MG数量 m_c
+     * @param cellViolated  每个组合中违反蜕变关系的MG数量 k_c
+     * @param cellSamples   每个组合分配到的抽样数量 n_c
+     * @return 至少抽到一个违反MG的概率
+     */
+    public static double partitionWithReplacement(int[] cellSizes, int[] cellViolated, int[] cellSamples) {
+        double logMiss = 0.0;
+        for (int c = 0; c < cellSizes.length; c++) {
+            if (cellSamples[c] <= 0 || cellViolated[c] <= 0) {
+                continue;
+            }
+            if (cellViolated[c] >= cellSizes[c]) {
+                // 组合内全部MG都违反，只要分配到抽样就必然检测到
+                return 1.0;
+            }
+            logMiss += cellSamples[c] * Math.log1p(-(double) cellViolated[c] / cellSizes[c]);
+        }
+        return -Math.expm1(logMiss);
+    }
+}
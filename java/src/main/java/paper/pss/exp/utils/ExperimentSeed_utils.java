@@ -0,0 +1,14 @@
+package paper.pss.exp.utils;
+
+/**
+ * 实验根种子
+ * 驱动程序、突变体分析以及生成器不带随机数生成器参数的入口都从这个种子派生随机数流，
+ * 任何入口都不使用未设种子的随机数，相同种子的两次运行结果相同。
+ */
+public class ExperimentSeed_utils {
+
+    /**
+     * 默认实验种子
+     */
+    public static final long DEFAULT_SEED = 20240101L;
+}
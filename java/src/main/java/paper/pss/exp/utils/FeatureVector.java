@@ -0,0 +1,16 @@
+package paper.pss.exp.utils;
+
+/**
+ * 测试用例特征向量
+ * ART 和 MT-ART 生成器在距离计算与分区时反复读取测试用例的数值特征，各项目的 TestCase 实现该接口，
+ * 在首次访问时计算一次特征并缓存在测试用例上，之后的读取不再重复计算。
+ *
+ * 返回的数组由所有调用方共享，调用方不得修改。
+ */
+public interface FeatureVector {
+
+    /**
+     * 获取测试用例的特征向量（缓存，只读）
+     */
+    double[] getFeatures();
+}
@@ -0,0 +1,125 @@
+package paper.pss.exp.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 突变体的杀死位集
+ * 用 long[] 按测试用例在测试集中的下标记录哪些测试用例杀死了该突变体，
+ * 全部突变体的位集即为杀死矩阵；包含关系只需逐字做按位与和比较。
+ */
+public class KillBitset_utils {
+
+    private static final int WORD_BITS = 64;
+
+    private final long[] words;
+    private int cardinality;
+
+    /**
+     * @param testCount 测试用例数量
+     */
+    public KillBitset_utils(int testCount) {
+        this.words = new long[(testCount + WORD_BITS - 1) / WORD_BITS];
+    }
+
+    /**
+     * 记录下标为 testIndex 的测试用例杀死了突变体
+     */
+    public void add(int testIndex) {
+        long bit = 1L << testIndex;
+        int word = testIndex / WORD_BITS;
+        if ((words[word] & bit) == 0) {
+            words[word] |= bit;
+            cardinality++;
+        }
+    }
+
+    /**
+     * 将 other 中的下标平移 offset 后并入该位集，offset 须为 64 的倍数，按字合并
+     */
+    public void addAll(KillBitset_utils other, int offset) {
+        if (offset % WORD_BITS != 0) {
+            throw new IllegalArgumentException("offset 须为 64 的倍数: " + offset);
+        }
+        int base = offset / WORD_BITS;
+        for (int i = 0; i < other.words.length; i++) {
+            long added = other.words[i] & ~words[base + i];
+            if (added != 0) {
+                words[base + i] |= added;
+                cardinality += Long.bitCount(added);
+            }
+        }
+    }
+
+    public boolean contains(int testIndex) {
+        return (words[testIndex / WORD_BITS] & (1L << testIndex)) != 0;
+    }
+
+    /**
+     * 杀死突变体的测试用例数量
+     */
+    public int size() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * 判断 other 中的测试用例是否都杀死了该突变体（other ⊆ this）
+     */
+    public boolean containsAll(KillBitset_utils other) {
+        if (other.cardinality > cardinality) {
+            return false;
+        }
+        long[] otherWords = other.words;
+        int common = Math.min(words.length, otherWords.length);
+        for (int i = 0; i < common; i++) {
+            if ((otherWords[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+        for (int i = common; i < otherWords.length; i++) {
+            if (otherWords[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 单遍计算所有严格包含对 (a, b)：杀死 a 的测试用例都杀死 b，且 b 被更多测试用例杀死，即 a 包含 b
+     * 位集按杀死数量排序后，每个位集只需与杀死数量更多的位集比较，不需要迭代到不动点
+     *
+     * @param killSets 参与比较的位集
+     * @return 下标对 {a, b}，按 a、b 在 killSets 中的下标升序排列
+     */
+    public static List<int[]> strictSubsetPairs(List<KillBitset_utils> killSets) {
+        int n = killSets.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> killSets.get(i).cardinality));
+
+        List<int[]> pairs = new ArrayList<>();
+        for (int x = 0; x < n; x++) {
+            KillBitset_utils a = killSets.get(order[x]);
+            // 跳过杀死数量相同的位集：相同数量下只有完全相等一种子集关系，不构成严格包含
+            int y = x + 1;
+            while (y < n && killSets.get(order[y]).cardinality == a.cardinality) {
+                y++;
+            }
+            for (; y < n; y++) {
+                if (killSets.get(order[y]).containsAll(a)) {
+                    pairs.add(new int[] { order[x], order[y] });
+                }
+            }
+        }
+        pairs.sort(Comparator.<int[]>comparingInt(p -> p[0]).thenComparingInt(p -> p[1]));
+        return pairs;
+    }
+}
@@ -0,0 +1,100 @@
+package paper.pss.exp.utils;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * 突变体调用方式的性能对比
+ * 比较 Method.invoke 反射调用与 MutantBinding_utils 绑定后的函数接口调用。
+ * 为了不依赖具体的突变体类，使用与 math2 copySign(long, long) 和
+ * jackson parseInt(String) 签名相同的 JDK 静态方法作为调用目标。
+ *
+ * 用法: MutantBindingBenchmark [每轮调用次数] [测量轮数]
+ */
+public class MutantBindingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        // 准备输入，避免在计时区间内生成数据
+        Random random = new Random(42);
+        long[] magnitudes = new long[1024];
+        long[] signs = new long[1024];
+        String[] numbers = new String[1024];
+        for (int i = 0; i < magnitudes.length; i++) {
+            magnitudes[i] = random.nextLong();
+            signs[i] = random.nextInt(1000) + 1;
+            numbers[i] = String.valueOf(random.nextInt());
+        }
+
+        Method longMethod = Math.class.getMethod("floorMod", long.class, long.class);
+        LongBinaryOperator longFunction = MutantBinding_utils.bind(longMethod, LongBinaryOperator.class);
+        Method parseMethod = Integer.class.getMethod("parseInt", String.class);
+        @SuppressWarnings("unchecked")
+        ToIntFunction<String> parseFunction = MutantBinding_utils.bind(parseMethod, ToIntFunction.class);
+
+        System.out.println(String.format("每轮调用次数: %d, 测量轮数: %d", calls, rounds));
+        System.out.println("=== (long, long) -> long ===");
+        run("Method.invoke", rounds, () -> {
+            long sink = 0;
+            for (int i = 0; i < calls; i++) {
+                int k = i & 1023;
+                sink += ((Long) longMethod.invoke(null, magnitudes[k], signs[k])).intValue();
+            }
+            return sink;
+        });
+        run("LongBinaryOperator", rounds, () -> {
+            long sink = 0;
+            for (int i = 0; i < calls; i++) {
+                int k = i & 1023;
+                sink += (int) longFunction.applyAsLong(magnitudes[k], signs[k]);
+            }
+            return sink;
+        });
+
+        System.out.println("=== String -> int ===");
+        run("Method.invoke", rounds, () -> {
+            long sink = 0;
+            for (int i = 0; i < calls; i++) {
+                sink += (Integer) parseMethod.invoke(null, numbers[i & 1023]);
+            }
+            return sink;
+        });
+        run("ToIntFunction", rounds, () -> {
+            long sink = 0;
+            for (int i = 0; i < calls; i++) {
+                sink += parseFunction.applyAsInt(numbers[i & 1023]);
+            }
+            return sink;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        long run() throws Exception;
+    }
+
+    // 预热后多轮测量，输出每次调用的平均耗时；sink 参与输出，防止被JIT消除
+    private static void run(String name, int rounds, Workload workload) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += workload.run();
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            sink += workload.run();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        System.out.println(String.format("%-20s 平均 %8.2f ms/轮, 最快 %8.2f ms/轮 (sink=%d)",
+                name, total / 1e6 / rounds, best / 1e6, sink));
+    }
+}
@@ -0,0 +1,91 @@
+package paper.pss.exp.utils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 突变体方法绑定工具
+ * 将突变体的静态入口方法一次性绑定为强类型的函数接口
+ * （例如 copySign -> LongBinaryOperator，parseInt -> ToIntFunction&lt;String&gt;），
+ * 之后的每次调用都是普通的接口调用，不再经过 Method.invoke 的参数数组分配和返回值装箱。
+ */
+public class MutantBinding_utils {
+
+    /**
+     * 加载突变体类并将指定的静态方法绑定为函数接口
+     *
+     * @param className           突变体类的全限定名
+     * @param methodName          入口方法名
+     * @param functionalInterface 目标函数接口，其抽象方法签名需与入口方法兼容；
+     *                            可直接传入原始类型（如 BinaryOperator.class），泛型参数由赋值目标推断
+     * @param parameterTypes      入口方法的参数类型
+     * @return 绑定后的函数接口实例
+     */
+    public static <F> F bind(String className, String methodName, Class<? super F> functionalInterface,
+            Class<?>... parameterTypes) throws ReflectiveOperationException {
+        Class<?> mutantClass = Class.forName(className);
+        return bind(mutantClass.getMethod(methodName, parameterTypes), functionalInterface);
+    }
+
+    /**
+     * 将静态方法绑定为函数接口
+     *
+     * @param method              需要绑定的静态方法
+     * @param functionalInterface 目标函数接口
+     * @return 绑定后的函数接口实例
+     */
+    @SuppressWarnings("unchecked") // metafactory 生成的实例实现了 functionalInterface，F 只是它的参数化视图
+    public static <F> F bind(Method method, Class<? super F> functionalInterface) throws ReflectiveOperationException {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException("只能绑定静态方法: " + method);
+        }
+        Method sam = findSingleAbstractMethod(functionalInterface);
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle impl = lookup.unreflect(method);
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, sam.getName(),
+                    MethodType.methodType(functionalInterface), samType, impl, impl.type());
+            return (F) functionalInterface.cast(site.getTarget().invoke());
+        } catch (Throwable e) {
+            throw new ReflectiveOperationException(
+                    String.format("无法将 %s 绑定到 %s", method, functionalInterface.getName()), e);
+        }
+    }
+
+    // 查找函数接口唯一的抽象方法（忽略 default 方法和 Object 的公共方法）
+    private static Method findSingleAbstractMethod(Class<?> functionalInterface) {
+        if (!functionalInterface.isInterface()) {
+            throw new IllegalArgumentException("不是接口: " + functionalInterface.getName());
+        }
+        Method sam = null;
+        for (Method m : functionalInterface.getMethods()) {
+            if (!Modifier.isAbstract(m.getModifiers()) || isObjectMethod(m)) {
+                continue;
+            }
+            if (sam != null) {
+                throw new IllegalArgumentException("不是函数接口: " + functionalInterface.getName());
+            }
+            sam = m;
+        }
+        if (sam == null) {
+            throw new IllegalArgumentException("不是函数接口: " + functionalInterface.getName());
+        }
+        return sam;
+    }
+
+    private static boolean isObjectMethod(Method m) {
+        try {
+            Object.class.getMethod(m.getName(), m.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
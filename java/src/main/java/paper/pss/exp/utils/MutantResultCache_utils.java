@@ -0,0 +1,280 @@
+package paper.pss.exp.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 突变体分析结果缓存
+ * 每个突变体一个JSON文件，记录突变体包内全部类字节码的SHA-256、分析代码（蜕变关系、判定逻辑和超时设置）的摘要、
+ * 分析种子、已执行的测试用例数量及其测试键的摘要，以及这些测试用例上的状态、结果和杀死下标。
+ * 重新分析时字节码、分析代码和种子不变、且当前测试集以缓存的测试用例为前缀，就只需执行新增的测试用例；
+ * 新增或修改过的突变体缓存失效，重新执行全部测试用例；分析代码修改后全部缓存失效。
+ */
+public class MutantResultCache_utils {
+
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * 一个突变体在测试集前 testCount 个测试用例上的结果
+     */
+    public static class Entry {
+        public final int testCount;
+        public final Map<String, String> statuses; // 测试键 -> 状态
+        public final Map<String, String> results; // 测试键 -> 结果的字符串表示
+        public final List<Integer> kills; // 杀死突变体的测试用例下标
+        public final String type; // 最后一次出现的超时/错误类型，没有时为 null
+
+        public Entry(int testCount, Map<String, String> statuses, Map<String, String> results, List<Integer> kills,
+                String type) {
+            this.testCount = testCount;
+            this.statuses = statuses;
+            this.results = results;
+            this.kills = kills;
+            this.type = type;
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path dir;
+    private final long seed;
+    private final String analysisHash;
+    private final List<String> testKeys;
+    // 测试用例数量 -> 前缀摘要
+    private final Map<Integer, String> prefixHashes = new HashMap<>();
+
+    /**
+     * @param dir          缓存目录
+     * @param seed         分析种子，种子不同的缓存不能复用
+     * @param analysisHash 分析代码的摘要，见 {@link #analysisHash(List, List)}
+     * @param testKeys     当前测试集中各测试用例的键，按下标排列
+     */
+    public MutantResultCache_utils(Path dir, long seed, String analysisHash, List<String> testKeys)
+            throws IOException {
+        this.dir = dir;
+        this.seed = seed;
+        this.analysisHash = analysisHash;
+        this.testKeys = testKeys;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * 计算一个包内全部类字节码的SHA-256，类文件按名称排序后依次计入摘要
+     * 突变体以包为单位组织，入口类之外的辅助类和内部类发生变化时摘要也会改变
+     *
+     * @param packageName 包全名
+     * @return 十六进制摘要，包内没有类文件时为 null
+     */
+    public static String packageHash(String packageName) throws IOException {
+        Map<String, byte[]> classFiles = classFiles(packageName, name -> true);
+        return classFiles.isEmpty() ? null : digest(classFiles);
+    }
+
+    /**
+     * 计算分析代码的SHA-256：给定类（连同其内部类和匿名类）以及给定包内全部类的字节码
+     * 用于把蜕变关系、判定逻辑和超时设置纳入缓存键，这些代码修改后已有缓存全部失效
+     *
+     * @param classes      参与判定的类
+     * @param packageNames 参与判定的包，如蜕变关系和模型所在的包
+     * @return 十六进制摘要
+     * @throws IllegalArgumentException 某个类或包在类路径上找不到类文件时，避免包名写错后静默地不计入摘要
+     */
+    public static String analysisHash(List<Class<?>> classes, List<String> packageNames) throws IOException {
+        Map<String, byte[]> classFiles = new TreeMap<>();
+        for (Class<?> type : classes) {
+            String simpleName = type.getName().substring(type.getName().lastIndexOf('.') + 1);
+            Map<String, byte[]> found = classFiles(type.getPackageName(),
+                    name -> name.equals(simpleName + ".class") || name.startsWith(simpleName + "$"));
+            if (found.isEmpty()) {
+                throw new IllegalArgumentException("类路径上找不到类文件: " + type.getName());
+            }
+            classFiles.putAll(found);
+        }
+        for (String packageName : packageNames) {
+            Map<String, byte[]> found = classFiles(packageName, name -> true);
+            if (found.isEmpty()) {
+                throw new IllegalArgumentException("类路径上找不到包内的类文件: " + packageName);
+            }
+            classFiles.putAll(found);
+        }
+        return digest(classFiles);
+    }
+
+    // 包内（不含子包）名称满足条件的类文件，键为资源路径；包可以分布在多个目录或 jar 中
+    private static Map<String, byte[]> classFiles(String packageName, Predicate<String> nameFilter)
+            throws IOException {
+        String path = packageName.replace('.', '/');
+        Map<String, byte[]> classFiles = new TreeMap<>();
+        Enumeration<URL> roots = MutantResultCache_utils.class.getClassLoader().getResources(path);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("file".equals(root.getProtocol())) {
+                List<Path> files;
+                try (Stream<Path> listing = Files.list(Paths.get(URI.create(root.toString())))) {
+                    files = listing.filter(Files::isRegularFile).toList();
+                }
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".class") && nameFilter.test(name)) {
+                        classFiles.putIfAbsent(path + "/" + name, Files.readAllBytes(file));
+                    }
+                }
+            } else if ("jar".equals(root.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) root.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    for (JarEntry entry : Collections.list(jar.entries())) {
+                        String entryName = entry.getName();
+                        if (!entryName.startsWith(path + "/")) {
+                            continue;
+                        }
+                        String name = entryName.substring(path.length() + 1);
+                        if (name.indexOf('/') < 0 && name.endsWith(".class") && nameFilter.test(name)) {
+                            try (InputStream in = jar.getInputStream(entry)) {
+                                classFiles.putIfAbsent(entryName, in.readAllBytes());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return classFiles;
+    }
+
+    private static String digest(Map<String, byte[]> classFiles) {
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+            digest.update(classFile.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(classFile.getValue());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * 读取突变体的缓存结果
+     *
+     * @param mutantName   突变体名
+     * @param bytecodeHash 突变体包当前字节码的摘要，见 {@link #packageHash(String)}
+     * @return 可复用的缓存结果；没有缓存、缓存损坏或已失效时为 null
+     */
+    public synchronized Entry load(String mutantName, String bytecodeHash) {
+        Path file = dir.resolve(mutantName + ".json");
+        if (bytecodeHash == null || !Files.exists(file)) {
+            return null;
+        }
+        Map<String, Object> json;
+        try {
+            json = mapper.readValue(file.toFile(), new TypeReference<Map<String, Object>>() {
+            });
+        } catch (IOException e) {
+            return null;
+        }
+        int testCount = ((Number) json.getOrDefault("testCount", -1)).intValue();
+        if (!Integer.valueOf(FORMAT_VERSION).equals(json.get("version"))
+                || !bytecodeHash.equals(json.get("bytecodeHash"))
+                || !analysisHash.equals(json.get("analysisHash"))
+                || ((Number) json.getOrDefault("seed", 0)).longValue() != seed
+                || testCount < 0 || testCount > testKeys.size()
+                || !prefixHash(testCount).equals(json.get("testSuiteHash"))) {
+            return null;
+        }
+        return mapper.convertValue(json.get("entry"), EntryJson.class).toEntry(testCount);
+    }
+
+    /**
+     * 保存突变体在当前测试集上的结果，先写临时文件再原子替换
+     */
+    public synchronized void store(String mutantName, String bytecodeHash, Entry entry) throws IOException {
+        if (bytecodeHash == null) {
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("version", FORMAT_VERSION);
+        json.put("mutant", mutantName);
+        json.put("bytecodeHash", bytecodeHash);
+        json.put("analysisHash", analysisHash);
+        json.put("seed", seed);
+        json.put("testCount", entry.testCount);
+        json.put("testSuiteHash", prefixHash(entry.testCount));
+        json.put("entry", new EntryJson(entry));
+        Path file = dir.resolve(mutantName + ".json");
+        Path temp = dir.resolve(mutantName + ".json.tmp");
+        mapper.writeValue(temp.toFile(), json);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 前 count 个测试键的摘要，同一测试集上的多个突变体共用
+    private String prefixHash(int count) {
+        return prefixHashes.computeIfAbsent(count, n -> {
+            MessageDigest digest = sha256();
+            for (int i = 0; i < n; i++) {
+                digest.update(testKeys.get(i).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return toHex(digest.digest());
+        });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // 缓存文件中的结果部分
+    private static class EntryJson {
+        public Map<String, String> statuses = new LinkedHashMap<>();
+        public Map<String, String> results = new LinkedHashMap<>();
+        public List<Integer> kills = new ArrayList<>();
+        public String type;
+
+        public EntryJson() {
+        }
+
+        EntryJson(Entry entry) {
+            this.statuses = entry.statuses;
+            this.results = entry.results;
+            this.kills = entry.kills;
+            this.type = entry.type;
+        }
+
+        Entry toEntry(int testCount) {
+            return new Entry(testCount, statuses, results, kills, type);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package paper.pss.exp.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 突变体超时看门狗（协作式超时）
+ * 一批突变体调用（例如一个实验单元）整体交给执行线程运行，每批只有一次线程间交接；
+ * 批内每次调用突变体前后只需调用 enter() / exit() 递增执行线程自己的调用计数，不设定时器。
+ * 提交批次的线程即为看门狗，每隔 timeout 检查一次调用计数：计数为奇数（正在调用突变体）
+ * 且与上次检查时相同，说明同一次调用已运行超过 timeout，此时中断并放弃该执行线程，
+ * 批次以 MutantTimeoutException 结束；被卡住的线程不再复用，后续批次由其他线程或新建线程执行。
+ */
+public class MutantWatchdog_utils {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // 尚未观察到执行线程调用计数时的标记；不能用 -1，因为 -1 是奇数，会被误判为“正在调用突变体”
+    private static final long NOT_OBSERVED = Long.MIN_VALUE;
+
+    /**
+     * 批次中某次突变体调用超过了超时时间
+     */
+    public static class MutantTimeoutException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public MutantTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    // 执行线程：calls 只由线程自身写入，进入调用时变为奇数，退出时变为偶数。
+    // 单一写者，使用 opaque 写入即可被看门狗最终看到，不需要 volatile 写的内存屏障
+    private static final class Worker extends Thread {
+        private static final VarHandle CALLS;
+
+        static {
+            try {
+                CALLS = MethodHandles.lookup().findVarHandle(Worker.class, "calls", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long calls;
+
+        Worker(Runnable task, String name) {
+            super(task, name);
+        }
+
+        void tick() {
+            CALLS.setOpaque(this, calls + 1);
+        }
+
+        long observedCalls() {
+            return (long) CALLS.getOpaque(this);
+        }
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final long timeoutNanos;
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * @param threadNamePrefix 执行线程名前缀
+     * @param timeout          单次突变体调用的超时时间
+     * @param unit             超时时间单位
+     */
+    public MutantWatchdog_utils(String threadNamePrefix, long timeout, TimeUnit unit) {
+        this(threadNamePrefix, timeout, unit, () -> {
+        });
+    }
+
+    /**
+     * @param threadNamePrefix 执行线程名前缀
+     * @param timeout          单次突变体调用的超时时间
+     * @param unit             超时时间单位
+     * @param workerStartup    每个新执行线程开始接收批次之前运行（测试中用于模拟线程启动缓慢）
+     */
+    MutantWatchdog_utils(String threadNamePrefix, long timeout, TimeUnit unit, Runnable workerStartup) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Runnable startup = () -> {
+                workerStartup.run();
+                task.run();
+            };
+            Worker worker = new Worker(startup, threadNamePrefix + "-" + threadIndex.incrementAndGet());
+            worker.setDaemon(true); // 被放弃的线程不阻止 JVM 退出
+            return worker;
+        };
+        // SynchronousQueue：有空闲线程时直接交接，没有时新建线程，被放弃的线程不会阻塞后续批次
+        this.workers = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), factory);
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * 标记当前线程开始一次突变体调用，不在看门狗执行线程上时不做任何事
+     */
+    public static void enter() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof Worker) {
+            ((Worker) thread).tick();
+        }
+    }
+
+    /**
+     * 标记当前线程结束一次突变体调用，应放在 finally 中与 enter() 成对调用
+     */
+    public static void exit() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof Worker) {
+            ((Worker) thread).tick();
+        }
+    }
+
+    /**
+     * 在执行线程上运行一批突变体调用，直到完成或其中某次调用超时
+     *
+     * @param batch 批次逻辑，其中的突变体调用需以 enter() / exit() 包围
+     * @return 批次的返回值
+     * @throws MutantTimeoutException 某次调用超过超时时间，执行线程已被中断并放弃
+     * @throws Exception              批次抛出的异常
+     */
+    public <T> T call(Callable<T> batch) throws Exception {
+        AtomicReference<Worker> runner = new AtomicReference<>();
+        Future<T> future = workers.submit(() -> {
+            runner.set((Worker) Thread.currentThread());
+            return batch.call();
+        });
+        long lastCalls = NOT_OBSERVED;
+        while (true) {
+            try {
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                throw e;
+            } catch (TimeoutException e) {
+                Worker worker = runner.get();
+                if (worker == null) {
+                    // 批次还没有开始在执行线程上运行（例如线程启动较慢），继续等待
+                    continue;
+                }
+                long calls = worker.observedCalls();
+                if (lastCalls != NOT_OBSERVED && (calls & 1) == 1 && calls == lastCalls) {
+                    timeoutCount.incrementAndGet();
+                    future.cancel(true);
+                    throw new MutantTimeoutException(
+                            String.format("突变体单次调用超过 %d ms", TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+                }
+                lastCalls = calls;
+            }
+        }
+    }
+
+    /**
+     * 因超时被放弃的批次数
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+}
@@ -0,0 +1,133 @@
+package paper.pss.exp.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * MT-ART 分区索引
+ * MT-ART 每次生成都要按源测试用例的分区键把整个 MG 域划分为 numSamples * 1.5 个分区，
+ * 逐个扫描并装桶的代价与 MG 域大小成正比，而同一个域会被生成上千次。
+ *
+ * 该索引在构造时对分区键排序一次（保存为基本类型数组），之后任意分区数量的划分都通过二分查找得到
+ * 每个分区在有序数组中的区间，分区以只读视图的形式返回，不再复制元素。
+ * 排序结果只保存元素下标，元素在访问时才从原列表读取（原列表为列式MG域时不会一次性生成全部MG视图）。
+ * 分区键不能为 NaN。
+ */
+public class PartitionIndex_utils<T> {
+
+    private final double[] sortedKeys;
+    private final List<T> sortedItems;
+
+    /**
+     * @param items 待划分的元素（通常为MG域）
+     * @param key   分区键
+     */
+    public PartitionIndex_utils(List<T> items, ToDoubleFunction<T> key) {
+        int size = items.size();
+        double[] keys = new double[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = key.applyAsDouble(items.get(i));
+            order[i] = i;
+        }
+        // 稳定排序：分区键相同的元素保持原有顺序
+        Arrays.sort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+
+        this.sortedKeys = new double[size];
+        int[] sortedIndices = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedIndices[i] = order[i];
+        }
+        this.sortedItems = ColumnarMGDomain_utils.indexView(items, sortedIndices);
+    }
+
+    public int size() {
+        return sortedKeys.length;
+    }
+
+    /**
+     * 按分区键的取值范围等宽划分
+     * 分区 i 包含满足 min((int) ((key - min) / step), numPartitions - 1) == i 的元素，
+     * 其中 step = (max - min) / numPartitions（numPartitions 为 1 时取 1.0），与逐个装桶的结果相同。
+     *
+     * @param numPartitions 分区数量
+     * @return 分区列表（只读视图），分区内按分区键升序排列
+     */
+    public List<List<T>> equalWidthPartitions(int numPartitions) {
+        if (sortedKeys.length == 0 || numPartitions <= 0) {
+            return new ArrayList<>();
+        }
+        double minVal = sortedKeys[0];
+        double maxVal = sortedKeys[sortedKeys.length - 1];
+        double step = numPartitions > 1 ? (maxVal - minVal) / numPartitions : 1.0;
+
+        // 分区号随分区键单调不减，每个分区是有序数组中的一段连续区间
+        List<List<T>> partitions = new ArrayList<>(numPartitions);
+        int start = 0;
+        for (int i = 0; i < numPartitions; i++) {
+            int end = i == numPartitions - 1
+                    ? sortedKeys.length
+                    : firstBucketAtLeast(i + 1, start, minVal, step, numPartitions);
+            partitions.add(sortedItems.subList(start, end));
+            start = end;
+        }
+        return partitions;
+    }
+
+    /**
+     * 按分区键排序后轮流分配：分区 i 包含排序后第 i, i + numPartitions, i + 2 * numPartitions, ... 个元素
+     *
+     * @param numPartitions 分区数量
+     * @return 分区列表（只读视图）
+     */
+    public List<List<T>> roundRobinPartitions(int numPartitions) {
+        List<List<T>> partitions = new ArrayList<>(Math.max(numPartitions, 0));
+        for (int i = 0; i < numPartitions; i++) {
+            final int offset = i;
+            final int count = offset < sortedItems.size()
+                    ? (sortedItems.size() - offset + numPartitions - 1) / numPartitions
+                    : 0;
+            partitions.add(new AbstractList<T>() {
+                @Override
+                public T get(int index) {
+                    if (index < 0 || index >= count) {
+                        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+                    }
+                    return sortedItems.get(offset + index * numPartitions);
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            });
+        }
+        return partitions;
+    }
+
+    /**
+     * 在 [from, size) 中二分查找第一个分区号不小于 bucket 的位置
+     */
+    private int firstBucketAtLeast(int bucket, int from, double minVal, double step, int numPartitions) {
+        int low = from;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketOf(sortedKeys[mid], minVal, step, numPartitions) >= bucket) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int bucketOf(double value, double minVal, double step, int numPartitions) {
+        int idx = (int) ((value - minVal) / step);
+        return Math.min(idx, numPartitions - 1);
+    }
+}
@@ -0,0 +1,159 @@
+package paper.pss.exp.utils;
+
+import java.util.Arrays;
+
+/**
+ * PSALM 分配引擎
+ * 每次把一个测试用例（或MG）分配给当前采样率（已分配数量 / 权重）最低的单元，单元可以是分区，
+ * 也可以是 (分区, MR) 组合。采样率相同（误差 1e-9 以内）时优先权重更大的单元，再相同时优先编号更小的单元。
+ *
+ * 单元用 0..K-1 的整数编号，计数和采样率保存在基本类型数组中，并用带位置索引的最小堆维护采样率最低的单元，
+ * 每次分配的代价为 O(log K)，单元数量达到数千时仍然适用。
+ * 权重不大于 0 的单元采样率视为无穷大，只有其他单元都无法分配时才会被选中。
+ *
+ * 非线程安全，每个生成器实例持有自己的分配器。
+ */
+public class PsalmAllocator_utils {
+
+    private static final double RATE_TOLERANCE = 1e-9;
+
+    private final double[] weights;
+    private final int[] counts;
+    private final double[] rates;
+    // 最小堆：heap[i] 为堆中第 i 个位置上的单元，positions[c] 为单元 c 在堆中的位置
+    private final int[] heap;
+    private final int[] positions;
+
+    /**
+     * @param weights 每个单元的权重，下标即单元编号
+     */
+    public PsalmAllocator_utils(double[] weights) {
+        this.weights = weights.clone();
+        this.counts = new int[weights.length];
+        this.rates = new double[weights.length];
+        this.heap = new int[weights.length];
+        this.positions = new int[weights.length];
+        reset();
+    }
+
+    /**
+     * 单元数量
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * 清空所有单元的分配数量
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        for (int c = 0; c < weights.length; c++) {
+            rates[c] = rateOf(c, 0);
+            heap[c] = c;
+        }
+        for (int i = weights.length / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        for (int i = 0; i < heap.length; i++) {
+            positions[heap[i]] = i;
+        }
+    }
+
+    /**
+     * 当前采样率最低的单元（不分配）
+     */
+    public int peek() {
+        if (heap.length == 0) {
+            throw new IllegalStateException("没有可分配的单元");
+        }
+        return heap[0];
+    }
+
+    /**
+     * 向采样率最低的单元分配一个测试用例，并更新其计数和采样率
+     *
+     * @return 被分配的单元编号
+     */
+    public int next() {
+        int cell = peek();
+        increment(cell);
+        return cell;
+    }
+
+    /**
+     * 向指定单元分配一个测试用例
+     */
+    public void increment(int cell) {
+        counts[cell]++;
+        rates[cell] = rateOf(cell, counts[cell]);
+        // 采样率只会增大，只需下沉
+        siftDown(positions[cell]);
+    }
+
+    /**
+     * 从初始状态开始分配 totalSamples 个测试用例后各单元的数量
+     * 调用后分配器处于分配完成的状态
+     *
+     * @param totalSamples 要分配的总数
+     * @return 各单元的分配数量（副本）
+     */
+    public int[] allocate(int totalSamples) {
+        reset();
+        for (int i = 0; i < totalSamples; i++) {
+            next();
+        }
+        return counts.clone();
+    }
+
+    public int getCount(int cell) {
+        return counts[cell];
+    }
+
+    public double getRate(int cell) {
+        return rates[cell];
+    }
+
+    public double getWeight(int cell) {
+        return weights[cell];
+    }
+
+    private double rateOf(int cell, int count) {
+        return weights[cell] > 0 ? count / weights[cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * 单元 a 是否应排在单元 b 之前
+     */
+    private boolean before(int a, int b) {
+        double rateA = rates[a];
+        double rateB = rates[b];
+        if (rateA != rateB && !(Math.abs(rateA - rateB) < RATE_TOLERANCE)) {
+            return rateA < rateB;
+        }
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b];
+        }
+        return a < b;
+    }
+
+    private void siftDown(int index) {
+        int cell = heap[index];
+        int half = heap.length >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heap.length && before(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!before(heap[child], cell)) {
+                break;
+            }
+            heap[index] = heap[child];
+            positions[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = cell;
+        positions[cell] = index;
+    }
+}
@@ -0,0 +1,91 @@
+package paper.pss.exp.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * 流式结果写入工具
+ * 按 突变体 -> 测试用例数量 -> [数值列表] 的结构逐个突变体写出JSON，与一次性序列化整个结果树的文件格式相同，
+ * 每个突变体完成后即可写出并释放其结果，内存占用不随突变体数量增长。
+ *
+ * 写入过程中先输出到 .partial 文件，close() 时才替换目标文件，中途崩溃不会破坏上一次的结果文件。
+ */
+public class ResultStreamWriter_utils implements Closeable {
+
+    private final Path file;
+    private final Path partialFile;
+    private final JsonGenerator generator;
+    private int blockCount = 0;
+    private boolean closed = false;
+
+    public ResultStreamWriter_utils(Path file) throws IOException {
+        this.file = file;
+        this.partialFile = file.resolveSibling(file.getFileName() + ".partial");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.generator = new JsonFactory().createGenerator(Files.newOutputStream(partialFile));
+        this.generator.useDefaultPrettyPrinter();
+        this.generator.writeStartObject();
+    }
+
+    /**
+     * 写出一个突变体的结果，rows[i] 对应测试用例数量 firstKey + i
+     * 可被多个工作线程并发调用
+     */
+    public synchronized void writeBlock(String name, int firstKey, double[][] rows) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeStartObject();
+        for (int i = 0; i < rows.length; i++) {
+            generator.writeFieldName(String.valueOf(firstKey + i));
+            generator.writeArray(rows[i], 0, rows[i].length);
+        }
+        generator.writeEndObject();
+        generator.flush();
+        blockCount++;
+    }
+
+    /**
+     * 写出一个突变体的整数结果（例如试验次数），结构与 {@link #writeBlock(String, int, double[][])} 相同
+     */
+    public synchronized void writeBlock(String name, int firstKey, int[][] rows) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeStartObject();
+        for (int i = 0; i < rows.length; i++) {
+            generator.writeFieldName(String.valueOf(firstKey + i));
+            generator.writeArray(rows[i], 0, rows[i].length);
+        }
+        generator.writeEndObject();
+        generator.flush();
+        blockCount++;
+    }
+
+    /**
+     * 已写出的突变体数量
+     */
+    public synchronized int getBlockCount() {
+        return blockCount;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 结束JSON对象并替换目标文件
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        generator.writeEndObject();
+        generator.close();
+        Files.move(partialFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
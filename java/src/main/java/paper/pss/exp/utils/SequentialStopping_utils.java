@@ -0,0 +1,46 @@
+package paper.pss.exp.utils;
+
+/**
+ * 序贯抽样停止规则
+ * P-measure 是一次伯努利试验（是否检测到缺陷）的成功率。当 Wilson 置信区间的半宽度
+ * 已经小于给定精度时继续试验意义不大，例如检测率为 0.0 或 1.0 时，
+ * 几百次试验后区间就已经足够窄。
+ */
+public class SequentialStopping_utils {
+
+    // 95% 置信水平对应的正态分位数
+    public static final double Z_95 = 1.959963984540054;
+
+    // 最少试验次数，避免极少量试验时区间估计不可靠
+    public static final int MIN_TRIALS = 100;
+
+    /**
+     * Wilson 置信区间的半宽度
+     *
+     * @param successes 成功次数
+     * @param trials    试验次数
+     * @param z         正态分位数
+     * @return 区间半宽度
+     */
+    public static double wilsonHalfWidth(int successes, int trials, double z) {
+        if (trials <= 0) {
+            return 0.5;
+        }
+        double p = (double) successes / trials;
+        double z2 = z * z;
+        double denominator = 1.0 + z2 / trials;
+        return z * Math.sqrt(p * (1.0 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+    }
+
+    /**
+     * 判断是否已达到要求的精度，可以停止试验
+     *
+     * @param successes 成功次数
+     * @param trials    试验次数
+     * @param halfWidth 要求的置信区间半宽度，小于等于0表示不启用序贯抽样
+     * @return 是否可以停止
+     */
+    public static boolean isPrecise(int successes, int trials, double halfWidth) {
+        return halfWidth > 0 && trials >= MIN_TRIALS && wilsonHalfWidth(successes, trials, Z_95) <= halfWidth;
+    }
+}
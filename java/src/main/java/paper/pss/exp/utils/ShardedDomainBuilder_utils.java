@@ -0,0 +1,80 @@
+package paper.pss.exp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * MG域分片并行构建工具
+ * 源测试用例按固定大小切分为若干分片，每个分片独立生成其源测试用例并展开为蜕变组，
+ * 分片之间在 ForkJoin 公共线程池上并行执行。
+ *
+ * 每个分片的随机数流在任务开始前按分片顺序从同一个根种子依次 split 得到，分片大小固定，
+ * 结果按分片顺序合并：给定种子和源测试用例数量时，生成的域与线程数量和调度顺序无关。
+ */
+public class ShardedDomainBuilder_utils {
+
+    // 每个分片包含的源测试用例数量
+    public static final int SHARD_SIZE = 1000;
+
+    /**
+     * 单个分片的构建逻辑
+     */
+    @FunctionalInterface
+    public interface ShardBody<T> {
+        /**
+         * 生成编号为 [from, to) 的源测试用例及其蜕变组
+         *
+         * @param rng 本分片独占的随机数生成器
+         * @return 第 i 个元素为第 from + i 个源测试用例的蜕变组列表
+         */
+        List<List<T>> build(int from, int to, RandomGenerator rng) throws Exception;
+    }
+
+    /**
+     * 并行构建所有分片并按源测试用例编号顺序合并
+     *
+     * @param sourceCount 源测试用例数量
+     * @param seed        根种子
+     * @param body        分片构建逻辑
+     * @return 第 i 个元素为第 i 个源测试用例的蜕变组列表
+     */
+    public static <T> List<List<T>> build(int sourceCount, long seed, ShardBody<T> body) {
+        int shardCount = (sourceCount + SHARD_SIZE - 1) / SHARD_SIZE;
+
+        // 在并行执行之前按顺序划分随机数流，保证每个分片的随机数与调度无关
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] shardRandoms = new SplittableRandom[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardRandoms[shard] = root.split();
+        }
+
+        List<List<List<T>>> shardResults = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardResults.add(null);
+        }
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        CellScheduler_utils.runCells(ForkJoinPool.commonPool(), shardCount, shard -> {
+            int from = shard * SHARD_SIZE;
+            int to = Math.min(from + SHARD_SIZE, sourceCount);
+            List<List<T>> groups = body.build(from, to, shardRandoms[shard]);
+            if (groups.size() != to - from) {
+                throw new IllegalStateException("分片 " + shard + " 生成的源测试用例数量不正确: " + groups.size());
+            }
+            shardResults.set(shard, groups);
+        }, (shard, e) -> failure.compareAndSet(null, e));
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("MG域分片构建失败: " + failure.get().getMessage(), failure.get());
+        }
+
+        List<List<T>> merged = new ArrayList<>(sourceCount);
+        for (List<List<T>> groups : shardResults) {
+            merged.addAll(groups);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,109 @@
+package paper.pss.exp.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带超时的突变体执行服务
+ * 所有调用共享一组可复用的守护线程：空闲线程直接接手下一次调用，每次调用只有一次线程间交接，
+ * 不再为每次调用创建并销毁一个单线程 Executor。
+ * 调用超时后中断执行线程并放弃它，忽略中断的死循环突变体只占住这一个线程，
+ * 后续调用由池中其他空闲线程或新建线程执行；空闲超过 keepAlive 的线程自动回收。
+ * 线程数有上限：被放弃但仍在运行的线程不会无限累积，达到上限后新的调用以
+ * RejectedExecutionException 失败，而不是继续创建线程。
+ * 这里不使用虚拟线程：虚拟线程只在阻塞点让出载体线程，不检查中断的死循环突变体会一直占住
+ * 一个载体线程，少数几个这样的突变体就能让所有虚拟线程停止调度。
+ */
+public class TimeoutExecutor_utils {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    // 共享实例的线程上限：分析器并发调用数不超过 CPU 核心数，其余容量留给超时后仍未结束的线程
+    private static final int SHARED_MAX_THREADS = Math.max(64, 4 * Runtime.getRuntime().availableProcessors());
+
+    private static final TimeoutExecutor_utils SHARED = new TimeoutExecutor_utils("mutant-exec", SHARED_MAX_THREADS);
+
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * @param threadNamePrefix 执行线程名前缀
+     * @param maxThreads       同时存在的执行线程上限（包括超时后被放弃但仍未结束的线程）
+     */
+    public TimeoutExecutor_utils(String threadNamePrefix, int maxThreads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, threadNamePrefix + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true); // 被放弃的线程不阻止 JVM 退出
+            return thread;
+        };
+        // SynchronousQueue：有空闲线程时直接交接，没有时新建线程，因此被卡住的线程不会阻塞后续调用；
+        // 线程数达到 maxThreads 时拒绝提交
+        this.workers = new ThreadPoolExecutor(0, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), factory);
+    }
+
+    /**
+     * 所有分析器共用的执行服务
+     */
+    public static TimeoutExecutor_utils shared() {
+        return SHARED;
+    }
+
+    /**
+     * 在执行线程上运行 task，最多等待 timeout
+     *
+     * @param task    要执行的调用
+     * @param timeout 超时时间
+     * @param unit    超时时间单位
+     * @return task 的返回值
+     * @throws TimeoutException     超时，执行线程已被中断并放弃
+     * @throws ExecutionException   task 抛出异常
+     * @throws InterruptedException 等待期间调用线程被中断
+     * @throws RejectedExecutionException 执行线程已达上限（通常是大量超时线程仍未结束）
+     */
+    public <T> T call(Callable<T> task, long timeout, TimeUnit unit)
+            throws TimeoutException, ExecutionException, InterruptedException {
+        Future<T> future;
+        try {
+            future = workers.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException(String.format(
+                    "突变体执行线程已达上限 %d，超时后仍未结束的线程 %d 个", workers.getMaximumPoolSize(),
+                    workers.getActiveCount()), e);
+        }
+        try {
+            return future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            timeoutCount.incrementAndGet();
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * 超时的调用次数
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * 当前仍在执行的线程数（包括超时后被放弃但仍未结束的线程）
+     */
+    public int getActiveCount() {
+        return workers.getActiveCount();
+    }
+}
@@ -0,0 +1,130 @@
+package paper.pss.exp.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * MG违反位图
+ * 对于固定的MG域，某个MG能否揭示某个突变体是 (突变体, MG) 的固定属性。
+ * 该类用 long[] 按MG在域中的下标保存每个MG是否违反蜕变关系，
+ * phase2 的 P-measure 计算因此只需对抽样得到的MG逐个测试对应的位。
+ *
+ * 位图可以持久化为JSON，并附带MG域指纹，只有在MG域完全相同时才会被复用。
+ */
+public class ViolationBitmap_utils {
+
+    // 并行填充时每个单元负责的MG数量必须是该值的整数倍，保证不同单元不会写同一个 long
+    public static final int WORD_BITS = 64;
+
+    private final long[] words;
+    private final int size;
+
+    public ViolationBitmap_utils(int size) {
+        this.size = size;
+        this.words = new long[(size + WORD_BITS - 1) / WORD_BITS];
+    }
+
+    private ViolationBitmap_utils(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    /**
+     * 标记第 index 个MG违反蜕变关系
+     * 非线程安全：并行填充时各线程负责的下标区间需按 WORD_BITS 对齐
+     */
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 违反蜕变关系的MG数量
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 计算MG域指纹，用于判断持久化的位图是否属于当前MG域
+     *
+     * @param mgDomain MG域
+     * @param describe 将单个MG转换为稳定字符串表示的函数
+     * @return 十六进制的SHA-256摘要
+     */
+    public static <T> String fingerprint(List<T> mgDomain, Function<T, String> describe) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (T mg : mgDomain) {
+                digest.update(describe.apply(mg).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 将位图保存为JSON文件
+     */
+    public void save(Path file, String mutantName, String domainFingerprint) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("mutant", mutantName);
+        json.put("domainFingerprint", domainFingerprint);
+        json.put("size", size);
+        json.put("violations", cardinality());
+        json.put("words", words);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().writeValue(file.toFile(), json);
+    }
+
+    /**
+     * 读取持久化的位图；文件不存在或MG域指纹不一致时返回 null
+     */
+    public static ViolationBitmap_utils load(Path file, String domainFingerprint) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        JsonNode json = new ObjectMapper().readTree(file.toFile());
+        if (!domainFingerprint.equals(json.path("domainFingerprint").asText())) {
+            return null;
+        }
+        int size = json.path("size").asInt();
+        JsonNode wordsNode = json.path("words");
+        long[] words = new long[(size + WORD_BITS - 1) / WORD_BITS];
+        if (wordsNode.size() != words.length) {
+            return null;
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] = wordsNode.get(i).asLong();
+        }
+        return new ViolationBitmap_utils(size, words);
+    }
+}
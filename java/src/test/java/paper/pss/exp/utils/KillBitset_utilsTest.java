@@ -0,0 +1,149 @@
+package paper.pss.exp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 杀死位集与原来基于 HashSet 的实现等价：集合运算结果相同，单遍包含对与逐对比较的结果相同
+ */
+class KillBitset_utilsTest {
+
+    private static final int MATRICES = 200;
+
+    @Test
+    void setOperationsMatchHashSet() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int m = 0; m < MATRICES; m++) {
+            int testCount = 1 + random.nextInt(300);
+            List<Set<Integer>> sets = randomKillSets(random, 2 + random.nextInt(10), testCount);
+            List<KillBitset_utils> bitsets = toBitsets(sets, testCount);
+            for (int a = 0; a < sets.size(); a++) {
+                assertEquals(sets.get(a).size(), bitsets.get(a).size());
+                assertEquals(sets.get(a).isEmpty(), bitsets.get(a).isEmpty());
+                for (int t = 0; t < testCount; t++) {
+                    assertEquals(sets.get(a).contains(t), bitsets.get(a).contains(t));
+                }
+                for (int b = 0; b < sets.size(); b++) {
+                    assertEquals(sets.get(a).containsAll(sets.get(b)), bitsets.get(a).containsAll(bitsets.get(b)),
+                            "containsAll " + a + " " + b);
+                }
+            }
+        }
+    }
+
+    @Test
+    void addAllWithOffsetMatchesHashSet() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int m = 0; m < MATRICES; m++) {
+            int chunk = 64 * (1 + random.nextInt(4));
+            int chunks = 1 + random.nextInt(5);
+            int testCount = chunk * chunks - random.nextInt(chunk);
+            Set<Integer> expected = new HashSet<>();
+            KillBitset_utils merged = new KillBitset_utils(testCount);
+            for (int c = 0; c < chunks; c++) {
+                int from = c * chunk;
+                int to = Math.min(from + chunk, testCount);
+                KillBitset_utils part = new KillBitset_utils(to - from);
+                for (int t = from; t < to; t++) {
+                    if (random.nextInt(3) == 0) {
+                        part.add(t - from);
+                        expected.add(t);
+                    }
+                }
+                merged.addAll(part, from);
+            }
+            assertEquals(expected.size(), merged.size());
+            for (int t = 0; t < testCount; t++) {
+                assertEquals(expected.contains(t), merged.contains(t));
+            }
+        }
+    }
+
+    @Test
+    void strictSubsetPairsMatchPairwiseComparison() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int m = 0; m < MATRICES; m++) {
+            int testCount = 1 + random.nextInt(200);
+            List<Set<Integer>> sets = randomKillSets(random, 2 + random.nextInt(30), testCount);
+
+            // 原实现：逐对比较，杀死A的测试用例都杀死B且B被更多测试用例杀死时，A包含B
+            Set<List<Integer>> expected = new HashSet<>();
+            for (int a = 0; a < sets.size(); a++) {
+                for (int b = 0; b < sets.size(); b++) {
+                    if (a != b && sets.get(b).containsAll(sets.get(a)) && sets.get(a).size() < sets.get(b).size()) {
+                        expected.add(List.of(a, b));
+                    }
+                }
+            }
+
+            Set<List<Integer>> actual = new HashSet<>();
+            for (int[] pair : KillBitset_utils.strictSubsetPairs(toBitsets(sets, testCount))) {
+                actual.add(List.of(pair[0], pair[1]));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void strictSubsetPairsPutSubsumingMutantFirst() {
+        // 0 只被测试 1 杀死，1 被测试 1、2 杀死：杀死 0 的测试都杀死 1，0 包含 1，1 是被包含（SUBSUMED）的突变体
+        // 2 与 0 的杀死集合相同，同样包含 1；3 与其他突变体没有包含关系
+        List<KillBitset_utils> killSets = toBitsets(List.of(Set.of(1), Set.of(1, 2), Set.of(1), Set.of(3)), 4);
+
+        List<int[]> pairs = KillBitset_utils.strictSubsetPairs(killSets);
+
+        assertEquals(2, pairs.size());
+        assertArrayEquals(new int[] { 0, 1 }, pairs.get(0));
+        assertArrayEquals(new int[] { 2, 1 }, pairs.get(1));
+    }
+
+    // 随机杀死集合：一部分由已有集合增删少量元素得到，保证存在包含和相等的情况
+    private static List<Set<Integer>> randomKillSets(SplittableRandom random, int mutants, int testCount) {
+        List<Set<Integer>> sets = new ArrayList<>();
+        for (int i = 0; i < mutants; i++) {
+            Set<Integer> set;
+            if (!sets.isEmpty() && random.nextBoolean()) {
+                set = new HashSet<>(sets.get(random.nextInt(sets.size())));
+                int changes = random.nextInt(3);
+                for (int c = 0; c < changes; c++) {
+                    int t = random.nextInt(testCount);
+                    if (random.nextBoolean()) {
+                        set.add(t);
+                    } else {
+                        set.remove(t);
+                    }
+                }
+            } else {
+                set = new HashSet<>();
+                double density = random.nextDouble();
+                for (int t = 0; t < testCount; t++) {
+                    if (random.nextDouble() < density) {
+                        set.add(t);
+                    }
+                }
+            }
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    private static List<KillBitset_utils> toBitsets(List<Set<Integer>> sets, int testCount) {
+        List<KillBitset_utils> bitsets = new ArrayList<>();
+        for (Set<Integer> set : sets) {
+            KillBitset_utils bitset = new KillBitset_utils(testCount);
+            for (int t : set) {
+                bitset.add(t);
+            }
+            bitsets.add(bitset);
+        }
+        return bitsets;
+    }
+}
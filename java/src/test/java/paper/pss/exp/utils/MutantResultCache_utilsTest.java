@@ -0,0 +1,67 @@
+package paper.pss.exp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import paper.pss.exp.math1_project.metamorphicRelations.MR1_relation;
+import paper.pss.exp.math1_project.model.MetamorphicRelation;
+
+class MutantResultCache_utilsTest {
+
+    private static final List<String> TEST_KEYS = List.of("t0", "t1", "t2");
+
+    @Test
+    void packageHashCoversEveryClassInPackage() throws Exception {
+        String hash = MutantResultCache_utils.packageHash("paper.pss.exp.utils");
+        assertNotNull(hash);
+        assertEquals(hash, MutantResultCache_utils.packageHash("paper.pss.exp.utils"));
+        // 只含入口类的摘要与整个包的摘要不同
+        assertNotEquals(hash, MutantResultCache_utils.analysisHash(List.of(MutantResultCache_utils.class), List.of()));
+        assertNull(MutantResultCache_utils.packageHash("paper.pss.exp.no_such_package"));
+    }
+
+    @Test
+    void metamorphicRelationPackageContributesToAnalysisHash() throws Exception {
+        String modelPackage = MetamorphicRelation.class.getPackageName();
+        String mrPackage = MR1_relation.class.getPackageName();
+        String withoutRelations = MutantResultCache_utils.analysisHash(List.of(), List.of(modelPackage));
+        String withRelations = MutantResultCache_utils.analysisHash(List.of(), List.of(mrPackage, modelPackage));
+        assertNotEquals(withoutRelations, withRelations);
+        // 蜕变关系包内全部类都计入摘要，不只是引用到的那一个
+        assertNotEquals(MutantResultCache_utils.analysisHash(List.of(MR1_relation.class), List.of(modelPackage)),
+                withRelations);
+    }
+
+    @Test
+    void unknownPackageInAnalysisHashFailsLoudly() {
+        assertThrows(IllegalArgumentException.class, () -> MutantResultCache_utils.analysisHash(List.of(),
+                List.of("paper.pss.exp.exp.metamorphicRelations")));
+    }
+
+    @Test
+    void entryIsReusedOnlyUnderSameAnalysisHash(@TempDir Path dir) throws Exception {
+        MutantResultCache_utils.Entry entry = new MutantResultCache_utils.Entry(2,
+                Map.of("t0", "PASS", "t1", "KILLED"), Map.of("t0", "0", "t1", "1"), List.of(1), null);
+        new MutantResultCache_utils(dir, 7, "oracle-a", TEST_KEYS).store("m1", "code", entry);
+
+        MutantResultCache_utils.Entry cached = new MutantResultCache_utils(dir, 7, "oracle-a", TEST_KEYS)
+                .load("m1", "code");
+        assertNotNull(cached);
+        assertEquals(2, cached.testCount);
+        assertEquals(List.of(1), cached.kills);
+
+        assertNull(new MutantResultCache_utils(dir, 7, "oracle-b", TEST_KEYS).load("m1", "code"));
+        assertNull(new MutantResultCache_utils(dir, 7, "oracle-a", TEST_KEYS).load("m1", "changed"));
+        assertNull(new MutantResultCache_utils(dir, 8, "oracle-a", TEST_KEYS).load("m1", "code"));
+    }
+}
@@ -0,0 +1,85 @@
+package paper.pss.exp.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class MutantWatchdog_utilsTest {
+
+    private static final long TIMEOUT_MILLIS = 50;
+
+    // 执行线程启动比 timeout 慢几倍，看门狗的前几次检查都看不到执行线程
+    private static final Runnable SLOW_STARTUP = () -> sleep(4 * TIMEOUT_MILLIS);
+
+    @Test
+    void delayedWorkerStartIsNotReportedAsTimeout() throws Exception {
+        MutantWatchdog_utils watchdog = new MutantWatchdog_utils("test-slow", TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+                SLOW_STARTUP);
+
+        int result = watchdog.call(() -> {
+            MutantWatchdog_utils.enter();
+            try {
+                return 42;
+            } finally {
+                MutantWatchdog_utils.exit();
+            }
+        });
+
+        assertEquals(42, result);
+        assertEquals(0, watchdog.getTimeoutCount());
+    }
+
+    @Test
+    void hungCallTimesOutAfterDelayedWorkerStart() {
+        MutantWatchdog_utils watchdog = new MutantWatchdog_utils("test-hung", TIMEOUT_MILLIS, TimeUnit.MILLISECONDS,
+                SLOW_STARTUP);
+
+        assertThrows(MutantWatchdog_utils.MutantTimeoutException.class, () -> watchdog.call(() -> {
+            MutantWatchdog_utils.enter();
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+                return 0;
+            } finally {
+                MutantWatchdog_utils.exit();
+            }
+        }));
+        assertEquals(1, watchdog.getTimeoutCount());
+    }
+
+    @Test
+    void batchOfShortCallsLongerThanTimeoutCompletes() throws Exception {
+        MutantWatchdog_utils watchdog = new MutantWatchdog_utils("test-batch", TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        // 整个批次远长于 timeout，但每次调用都很短，不应超时
+        int calls = watchdog.call(() -> {
+            int count = 0;
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5 * TIMEOUT_MILLIS);
+            while (System.nanoTime() < end) {
+                MutantWatchdog_utils.enter();
+                try {
+                    count++;
+                } finally {
+                    MutantWatchdog_utils.exit();
+                }
+            }
+            return count;
+        });
+
+        assertTrue(calls > 0);
+        assertEquals(0, watchdog.getTimeoutCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}